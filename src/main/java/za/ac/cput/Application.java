@@ -3,7 +3,8 @@ package za.ac.cput;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * za.ac.za.ac.cput.Application.java
@@ -17,7 +18,14 @@ import java.util.Collections;
 public class Application {
     public static void main(String[] args) {
         SpringApplication app = new SpringApplication(Application.class);
-        app.setDefaultProperties(Collections.singletonMap("server.servlet.context-path", "/store"));
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("server.servlet.context-path", "/store");
+        // Send inserts and updates in JDBC batches, grouped by table so a batch is not broken up by interleaved entities
+        defaults.put("spring.jpa.properties.hibernate.jdbc.batch_size", 50);
+        defaults.put("spring.jpa.properties.hibernate.order_inserts", true);
+        defaults.put("spring.jpa.properties.hibernate.order_updates", true);
+        defaults.put("spring.jpa.properties.hibernate.jdbc.batch_versioned_data", true);
+        app.setDefaultProperties(defaults);
         app.run(args);
     }
 }
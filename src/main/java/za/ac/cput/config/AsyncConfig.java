@@ -0,0 +1,97 @@
+package za.ac.cput.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * AsyncConfig.java
+ *
+ * This class provides the executor used to run independent catalog lookups of one request concurrently.
+ * Each task takes its own database connection, so the pool is kept below the connection pool size.
+ * When the queue is full the request thread runs the task itself rather than failing.
+ * It also provides the executor that writes the catalog exports. An export holds a connection for as long
+ * as it runs, so only a few run at once. The export endpoints hand their work to it with a long timeout of
+ * their own, other asynchronous requests keep Spring MVC's default executor and timeout.
+ * Image variants are resized on a pool of their own, decoding a photo takes a lot of memory, so the pool
+ * is small and the queue bounded, work that does not fit is dropped and picked up by the next sweep.
+ *
+ * Author: Rethabile Ntsekhe
+ * Date: 18-Oct-26
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String CATALOG_EXECUTOR = "catalogExecutor";
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+    public static final String IMAGE_EXECUTOR = "imageExecutor";
+
+    @Value("${store.catalog.executor.pool-size:6}")
+    private int poolSize;
+
+    @Value("${store.catalog.executor.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${store.streaming.executor.pool-size:2}")
+    private int streamingPoolSize;
+
+    @Value("${store.streaming.executor.queue-capacity:8}")
+    private int streamingQueueCapacity;
+
+    @Value("${store.images.executor.pool-size:2}")
+    private int imagePoolSize;
+
+    @Value("${store.images.executor.queue-capacity:100}")
+    private int imageQueueCapacity;
+
+    /**
+     * Bean definition for the catalog lookup executor.
+     *
+     * @return the executor used by the catalog services for concurrent lookups.
+     */
+    @Bean(name = CATALOG_EXECUTOR)
+    public ThreadPoolTaskExecutor catalogExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("catalog-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Bean definition for the executor that writes the catalog exports.
+     *
+     * @return the executor the export endpoints run on.
+     */
+    @Bean(name = STREAMING_EXECUTOR)
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamingPoolSize);
+        executor.setMaxPoolSize(streamingPoolSize);
+        executor.setQueueCapacity(streamingQueueCapacity);
+        executor.setThreadNamePrefix("streaming-");
+        return executor;
+    }
+
+    /**
+     * Bean definition for the image variant executor.
+     *
+     * @return the executor used to resize product images, rejects work when its queue is full.
+     */
+    @Bean(name = IMAGE_EXECUTOR)
+    public ThreadPoolTaskExecutor imageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imagePoolSize);
+        executor.setMaxPoolSize(imagePoolSize);
+        executor.setQueueCapacity(imageQueueCapacity);
+        executor.setThreadNamePrefix("images-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
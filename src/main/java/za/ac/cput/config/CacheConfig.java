@@ -0,0 +1,56 @@
+package za.ac.cput.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * CacheConfig.java
+ *
+ * This class provides the configuration for the in-process catalog caches.
+ * Product, SKU and attribute reads are cached in bounded Caffeine caches that expire after a
+ * configurable time, hit, miss and eviction counts are published through the actuator metrics.
+ *
+ * Author: Rethabile Ntsekhe
+ * Date: 18-Oct-26
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_SKUS = "productSkus";
+    public static final String PRODUCT_ATTRIBUTES = "productAttributes";
+
+    @Value("${store.cache.catalog.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${store.cache.catalog.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    /**
+     * Bean definition for the catalog CacheManager.
+     *
+     * The caches are declared up front so the actuator binds their metrics at startup.
+     * The manager is transaction aware, evictions made inside a write are applied after the
+     * commit so a concurrent read cannot put the old row back into the cache.
+     *
+     * @return the CacheManager used by the catalog services.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCTS, PRODUCT_SKUS, PRODUCT_ATTRIBUTES);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -7,11 +7,18 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import java.net.URI;
+
 /**
  * S3Config.java
  *
+ * Set aws.s3.endpoint to point the client and presigner at an S3 compatible stand-in such as MinIO or
+ * LocalStack, objects are then addressed by path since such servers do not resolve bucket host names.
+ *
  * @author Rethabile Ntsekhe
  * Student Num: 220455430
  * @date 14-Aug-24
@@ -30,25 +37,42 @@ public class S3Config {
     @Value("${aws.region}")
     private String region;
 
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
     @Bean
     public S3Client s3Client() {
         // Use the injected values to configure S3Client
-        return S3Client.builder()
+        S3ClientBuilder builder = S3Client.builder()
                 .region(Region.of(region))
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(accessKey, secretKey) // Using injected access and secret keys
-                ))
-                .build();
+                ));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                    .serviceConfiguration(pathStyle());
+        }
+        return builder.build();
     }
 
     @Bean
     public S3Presigner s3Presigner() {
         // Use the injected values to configure S3Presigner
-        return S3Presigner.builder()
+        S3Presigner.Builder builder = S3Presigner.builder()
                 .region(Region.of(region)) // Using injected region value
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(accessKey, secretKey) // Using injected access and secret keys
-                ))
+                ));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                    .serviceConfiguration(pathStyle());
+        }
+        return builder.build();
+    }
+
+    private static S3Configuration pathStyle() {
+        return S3Configuration.builder()
+                .pathStyleAccessEnabled(true)
                 .build();
     }
 }
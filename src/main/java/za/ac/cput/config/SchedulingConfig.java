@@ -0,0 +1,17 @@
+package za.ac.cput.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * SchedulingConfig.java
+ *
+ * This class enables the scheduled background jobs, such as releasing expired stock reservations.
+ *
+ * Author: Rethabile Ntsekhe
+ * Date: 18-Oct-26
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,47 @@
+package za.ac.cput.config;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * SoftDeleteConfig.java
+ *
+ * This class turns on the soft-delete filter for every EntityManager the application opens, so queries and
+ * collection loads of products, SKUs, categories, sub-categories and wishlists skip rows with a deletedAt.
+ * A filter is used rather than a fixed restriction because a restriction also applies to to-one joins:
+ * order, cart and wishlist items of a soft-deleted product would disappear with it. Loading by id and
+ * following a to-one reference still reach a soft-deleted row.
+ *
+ * Author: Rethabile Ntsekhe
+ * Date: 18-Oct-26
+ */
+@Configuration
+public class SoftDeleteConfig {
+
+    /**
+     * Name of the filter declared in the domain package-info, condition {@code deleted_at IS NULL}.
+     */
+    public static final String ACTIVE_FILTER = "active";
+
+    /**
+     * Bean definition that enables the filter on each EntityManager as it is created.
+     *
+     * @return the post processor that customizes the EntityManagerFactory
+     */
+    @Bean
+    public static BeanPostProcessor activeFilterPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean factory) {
+                    factory.setEntityManagerInitializer(entityManager ->
+                            entityManager.unwrap(Session.class).enableFilter(ACTIVE_FILTER));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import za.ac.cput.domain.CartItem;
 import za.ac.cput.service.CartItemService;
+import za.ac.cput.service.TrendingService;
 
 import java.util.List;
 
@@ -23,14 +24,16 @@ import java.util.List;
 public class CartItemController {
 
     private final CartItemService cartItemService;
+    private final TrendingService trendingService;
 
     @Autowired
-    public CartItemController(CartItemService cartItemService) {
+    public CartItemController(CartItemService cartItemService, TrendingService trendingService) {
         this.cartItemService = cartItemService;
+        this.trendingService = trendingService;
     }
 
     /**
-     * Creates a new cart item.
+     * Creates a new cart item and counts it as a cart add of its product for the trending ranking.
      *
      * @param cartItem the CartItem object to be created
      * @return ResponseEntity containing the created CartItem and HTTP status code 201 Created
@@ -38,6 +41,9 @@ public class CartItemController {
     @PostMapping
     public ResponseEntity<CartItem> createCartItem(@RequestBody CartItem cartItem) {
         CartItem createdCartItem = cartItemService.create(cartItem);
+        if (createdCartItem.getProduct() != null) {
+            trendingService.recordCartAdd(createdCartItem.getProduct().getId());
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(createdCartItem);
     }
 
@@ -1,16 +1,19 @@
 package za.ac.cput.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import za.ac.cput.domain.Category;
+import za.ac.cput.domain.CategoryTreeNode;
+import za.ac.cput.service.CatalogRevision;
 import za.ac.cput.service.CategoryService;
+import za.ac.cput.service.CategoryTreeService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * CategoryController.java
@@ -26,10 +29,15 @@ import java.util.Optional;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogRevision catalogRevision;
+    private final CategoryTreeService categoryTreeService;
 
     @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CatalogRevision catalogRevision,
+                              CategoryTreeService categoryTreeService) {
         this.categoryService = categoryService;
+        this.catalogRevision = catalogRevision;
+        this.categoryTreeService = categoryTreeService;
     }
 
     /**
@@ -48,16 +56,14 @@ public class CategoryController {
      * Retrieves a category by its ID.
      *
      * @param id the ID of the category to retrieve
-     * @return ResponseEntity containing the Category if found, or a 404 Not Found status if not
+     * @param ifNoneMatch the ETag of the client's copy, if any
+     * @return ResponseEntity containing the Category if found, 304 Not Modified if the client's copy is current,
+     * or a 404 Not Found status if not
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        Category category = categoryService.read(id);
-        if (category != null) {
-            return ResponseEntity.ok(category);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<Category> getCategoryById(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogRevision.conditional(ifNoneMatch, () -> categoryService.read(id));
     }
 
     /**
@@ -92,12 +98,26 @@ public class CategoryController {
     /**
      * Retrieves all categories.
      *
-     * @return ResponseEntity containing the list of all Categories and HTTP status code
+     * @param ifNoneMatch the ETag of the client's copy, if any
+     * @return ResponseEntity containing the list of all Categories, or 304 Not Modified if the client's copy is current
      */
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categoryList = categoryService.findAll();
-        return ResponseEntity.ok(categoryList);
+    public ResponseEntity<List<Category>> getAllCategories(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogRevision.conditional(ifNoneMatch, categoryService::findAll);
+    }
+
+    /**
+     * Retrieves the navigation tree: every category with its sub-categories and their product counts.
+     * The tree is served from memory.
+     *
+     * @param ifNoneMatch the ETag of the client's copy, if any
+     * @return ResponseEntity containing the category tree, or 304 Not Modified if the client's copy is current
+     */
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryTreeNode>> getCategoryTree(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CategoryTreeService.Snapshot tree = categoryTreeService.snapshot();
+        return catalogRevision.conditional(ifNoneMatch, tree.etag(), tree::nodes);
     }
 
     // New endpoints for custom queries
@@ -132,8 +152,8 @@ public class CategoryController {
      * @return ResponseEntity containing the list of deleted Categories and HTTP status code
      */
     @GetMapping("/deleted")
-    public ResponseEntity<Optional<Category>> findAllDeletedCategories() {
-        Optional<Category> categories = categoryService.findByDeletedAtIsNotNull();
+    public ResponseEntity<List<Category>> findAllDeletedCategories() {
+        List<Category> categories = categoryService.findByDeletedAtIsNotNull();
         return ResponseEntity.ok(categories);
     }
 
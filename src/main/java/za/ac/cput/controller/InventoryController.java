@@ -0,0 +1,97 @@
+package za.ac.cput.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import za.ac.cput.domain.StockReservation;
+import za.ac.cput.service.InventoryService;
+
+/**
+ * InventoryController.java
+ *
+ * This class handles HTTP requests related to SKU stock.
+ * It provides endpoints to reserve stock, commit or release a reservation and read the available stock.
+ *
+ * Author: Rethabile Ntsekhe
+ * Date: 18-Oct-26
+ */
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @Autowired
+    public InventoryController(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    /**
+     * Reserves stock of a product SKU.
+     *
+     * @param stockReservation the SKU id and quantity to reserve
+     * @return ResponseEntity containing the created StockReservation, 409 Conflict if there is not enough stock
+     * or 400 Bad Request if the quantity is not positive
+     */
+    @PostMapping("/reservations")
+    public ResponseEntity<StockReservation> reserve(@RequestBody StockReservation stockReservation) {
+        try {
+            StockReservation reservation = inventoryService.reserve(
+                    stockReservation.getProductSkuId(), stockReservation.getQuantity());
+            if (reservation != null) {
+                return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+            } else {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Commits a reservation once the order is paid.
+     *
+     * @param id the ID of the reservation
+     * @return ResponseEntity with 204 No Content, or 404 Not Found if the reservation was released or expired
+     */
+    @PostMapping("/reservations/{id}/commit")
+    public ResponseEntity<Void> commit(@PathVariable Long id) {
+        if (inventoryService.commit(id)) {
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Releases a reservation and returns its stock.
+     *
+     * @param id the ID of the reservation
+     * @return ResponseEntity with 204 No Content, or 404 Not Found if the reservation no longer exists
+     */
+    @DeleteMapping("/reservations/{id}")
+    public ResponseEntity<Void> release(@PathVariable Long id) {
+        if (inventoryService.release(id)) {
+            return ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Retrieves the stock of a product SKU that can still be reserved.
+     *
+     * @param productSkuId the ID of the product SKU
+     * @return ResponseEntity containing the available quantity, or 404 Not Found if there is no such SKU
+     */
+    @GetMapping("/{productSkuId}")
+    public ResponseEntity<Integer> available(@PathVariable Long productSkuId) {
+        Integer available = inventoryService.available(productSkuId);
+        if (available != null) {
+            return ResponseEntity.ok(available);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package za.ac.cput.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import za.ac.cput.domain.ImageUrls;
+import za.ac.cput.domain.PricedProduct;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductDetail;
+import za.ac.cput.domain.ProductImageVariant;
+import za.ac.cput.domain.ProductPage;
+import za.ac.cput.domain.TrendingProduct;
+import za.ac.cput.service.S3Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * PrivateImageUrlAdvice.java
+ *
+ * With a private bucket, collects the image keys of every product in a JSON response before it is written and
+ * has S3Service sign the ones it has not cached in one batch, so the ImageUrlSerializer only reads the cache.
+ * Products nested in other entities are not collected, their images are signed one by one as they are written.
+ *
+ * Author: Rethabile Ntsekhe
+ * Date: 18-Oct-26
+ */
+@ControllerAdvice
+public class PrivateImageUrlAdvice implements ResponseBodyAdvice<Object> {
+
+    private final S3Service s3Service;
+
+    @Autowired
+    public PrivateImageUrlAdvice(S3Service s3Service) {
+        this.s3Service = s3Service;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return s3Service.isPrivateBucket() && MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Set<String> keys = new HashSet<>();
+        collect(body, keys);
+        if (!keys.isEmpty()) {
+            s3Service.readUrls(keys);
+        }
+        return body;
+    }
+
+    private void collect(Object body, Set<String> keys) {
+        if (body instanceof Collection<?> items) {
+            items.forEach(item -> collect(item, keys));
+        } else if (body instanceof ProductPage page) {
+            collect(page.getItems(), keys);
+        } else if (body instanceof PricedProduct priced) {
+            collect(priced.getProduct(), keys);
+        } else if (body instanceof TrendingProduct trending) {
+            collect(trending.getProduct(), keys);
+        } else if (body instanceof ProductDetail detail) {
+            collect(detail.getProduct(), keys);
+        } else if (body instanceof ProductImageVariant variant) {
+            add(variant.getUrl(), keys);
+        } else if (body instanceof Product product) {
+            add(product.getCover(), keys);
+            add(product.getCoverThumbnail(), keys);
+            ImageUrls images = product.getImageUrls();
+            if (images != null) {
+                add(images.getImageUrl1(), keys);
+                add(images.getImageUrl2(), keys);
+                add(images.getImageUrl3(), keys);
+                add(images.getImageUrl4(), keys);
+            }
+        }
+    }
+
+    private void add(String image, Set<String> keys) {
+        String key = s3Service.keyOf(image);
+        if (key != null) {
+            keys.add(key);
+        }
+    }
+}
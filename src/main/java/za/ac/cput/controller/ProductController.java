@@ -1,12 +1,37 @@
 package za.ac.cput.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import za.ac.cput.config.AsyncConfig;
+import za.ac.cput.domain.ImportReport;
+import za.ac.cput.domain.PriceSummary;
+import za.ac.cput.domain.PricedProduct;
 import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductDetail;
+import za.ac.cput.domain.ProductImageVariant;
+import za.ac.cput.domain.ProductPage;
+import za.ac.cput.domain.TrendingProduct;
+import za.ac.cput.enums.ImportFormat;
+import za.ac.cput.enums.TrendingWindow;
+import za.ac.cput.service.CatalogExportService;
+import za.ac.cput.service.CatalogImportService;
+import za.ac.cput.service.CatalogRevision;
+import za.ac.cput.service.ProductDetailService;
+import za.ac.cput.service.ProductImageService;
 import za.ac.cput.service.ProductService;
+import za.ac.cput.service.TrendingService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -23,10 +48,31 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogImportService catalogImportService;
+    private final CatalogRevision catalogRevision;
+    private final ProductDetailService productDetailService;
+    private final CatalogExportService catalogExportService;
+    private final TrendingService trendingService;
+    private final ProductImageService productImageService;
+    private final AsyncTaskExecutor streamingExecutor;
+
+    @Value("${store.streaming.timeout:3600000}")
+    private long streamingTimeout;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CatalogImportService catalogImportService,
+                             CatalogRevision catalogRevision, ProductDetailService productDetailService,
+                             CatalogExportService catalogExportService, TrendingService trendingService,
+                             ProductImageService productImageService,
+                             @Qualifier(AsyncConfig.STREAMING_EXECUTOR) AsyncTaskExecutor streamingExecutor) {
         this.productService = productService;
+        this.catalogImportService = catalogImportService;
+        this.catalogRevision = catalogRevision;
+        this.productDetailService = productDetailService;
+        this.catalogExportService = catalogExportService;
+        this.trendingService = trendingService;
+        this.productImageService = productImageService;
+        this.streamingExecutor = streamingExecutor;
     }
 
     /**
@@ -42,19 +88,22 @@ public class ProductController {
     }
 
     /**
-     * Retrieves a product by its ID.
+     * Retrieves a product by its ID. Every found product, including a 304 Not Modified, counts as a view
+     * for the trending ranking.
      *
      * @param id the ID of the product to retrieve
-     * @return ResponseEntity containing the Product if found, or a 404 Not Found status if not
+     * @param ifNoneMatch the ETag of the client's copy, if any
+     * @return ResponseEntity containing the Product if found, 304 Not Modified if the client's copy is current,
+     * or a 404 Not Found status if not
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Product product = productService.read(id);
-        if (product != null) {
-            return ResponseEntity.ok(product);
-        } else {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<Product> getProductById(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ResponseEntity<Product> response = catalogRevision.conditional(ifNoneMatch, () -> productService.read(id));
+        if (!response.getStatusCode().is4xxClientError()) {
+            trendingService.recordView(id);
         }
+        return response;
     }
 
     /**
@@ -89,11 +138,202 @@ public class ProductController {
     /**
      * Retrieves all products.
      *
-     * @return ResponseEntity containing the list of all Products and HTTP status code
+     * @param ifNoneMatch the ETag of the client's copy, if any
+     * @return ResponseEntity containing the list of all Products, or 304 Not Modified if the client's copy is current
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.findAll();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<Product>> getAllProducts(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogRevision.conditional(ifNoneMatch, productService::findAll);
+    }
+
+    /**
+     * Searches products by name, summary and description.
+     *
+     * @param q the search text
+     * @param limit the maximum number of products to return, defaults to the configured page size
+     * @param ifNoneMatch the ETag of the client's copy, if any
+     * @return ResponseEntity containing the matching products, best match first,
+     * or 304 Not Modified if the client's copy is current
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Product>> searchProducts(@RequestParam String q,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogRevision.conditional(ifNoneMatch, () -> productService.search(q, limit));
+    }
+
+    /**
+     * Retrieves the products with a SKU priced within a range, cheapest first.
+     * Prices change with SKU writes, so this listing carries no ETag.
+     *
+     * @param min the lowest price, inclusive, omitted for no lower bound
+     * @param max the highest price, inclusive, omitted for no upper bound
+     * @param inStock true to only match SKUs that have stock
+     * @param limit the maximum number of products to return, defaults to the configured page size
+     * @return ResponseEntity containing the matching products with the price they matched at,
+     * or 400 Bad Request if the minimum is above the maximum
+     */
+    @GetMapping("/by-price")
+    public ResponseEntity<List<PricedProduct>> getProductsByPrice(@RequestParam(required = false) Double min,
+                                                                  @RequestParam(required = false) Double max,
+                                                                  @RequestParam(defaultValue = "false") boolean inStock,
+                                                                  @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(productService.findByPriceRange(min, max, inStock, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retrieves everything a product page shows: the product, its SKUs with their size, color and brand,
+     * and its rating summary.
+     *
+     * @param id the ID of the product
+     * @return ResponseEntity containing the ProductDetail, or 404 Not Found if there is no such product
+     */
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<ProductDetail> getProductDetail(@PathVariable Long id) {
+        ProductDetail detail = productDetailService.read(id);
+        if (detail != null) {
+            return ResponseEntity.ok(detail);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Retrieves the products viewed and added to carts the most within the last hour or day.
+     * The counts are kept in memory, so they are per instance and start over after a restart.
+     *
+     * @param window hour or day, defaults to day
+     * @param limit the maximum number of products to return, defaults to the configured page size
+     * @return ResponseEntity containing the trending products with their counts, highest score first,
+     * or 400 Bad Request if the window is not supported
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingProduct>> getTrendingProducts(@RequestParam(defaultValue = "day") String window,
+                                                                     @RequestParam(required = false) Integer limit) {
+        TrendingWindow trendingWindow;
+        try {
+            trendingWindow = TrendingWindow.fromName(window);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.findTrending(trendingWindow, limit));
+    }
+
+    /**
+     * Retrieves the products frequently bought together with a product, from the co-occurrence
+     * of products in orders, carts and wishlists. The index is rebuilt periodically, so new
+     * orders show up after the next rebuild.
+     *
+     * @param id the ID of the product
+     * @param limit the maximum number of products to return, defaults to the configured page size
+     * @return ResponseEntity containing the related products, most related first
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<Product>> getRelatedProducts(@PathVariable Long id,
+                                                            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.findRelated(id, limit));
+    }
+
+    /**
+     * Retrieves the resized variants of a product's cover and images. Variants are made in the background
+     * after the product is saved, so a newly uploaded image has none for a short while.
+     *
+     * @param id the ID of the product
+     * @return ResponseEntity containing the variants, grouped by original image
+     */
+    @GetMapping("/{id}/images")
+    public ResponseEntity<List<ProductImageVariant>> getProductImages(@PathVariable Long id) {
+        return ResponseEntity.ok(productImageService.findVariants(id));
+    }
+
+    /**
+     * Retrieves the price range and stock of a product across its SKUs.
+     *
+     * @param id the ID of the product
+     * @return ResponseEntity containing the PriceSummary, or 404 Not Found if the product has no SKUs
+     */
+    @GetMapping("/{id}/price")
+    public ResponseEntity<PriceSummary> getProductPrice(@PathVariable Long id) {
+        PriceSummary summary = productService.findPriceSummary(id);
+        if (summary != null) {
+            return ResponseEntity.ok(summary);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Retrieves one page of products, ordered by id.
+     * Pass the nextCursor of a page back as the cursor to read the following page.
+     *
+     * @param cursor the opaque cursor of the page to read, omitted for the first page
+     * @param size the number of products per page, defaults to the configured page size
+     * @param ifNoneMatch the ETag of the client's copy, if any
+     * @return ResponseEntity containing the ProductPage, 304 Not Modified if the client's copy is current,
+     * or 400 Bad Request if the cursor is invalid
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ProductPage> getProductPage(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return catalogRevision.conditional(ifNoneMatch, () -> productService.findPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Imports products in bulk from a CSV body with a header line or an NDJSON body with one object per line.
+     * Columns: name, description, summary, cover, imageUrl1 to imageUrl4 and subCategoryIds.
+     * Valid rows are saved in batches, invalid rows are skipped and listed in the report.
+     *
+     * @param contentType text/csv or application/x-ndjson
+     * @param body the rows to import, read as a stream
+     * @return ResponseEntity containing the ImportReport, or 400 Bad Request if the content type is not supported
+     */
+    @PostMapping(value = "/import", consumes = {ImportFormat.CSV_MEDIA_TYPE, ImportFormat.NDJSON_MEDIA_TYPE})
+    public ResponseEntity<ImportReport> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                       InputStream body) {
+        ImportFormat format;
+        try {
+            format = ImportFormat.fromContentType(contentType);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(catalogImportService.importProducts(body, format));
+    }
+
+    /**
+     * Exports every product as a CSV file with a header line or as NDJSON with one object per line.
+     * Columns: id, name, description, summary, cover, imageUrl1 to imageUrl4, subCategoryIds and createdAt.
+     * Rows are streamed from the database to the response, the export is never held in memory.
+     * The rows are written on the streaming executor, with the export timeout rather than the default one.
+     *
+     * @param format   csv or ndjson, defaults to csv
+     * @param response the response the rows are written to
+     * @return the task writing the rows, or null after a 400 Bad Request if the format is not supported
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportProducts(@RequestParam(defaultValue = "csv") String format,
+                                             HttpServletResponse response) throws IOException {
+        ImportFormat exportFormat;
+        try {
+            exportFormat = ImportFormat.fromName(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return null;
+        }
+        response.setContentType(exportFormat.mediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("products." + exportFormat.extension()).build().toString());
+        return new WebAsyncTask<>(streamingTimeout, streamingExecutor, () -> {
+            catalogExportService.exportProducts(response.getOutputStream(), exportFormat);
+            return null;
+        });
     }
 }
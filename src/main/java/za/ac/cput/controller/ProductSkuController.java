@@ -1,11 +1,29 @@
 package za.ac.cput.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import za.ac.cput.config.AsyncConfig;
+import za.ac.cput.domain.FacetResult;
+import za.ac.cput.domain.ImportReport;
+import za.ac.cput.domain.SkuUpdate;
+import za.ac.cput.domain.SkuUpdateResult;
+import za.ac.cput.enums.ImportFormat;
+import za.ac.cput.service.CatalogExportService;
+import za.ac.cput.service.CatalogImportService;
+import za.ac.cput.service.ProductFacetIndex;
 import za.ac.cput.service.ProductSkuService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -22,10 +40,23 @@ import java.util.List;
 public class ProductSkuController {
 
     private final ProductSkuService productSkuService;
+    private final ProductFacetIndex productFacetIndex;
+    private final CatalogImportService catalogImportService;
+    private final CatalogExportService catalogExportService;
+    private final AsyncTaskExecutor streamingExecutor;
+
+    @Value("${store.streaming.timeout:3600000}")
+    private long streamingTimeout;
 
     @Autowired
-    public ProductSkuController(ProductSkuService productSkuService) {
+    public ProductSkuController(ProductSkuService productSkuService, ProductFacetIndex productFacetIndex,
+                                CatalogImportService catalogImportService, CatalogExportService catalogExportService,
+                                @Qualifier(AsyncConfig.STREAMING_EXECUTOR) AsyncTaskExecutor streamingExecutor) {
         this.productSkuService = productSkuService;
+        this.productFacetIndex = productFacetIndex;
+        this.catalogImportService = catalogImportService;
+        this.catalogExportService = catalogExportService;
+        this.streamingExecutor = streamingExecutor;
     }
 
     /**
@@ -56,6 +87,22 @@ public class ProductSkuController {
         }
     }
 
+    /**
+     * Retrieves a product SKU by its SKU code, e.g. a scanned barcode.
+     *
+     * @param sku the SKU code of the product SKU to retrieve
+     * @return ResponseEntity containing the ProductSku if found, or a 404 Not Found status if not
+     */
+    @GetMapping("/by-code/{sku}")
+    public ResponseEntity<za.ac.cput.domain.ProductSku> getProductSkuByCode(@PathVariable String sku) {
+        za.ac.cput.domain.ProductSku productSku = productSkuService.findBySku(sku);
+        if (productSku != null) {
+            return ResponseEntity.ok(productSku);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Updates an existing product SKU.
      *
@@ -95,4 +142,82 @@ public class ProductSkuController {
         List<za.ac.cput.domain.ProductSku> productSkus = productSkuService.findAll();
         return ResponseEntity.ok(productSkus);
     }
+
+    /**
+     * Sets the price and/or quantity of many product SKUs at once, identified by SKU code.
+     * All updates are applied in one transaction.
+     *
+     * @param updates the SKU codes and their new price and/or quantity
+     * @return ResponseEntity containing the number of applied and unchanged SKUs and the unknown and invalid codes
+     */
+    @PostMapping("/bulk-update")
+    public ResponseEntity<SkuUpdateResult> bulkUpdateProductSkus(@RequestBody List<SkuUpdate> updates) {
+        return ResponseEntity.ok(productSkuService.bulkUpdate(updates));
+    }
+
+    /**
+     * Filters products by SKU attributes, e.g. {@code /facets?size=6&color=7&brand=8}.
+     * Several ids of the same attribute type match any of them.
+     *
+     * @param size the size attribute ids to match
+     * @param color the color attribute ids to match
+     * @param brand the brand attribute ids to match
+     * @return ResponseEntity containing the matching product ids and the product count of every attribute value
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResult> filterByFacets(@RequestParam(required = false) List<Long> size,
+                                                      @RequestParam(required = false) List<Long> color,
+                                                      @RequestParam(required = false) List<Long> brand) {
+        return ResponseEntity.ok(productFacetIndex.filter(size, color, brand));
+    }
+
+    /**
+     * Imports product SKUs in bulk from a CSV body with a header line or an NDJSON body with one object per line.
+     * Columns: productId, sizeAttributeId, colorAttributeId, brandAttributeId, sku, price and quantity.
+     * Valid rows are saved in batches, invalid rows are skipped and listed in the report.
+     *
+     * @param contentType text/csv or application/x-ndjson
+     * @param body the rows to import, read as a stream
+     * @return ResponseEntity containing the ImportReport, or 400 Bad Request if the content type is not supported
+     */
+    @PostMapping(value = "/import", consumes = {ImportFormat.CSV_MEDIA_TYPE, ImportFormat.NDJSON_MEDIA_TYPE})
+    public ResponseEntity<ImportReport> importProductSkus(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                       InputStream body) {
+        ImportFormat format;
+        try {
+            format = ImportFormat.fromContentType(contentType);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(catalogImportService.importProductSkus(body, format));
+    }
+
+    /**
+     * Exports every product SKU as a CSV file with a header line or as NDJSON with one object per line.
+     * Columns: id, productId, sizeAttributeId, colorAttributeId, brandAttributeId, sku, price, quantity and createdAt.
+     * Rows are streamed from the database to the response, the export is never held in memory.
+     * The rows are written on the streaming executor, with the export timeout rather than the default one.
+     *
+     * @param format   csv or ndjson, defaults to csv
+     * @param response the response the rows are written to
+     * @return the task writing the rows, or null after a 400 Bad Request if the format is not supported
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportProductSkus(@RequestParam(defaultValue = "csv") String format,
+                                                HttpServletResponse response) throws IOException {
+        ImportFormat exportFormat;
+        try {
+            exportFormat = ImportFormat.fromName(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return null;
+        }
+        response.setContentType(exportFormat.mediaType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("product-skus." + exportFormat.extension()).build().toString());
+        return new WebAsyncTask<>(streamingTimeout, streamingExecutor, () -> {
+            catalogExportService.exportProductSkus(response.getOutputStream(), exportFormat);
+            return null;
+        });
+    }
 }
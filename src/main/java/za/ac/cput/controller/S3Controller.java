@@ -3,12 +3,16 @@ package za.ac.cput.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import za.ac.cput.domain.PresignRequest;
 import za.ac.cput.domain.Presigned;
 import za.ac.cput.service.S3Service;
 
+import java.util.List;
+
 /**
  * S3Controller.java
  *
@@ -25,10 +29,8 @@ public class S3Controller {
     @PostMapping("/presigned-url")
     public ResponseEntity<Presigned> generatePresignedUrl(@RequestParam String fileName, @RequestParam String contentType) {
         try {
-            String url = s3Service.generatePresignedUrl(fileName, contentType);
-            Presigned response = Presigned.builder()
-                    .url(url) // Set the URL in the Presigned object
-                    .build();
+            // The URL with the key, content type and expiry of the signature
+            Presigned response = s3Service.presign(fileName, contentType);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             // Return a 500 status code if something goes wrong
@@ -37,4 +39,21 @@ public class S3Controller {
                     .build());
         }
     }
+
+    /**
+     * Signs upload URLs for many objects in one request, e.g. the cover and images of every product
+     * being edited. Each URL is valid for at least five minutes.
+     *
+     * @param requests the object keys and the content types their uploads will send
+     * @return ResponseEntity containing the signed URLs in the order of the requests,
+     * or 400 Bad Request if a key or content type is missing or the batch is too large
+     */
+    @PostMapping("/presigned-urls")
+    public ResponseEntity<List<Presigned>> generatePresignedUrls(@RequestBody List<PresignRequest> requests) {
+        try {
+            return ResponseEntity.ok(s3Service.presignAll(requests));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
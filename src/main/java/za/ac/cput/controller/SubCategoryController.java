@@ -1,10 +1,12 @@
 package za.ac.cput.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import za.ac.cput.domain.SubCategory;
+import za.ac.cput.service.CatalogRevision;
 import za.ac.cput.service.SubCategoryService;
 
 import java.util.List;
@@ -23,10 +25,12 @@ import java.util.List;
 public class SubCategoryController {
 
     private final SubCategoryService subCategoryService;
+    private final CatalogRevision catalogRevision;
 
     @Autowired
-    public SubCategoryController(SubCategoryService subCategoryService) {
+    public SubCategoryController(SubCategoryService subCategoryService, CatalogRevision catalogRevision) {
         this.subCategoryService = subCategoryService;
+        this.catalogRevision = catalogRevision;
     }
 
     /**
@@ -45,16 +49,14 @@ public class SubCategoryController {
      * Retrieves a sub-category by its ID.
      *
      * @param id the ID of the sub-category to retrieve
-     * @return ResponseEntity containing the SubCategory if found, or a 404 Not Found status if not
+     * @param ifNoneMatch the ETag of the client's copy, if any
+     * @return ResponseEntity containing the SubCategory if found, 304 Not Modified if the client's copy is current,
+     * or a 404 Not Found status if not
      */
     @GetMapping("/{id}")
-    public ResponseEntity<SubCategory> getSubCategoryById(@PathVariable Long id) {
-        SubCategory subCategory = subCategoryService.read(id);
-        if (subCategory != null) {
-            return ResponseEntity.ok(subCategory);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<SubCategory> getSubCategoryById(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogRevision.conditional(ifNoneMatch, () -> subCategoryService.read(id));
     }
 
     /**
@@ -89,11 +91,11 @@ public class SubCategoryController {
     /**
      * Retrieves all sub-categories.
      *
-     * @return ResponseEntity containing the list of all SubCategories and HTTP status code
+     * @param ifNoneMatch the ETag of the client's copy, if any
+     * @return ResponseEntity containing the list of all SubCategories, or 304 Not Modified if the client's copy is current
      */
     @GetMapping
-    public ResponseEntity<List<SubCategory>> getAllSubCategories() {
-        List<SubCategory> subCategories = subCategoryService.findAll();
-        return ResponseEntity.ok(subCategories);
+    public ResponseEntity<List<SubCategory>> getAllSubCategories(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogRevision.conditional(ifNoneMatch, subCategoryService::findAll);
     }
 }
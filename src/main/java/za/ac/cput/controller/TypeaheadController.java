@@ -0,0 +1,46 @@
+package za.ac.cput.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import za.ac.cput.domain.Suggestion;
+import za.ac.cput.service.TypeaheadService;
+
+import java.util.List;
+
+/**
+ * TypeaheadController.java
+ *
+ * This class handles the search box completions.
+ * It is called on every keystroke and answers from memory.
+ *
+ * Author: Rethabile Ntsekhe
+ * Date: 18-Oct-26
+ */
+@RestController
+@RequestMapping("/api/typeahead")
+public class TypeaheadController {
+
+    private final TypeaheadService typeaheadService;
+
+    @Autowired
+    public TypeaheadController(TypeaheadService typeaheadService) {
+        this.typeaheadService = typeaheadService;
+    }
+
+    /**
+     * Completes a partly typed product, category, sub-category or brand name.
+     *
+     * @param q what has been typed so far
+     * @param limit the maximum number of suggestions, at most 10
+     * @return ResponseEntity containing the suggestions, most popular first
+     */
+    @GetMapping
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam(defaultValue = "") String q,
+                                                    @RequestParam(defaultValue = "" + TypeaheadService.MAX_LIMIT) int limit) {
+        return ResponseEntity.ok(typeaheadService.suggest(q, limit));
+    }
+}
@@ -24,7 +24,8 @@ import java.util.Objects;
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+    @SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
     private Long id;
 
     // Many Carts can belong to one User
@@ -32,7 +33,12 @@ public class Cart {
     @JoinColumn(name = "user_id", nullable = false) // Mapping to the foreign key column in the "cart" table
     private User user;
 
+    // Kept by the cart item writes, see CartRepository.adjustTotals. Not updatable, so saving a cart that was
+    // read before an item write cannot put back the total it read
+    @Column(updatable = false)
     private Double total;
+    @Column(updatable = false)
+    private Integer itemCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -47,6 +53,7 @@ public class Cart {
         this.id = builder.id;
         this.user = builder.user;
         this.total = builder.total;
+        this.itemCount = builder.itemCount;
         this.createdAt = builder.createdAt;
         this.updatedAt = builder.updatedAt;
     }
@@ -57,6 +64,7 @@ public class Cart {
                 "id=" + id +
                 ", user=" + user.getFirstName() +
                 ", total=" + total +
+                ", itemCount=" + itemCount +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 "}\n";
@@ -70,19 +78,21 @@ public class Cart {
         return Objects.equals(id, cart.id) &&
                 Objects.equals(user, cart.user) &&
                 Objects.equals(total, cart.total) &&
+                Objects.equals(itemCount, cart.itemCount) &&
                 Objects.equals(createdAt, cart.createdAt) &&
                 Objects.equals(updatedAt, cart.updatedAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, user, total, createdAt, updatedAt);
+        return Objects.hash(id, user, total, itemCount, createdAt, updatedAt);
     }
 
     public static class Builder {
         private Long id;
         private User user;
         private Double total;
+        private Integer itemCount;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
 
@@ -101,6 +111,11 @@ public class Cart {
             return this;
         }
 
+        public Builder setItemCount(Integer itemCount) {
+            this.itemCount = itemCount;
+            return this;
+        }
+
         public Builder setCreatedAt(LocalDateTime createdAt) {
             this.createdAt = createdAt;
             return this;
@@ -115,6 +130,7 @@ public class Cart {
             this.id = cart.getId();
             this.user = cart.getUser();
             this.total = cart.getTotal();
+            this.itemCount = cart.getItemCount();
             this.createdAt = cart.getCreatedAt();
             this.updatedAt = cart.getUpdatedAt();
             return this;
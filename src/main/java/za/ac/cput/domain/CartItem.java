@@ -21,7 +21,8 @@ import java.util.Objects;
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+    @SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -41,6 +42,9 @@ public class CartItem {
     @Column(nullable = false)
     private int quantity;
 
+    // The SKU price when the item was written, what the item added to the cart total
+    private Double unitPrice;
+
     public CartItem() {}
 
     private CartItem(Builder builder) {
@@ -49,6 +53,7 @@ public class CartItem {
         this.product = builder.product;
         this.productSku = builder.productSku;
         this.quantity = builder.quantity;
+        this.unitPrice = builder.unitPrice;
     }
 
     @Override
@@ -59,6 +64,7 @@ public class CartItem {
                 ", product=" + product.getName() +'\''+
                 ", productSku=" + productSku.getSku()+'\'' +
                 ", quantity=" + quantity +
+                ", unitPrice=" + unitPrice +
                 "}\n";
     }
 
@@ -71,12 +77,13 @@ public class CartItem {
                 Objects.equals(id, cartItem.id) &&
                 Objects.equals(cart, cartItem.cart) &&
                 Objects.equals(product, cartItem.product) &&
-                Objects.equals(productSku, cartItem.productSku);
+                Objects.equals(productSku, cartItem.productSku) &&
+                Objects.equals(unitPrice, cartItem.unitPrice);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, cart, product, productSku, quantity);
+        return Objects.hash(id, cart, product, productSku, quantity, unitPrice);
     }
 
     public static class Builder {
@@ -85,6 +92,7 @@ public class CartItem {
         private Product product;
         private ProductSku productSku;
         private int quantity;
+        private Double unitPrice;
 
         public Builder setId(Long id) {
             this.id = id;
@@ -111,12 +119,18 @@ public class CartItem {
             return this;
         }
 
+        public Builder setUnitPrice(Double unitPrice) {
+            this.unitPrice = unitPrice;
+            return this;
+        }
+
         public Builder copy(CartItem cartItem) {
             this.id = cartItem.getId();
             this.cart = cartItem.getCart();
             this.product = cartItem.getProduct();
             this.productSku = cartItem.getProductSku();
             this.quantity = cartItem.getQuantity();
+            this.unitPrice = cartItem.getUnitPrice();
             return this;
         }
 
@@ -0,0 +1,97 @@
+package za.ac.cput.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Represents a revision counter shared by every instance of the application, so a value derived from it,
+ * such as the catalog ETag, is the same whichever instance answers a request.
+ *
+ * This entity class is mapped to the "catalog_versions" table in the database.
+ *
+ * @author Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Entity
+@Getter
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private long revision;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public CatalogVersion() {
+    }
+
+    private CatalogVersion(Builder builder) {
+        this.name = builder.name;
+        this.revision = builder.revision;
+        this.updatedAt = builder.updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogVersion{" +
+                "name='" + name + '\'' +
+                ", revision=" + revision +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CatalogVersion that = (CatalogVersion) o;
+        return revision == that.revision &&
+                Objects.equals(name, that.name) &&
+                Objects.equals(updatedAt, that.updatedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, revision, updatedAt);
+    }
+
+    public static class Builder {
+        private String name;
+        private long revision;
+        private LocalDateTime updatedAt;
+
+        public Builder setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder setRevision(long revision) {
+            this.revision = revision;
+            return this;
+        }
+
+        public Builder setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+            return this;
+        }
+
+        public Builder copy(CatalogVersion catalogVersion) {
+            this.name = catalogVersion.getName();
+            this.revision = catalogVersion.getRevision();
+            this.updatedAt = catalogVersion.getUpdatedAt();
+            return this;
+        }
+
+        public CatalogVersion build() {
+            return new CatalogVersion(this);
+        }
+    }
+}
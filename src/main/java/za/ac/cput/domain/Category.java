@@ -1,7 +1,10 @@
 package za.ac.cput.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.Filter;
+import za.ac.cput.config.SoftDeleteConfig;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -18,11 +21,14 @@ import java.util.Objects;
 
 @Entity
 @Getter
-@Table(name = "categories")
+@Table(name = "categories", indexes = @Index(name = "idx_categories_deleted_at", columnList = "deleted_at, id"))
+@Filter(name = SoftDeleteConfig.ACTIVE_FILTER)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_seq", allocationSize = 50)
     private Long id;
 
     private String name;
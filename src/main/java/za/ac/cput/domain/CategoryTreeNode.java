@@ -0,0 +1,28 @@
+package za.ac.cput.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * CategoryTreeNode.java
+ *
+ * One category or sub-category of the navigation tree with the number of products filed under it.
+ * A category counts each product once even if it is in several of its sub-categories.
+ * Sub-category nodes have no children.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CategoryTreeNode {
+    private Long id;
+    private String name;
+    private int productCount;
+    private List<CategoryTreeNode> subCategories;
+}
@@ -0,0 +1,26 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+import za.ac.cput.enums.ProductAttributeType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FacetResult.java
+ *
+ * The answer to a faceted SKU filter: the matching products and, for every attribute value,
+ * how many products would match if that value was selected together with the other facets.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+public class FacetResult {
+    private List<Long> productIds;
+    private int skuCount;
+    private Map<ProductAttributeType, Map<Long, Integer>> counts;
+}
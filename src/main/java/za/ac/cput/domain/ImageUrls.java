@@ -1,7 +1,11 @@
 package za.ac.cput.domain;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.Embeddable;
 import lombok.Getter;
+import za.ac.cput.util.ImageUrlDeserializer;
+import za.ac.cput.util.ImageUrlSerializer;
 
 /**
  * ImageUrls.java
@@ -14,9 +18,17 @@ import lombok.Getter;
 @Embeddable
 public class ImageUrls {
 
+    @JsonSerialize(using = ImageUrlSerializer.class)
+    @JsonDeserialize(using = ImageUrlDeserializer.class)
     private String imageUrl1;
+    @JsonSerialize(using = ImageUrlSerializer.class)
+    @JsonDeserialize(using = ImageUrlDeserializer.class)
     private String imageUrl2;
+    @JsonSerialize(using = ImageUrlSerializer.class)
+    @JsonDeserialize(using = ImageUrlDeserializer.class)
     private String imageUrl3;
+    @JsonSerialize(using = ImageUrlSerializer.class)
+    @JsonDeserialize(using = ImageUrlDeserializer.class)
     private String imageUrl4;
 
     public ImageUrls() {}
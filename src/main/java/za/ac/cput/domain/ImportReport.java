@@ -0,0 +1,63 @@
+package za.ac.cput.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ImportReport.java
+ *
+ * Summary of a bulk import: how many rows were imported and which rows failed and why.
+ * Only the first maxErrors row errors are kept so a bad file cannot grow the report without bound,
+ * the failed count always covers every row.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+public class ImportReport {
+
+    private long imported;
+    private long failed;
+    private final List<RowError> errors = new ArrayList<>();
+    @JsonIgnore
+    private final int maxErrors;
+
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "imported=" + imported +
+                ", failed=" + failed +
+                ", errors=" + errors.size() +
+                '}';
+    }
+
+    @Getter
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+    }
+}
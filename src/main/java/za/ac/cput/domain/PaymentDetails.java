@@ -22,7 +22,8 @@ public class PaymentDetails {
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_details_seq")
+    @SequenceGenerator(name = "payment_details_seq", sequenceName = "payment_details_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,26 @@
+package za.ac.cput.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * PresignRequest.java
+ *
+ * One object of a batch presign request: the key to upload to and the content type the upload will send.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignRequest {
+    private String key;
+    private String contentType;
+}
@@ -4,11 +4,16 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Getter
 @Setter
 @Builder
 public class Presigned {
     private String url;
+    private String key;
+    private String contentType;
+    private Instant expiresAt;
 
 
 }
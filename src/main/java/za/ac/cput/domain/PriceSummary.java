@@ -0,0 +1,24 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * PriceSummary.java
+ *
+ * The price range and stock of a product across its SKUs.
+ * inStock is true when at least one SKU has stock.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+public class PriceSummary {
+    private Long productId;
+    private double minPrice;
+    private double maxPrice;
+    private boolean inStock;
+    private int skuCount;
+}
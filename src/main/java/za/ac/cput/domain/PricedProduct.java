@@ -0,0 +1,22 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * PricedProduct.java
+ *
+ * A product returned by a price range query. The price is the lowest SKU price
+ * that matched the range, the summary covers all SKUs of the product.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+public class PricedProduct {
+    private Product product;
+    private double price;
+    private PriceSummary summary;
+}
@@ -1,7 +1,15 @@
 package za.ac.cput.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Filter;
+import za.ac.cput.config.SoftDeleteConfig;
+import za.ac.cput.util.ImageUrlDeserializer;
+import za.ac.cput.util.ImageUrlSerializer;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -10,28 +18,49 @@ import java.util.Objects;
 /**
  * Represents a product within the system.
  * This entity class is mapped to the "products" table in the database.
+ * Soft-deleted products (deletedAt set) are hidden from queries and collections by the active filter.
  * <p>
  * author: Rethabile Ntsekhe
  * date: 25-Aug-24
  */
 @Entity
 @Getter
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_deleted_at", columnList = "deleted_at, id"))
+@Filter(name = SoftDeleteConfig.ACTIVE_FILTER)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@NamedEntityGraph(
+        name = "Product.withSubCategories",
+        // categories are not joined, sub-categories point at the shared instances from the CatalogRegistry
+        attributeNodes = @NamedAttributeNode("subCategory")
+)
 public final class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private String description;
     private String summary;
+
+    @JsonSerialize(using = ImageUrlSerializer.class)
+    @JsonDeserialize(using = ImageUrlDeserializer.class)
     private String cover;
 
+    // Small copy of the cover for listings, set by the image pipeline, null until it has run
+    @JsonSerialize(using = ImageUrlSerializer.class)
+    @JsonDeserialize(using = ImageUrlDeserializer.class)
+    @Column(name = "cover_thumbnail")
+    private String coverThumbnail;
+
     @Embedded
     private ImageUrls imageUrls;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Lazy by default, read paths use the Product.withSubCategories graph to load it in the same query
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @Filter(name = SoftDeleteConfig.ACTIVE_FILTER)
     @JoinTable(
             name = "product_subcategory",
             joinColumns = @JoinColumn(name = "product_id"),
@@ -51,6 +80,7 @@ public final class Product {
         this.description = builder.description;
         this.summary = builder.summary;
         this.cover = builder.cover;
+        this.coverThumbnail = builder.coverThumbnail;
         this.imageUrls = builder.imageUrls;
         this.subCategory = builder.subCategory;
         this.createdAt = builder.createdAt;
@@ -65,6 +95,7 @@ public final class Product {
                 ", description='" + description + '\'' +
                 ", summary='" + summary + '\'' +
                 ", cover='" + cover + '\'' +
+                ", coverThumbnail='" + coverThumbnail + '\'' +
                 ", images=" + imageUrls +
                 ", subCategory=" +  (subCategory != null ? subCategory.size() : 0) +
                 ", createdAt=" + createdAt +
@@ -82,6 +113,7 @@ public final class Product {
                 Objects.equals(description, product.description) &&
                 Objects.equals(summary, product.summary) &&
                 Objects.equals(cover, product.cover) &&
+                Objects.equals(coverThumbnail, product.coverThumbnail) &&
                 Objects.equals(imageUrls, product.imageUrls) &&
                 Objects.equals(subCategory, product.subCategory) &&
                 Objects.equals(createdAt, product.createdAt) &&
@@ -90,7 +122,7 @@ public final class Product {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, description, summary, cover, imageUrls, subCategory, createdAt, deletedAt);
+        return Objects.hash(id, name, description, summary, cover, coverThumbnail, imageUrls, subCategory, createdAt, deletedAt);
     }
 
     public static class Builder {
@@ -99,6 +131,7 @@ public final class Product {
         private String description;
         private String summary;
         private String cover;
+        private String coverThumbnail;
         private ImageUrls imageUrls;
         private List<SubCategory> subCategory;
         private LocalDateTime createdAt;
@@ -129,6 +162,11 @@ public final class Product {
             return this;
         }
 
+        public Builder setCoverThumbnail(String coverThumbnail) {
+            this.coverThumbnail = coverThumbnail;
+            return this;
+        }
+
         public Builder setImageUrls(ImageUrls imageUrls) {
             this.imageUrls = imageUrls;
             return this;
@@ -155,6 +193,7 @@ public final class Product {
             this.description = product.getDescription();
             this.summary = product.getSummary();
             this.cover = product.getCover();
+            this.coverThumbnail = product.getCoverThumbnail();
             this.subCategory = product.getSubCategory();
             this.createdAt = product.getCreatedAt();
             this.deletedAt = product.getDeletedAt();
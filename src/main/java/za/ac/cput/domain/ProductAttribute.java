@@ -1,5 +1,6 @@
 package za.ac.cput.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
 import za.ac.cput.enums.ProductAttributeType;
@@ -18,10 +19,12 @@ import java.util.Objects;
 @Entity
 @Getter
 @Table(name = "product_attributes")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class ProductAttribute {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_attributes_seq")
+    @SequenceGenerator(name = "product_attributes_seq", sequenceName = "product_attributes_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
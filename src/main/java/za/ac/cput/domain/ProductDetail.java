@@ -0,0 +1,23 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * ProductDetail.java
+ *
+ * Everything a product page shows, returned in one response: the product, its SKUs and its rating.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+public class ProductDetail {
+    private Product product;
+    private List<SkuDetail> skus;
+    private RatingSummary rating;
+}
@@ -0,0 +1,126 @@
+package za.ac.cput.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Records a product image no variants can be made of, because the original is missing, is not an image or is
+ * too large to decode. The sweep skips these, the image is only tried again when its product is saved.
+ *
+ * This entity class is mapped to the "product_image_failures" table in the database.
+ *
+ * @author Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Entity
+@Getter
+@Table(name = "product_image_failures",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_image_failures_source", columnNames = "source_key"))
+public class ProductImageFailure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_image_failures_seq")
+    @SequenceGenerator(name = "product_image_failures_seq", sequenceName = "product_image_failures_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // The S3 key of the original
+    @Column(name = "source_key", nullable = false)
+    private String sourceKey;
+
+    @Column(nullable = false)
+    private String reason;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+
+    public ProductImageFailure() {
+    }
+
+    private ProductImageFailure(Builder builder) {
+        this.id = builder.id;
+        this.productId = builder.productId;
+        this.sourceKey = builder.sourceKey;
+        this.reason = builder.reason;
+        this.failedAt = builder.failedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductImageFailure{" +
+                "id=" + id +
+                ", productId=" + productId +
+                ", sourceKey='" + sourceKey + '\'' +
+                ", reason='" + reason + '\'' +
+                ", failedAt=" + failedAt +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductImageFailure that = (ProductImageFailure) o;
+        return Objects.equals(id, that.id) &&
+                Objects.equals(productId, that.productId) &&
+                Objects.equals(sourceKey, that.sourceKey) &&
+                Objects.equals(reason, that.reason) &&
+                Objects.equals(failedAt, that.failedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, productId, sourceKey, reason, failedAt);
+    }
+
+    public static class Builder {
+        private Long id;
+        private Long productId;
+        private String sourceKey;
+        private String reason;
+        private LocalDateTime failedAt;
+
+        public Builder setId(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder setProductId(Long productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        public Builder setSourceKey(String sourceKey) {
+            this.sourceKey = sourceKey;
+            return this;
+        }
+
+        public Builder setReason(String reason) {
+            this.reason = reason;
+            return this;
+        }
+
+        public Builder setFailedAt(LocalDateTime failedAt) {
+            this.failedAt = failedAt;
+            return this;
+        }
+
+        public Builder copy(ProductImageFailure productImageFailure) {
+            this.id = productImageFailure.getId();
+            this.productId = productImageFailure.getProductId();
+            this.sourceKey = productImageFailure.getSourceKey();
+            this.reason = productImageFailure.getReason();
+            this.failedAt = productImageFailure.getFailedAt();
+            return this;
+        }
+
+        public ProductImageFailure build() {
+            return new ProductImageFailure(this);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package za.ac.cput.domain;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+import lombok.Getter;
+import za.ac.cput.enums.ImageVariant;
+import za.ac.cput.util.ImageUrlSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Represents a resized copy of a product image, stored in S3 next to the original under a derived key.
+ * The product is referenced by id only, variants are written by the image pipeline without loading it.
+ *
+ * This entity class is mapped to the "product_image_variants" table in the database.
+ *
+ * @author Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Entity
+@Getter
+@Table(name = "product_image_variants",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_image_variants_source", columnNames = {"source_key", "variant"}),
+        indexes = @Index(name = "idx_product_image_variants_product_id", columnList = "product_id"))
+public class ProductImageVariant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_image_variants_seq")
+    @SequenceGenerator(name = "product_image_variants_seq", sequenceName = "product_image_variants_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // The S3 key of the uploaded original
+    @Column(name = "source_key", nullable = false)
+    private String sourceKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImageVariant variant;
+
+    @Column(name = "variant_key", nullable = false)
+    private String key;
+
+    @JsonSerialize(using = ImageUrlSerializer.class)
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    private int width;
+    private int height;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public ProductImageVariant() {
+    }
+
+    private ProductImageVariant(Builder builder) {
+        this.id = builder.id;
+        this.productId = builder.productId;
+        this.sourceKey = builder.sourceKey;
+        this.variant = builder.variant;
+        this.key = builder.key;
+        this.url = builder.url;
+        this.width = builder.width;
+        this.height = builder.height;
+        this.createdAt = builder.createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductImageVariant{" +
+                "id=" + id +
+                ", productId=" + productId +
+                ", sourceKey='" + sourceKey + '\'' +
+                ", variant=" + variant +
+                ", key='" + key + '\'' +
+                ", url='" + url + '\'' +
+                ", width=" + width +
+                ", height=" + height +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductImageVariant that = (ProductImageVariant) o;
+        return width == that.width &&
+                height == that.height &&
+                Objects.equals(id, that.id) &&
+                Objects.equals(productId, that.productId) &&
+                Objects.equals(sourceKey, that.sourceKey) &&
+                variant == that.variant &&
+                Objects.equals(key, that.key) &&
+                Objects.equals(url, that.url) &&
+                Objects.equals(createdAt, that.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, productId, sourceKey, variant, key, url, width, height, createdAt);
+    }
+
+    public static class Builder {
+        private Long id;
+        private Long productId;
+        private String sourceKey;
+        private ImageVariant variant;
+        private String key;
+        private String url;
+        private int width;
+        private int height;
+        private LocalDateTime createdAt;
+
+        public Builder setId(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder setProductId(Long productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        public Builder setSourceKey(String sourceKey) {
+            this.sourceKey = sourceKey;
+            return this;
+        }
+
+        public Builder setVariant(ImageVariant variant) {
+            this.variant = variant;
+            return this;
+        }
+
+        public Builder setKey(String key) {
+            this.key = key;
+            return this;
+        }
+
+        public Builder setUrl(String url) {
+            this.url = url;
+            return this;
+        }
+
+        public Builder setWidth(int width) {
+            this.width = width;
+            return this;
+        }
+
+        public Builder setHeight(int height) {
+            this.height = height;
+            return this;
+        }
+
+        public Builder setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+
+        public Builder copy(ProductImageVariant productImageVariant) {
+            this.id = productImageVariant.getId();
+            this.productId = productImageVariant.getProductId();
+            this.sourceKey = productImageVariant.getSourceKey();
+            this.variant = productImageVariant.getVariant();
+            this.key = productImageVariant.getKey();
+            this.url = productImageVariant.getUrl();
+            this.width = productImageVariant.getWidth();
+            this.height = productImageVariant.getHeight();
+            this.createdAt = productImageVariant.getCreatedAt();
+            return this;
+        }
+
+        public ProductImageVariant build() {
+            return new ProductImageVariant(this);
+        }
+    }
+}
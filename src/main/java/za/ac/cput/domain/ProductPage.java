@@ -0,0 +1,25 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * ProductPage.java
+ *
+ * One page of products returned by the keyset-paginated product listing.
+ * The nextCursor is an opaque token that is passed back to fetch the following page,
+ * it is null when there are no more products to read.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+public class ProductPage {
+    private List<Product> items;
+    private String nextCursor;
+    private int size;
+}
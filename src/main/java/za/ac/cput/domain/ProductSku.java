@@ -2,9 +2,13 @@ package za.ac.cput.domain;
 
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.Filter;
+import za.ac.cput.config.SoftDeleteConfig;
+import za.ac.cput.event.SharedReferenceListener;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents a SKU (Stock Keeping Unit) for a product.
@@ -18,26 +22,35 @@ import java.util.Objects;
  */
 @Entity
 @Getter
-@Table(name = "products_skus")
+@Table(name = "products_skus", indexes = @Index(name = "idx_products_skus_deleted_at", columnList = "deleted_at, id"))
+@Filter(name = SoftDeleteConfig.ACTIVE_FILTER)
+@EntityListeners(SharedReferenceListener.class)
+// The attributes and categories are not joined, they are shared instances from the CatalogRegistry
+@NamedEntityGraph(
+        name = "ProductSku.view",
+        attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product"),
+        subgraphs = @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("subCategory"))
+)
 public class ProductSku {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_skus_seq")
+    @SequenceGenerator(name = "products_skus_seq", sequenceName = "products_skus_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "size_attribute_id", nullable = false)
     private ProductAttribute sizeAttribute;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "color_attribute_id", nullable = false)
     private ProductAttribute colorAttribute;
 
-    @ManyToOne(cascade = CascadeType.MERGE)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brand_attribute_id", nullable = false)
     private ProductAttribute brandAttribute;
 
@@ -47,7 +60,8 @@ public class ProductSku {
     @Column(nullable = false)
     private Double price;
 
-    @Column(nullable = false)
+    // Only the stock statements of ProductSkuRepository change it, so saving a SKU read earlier cannot undo a reservation
+    @Column(nullable = false, updatable = false)
     private Integer quantity;
 
     @Column(name = "created_at", nullable = false)
@@ -58,6 +72,18 @@ public class ProductSku {
 
     public ProductSku() {}
 
+    /**
+     * Points the attributes at the shared instances of the same rows.
+     * The ids do not change, so Hibernate does not see the SKU as modified.
+     *
+     * @param shared maps an attribute to its shared instance
+     */
+    public void shareAttributes(UnaryOperator<ProductAttribute> shared) {
+        this.sizeAttribute = shared.apply(sizeAttribute);
+        this.colorAttribute = shared.apply(colorAttribute);
+        this.brandAttribute = shared.apply(brandAttribute);
+    }
+
     // Private constructor to enforce immutability
     private ProductSku(Builder builder) {
         this.id = builder.id;
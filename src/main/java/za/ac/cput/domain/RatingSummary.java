@@ -0,0 +1,24 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * RatingSummary.java
+ *
+ * The reviews of a product reduced to their count, average rating and the number of reviews per rating.
+ * The average is 0 when there are no reviews.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+public class RatingSummary {
+    private long reviewCount;
+    private double averageRating;
+    private Map<Integer, Long> distribution;
+}
@@ -0,0 +1,25 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * SkuDetail.java
+ *
+ * One SKU as shown on a product page, with its attributes resolved and without the product it belongs to.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+public class SkuDetail {
+    private Long id;
+    private String sku;
+    private Double price;
+    private Integer quantity;
+    private ProductAttribute size;
+    private ProductAttribute color;
+    private ProductAttribute brand;
+}
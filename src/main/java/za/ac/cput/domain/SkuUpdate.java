@@ -0,0 +1,28 @@
+package za.ac.cput.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * SkuUpdate.java
+ *
+ * One line of a bulk SKU update: the SKU code and its new price and/or quantity.
+ * A null price or quantity leaves that value as it is.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkuUpdate {
+    private String sku;
+    private Double price;
+    private Integer quantity;
+}
@@ -0,0 +1,27 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * SkuUpdateResult.java
+ *
+ * Summary of a bulk SKU update: how many SKUs were changed, how many already had the requested values,
+ * which codes do not exist, which lines were rejected, and which SKUs had more units reserved while the update
+ * ran than their new quantity, so their stock was left as it was.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+public class SkuUpdateResult {
+    private int applied;
+    private int unchanged;
+    private List<String> unknown;
+    private List<String> invalid;
+    private List<String> conflicts;
+}
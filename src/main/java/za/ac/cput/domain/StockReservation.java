@@ -0,0 +1,126 @@
+package za.ac.cput.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Represents stock held for a shopper between adding to the cart and paying.
+ * The reserved quantity has already been taken off the SKU, committing a reservation keeps it off,
+ * releasing or letting it expire puts it back.
+ *
+ * This entity class is mapped to the "stock_reservations" table in the database.
+ * The SKU is referenced by id only so reserving never loads the SKU row.
+ *
+ * @author Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Entity
+@Getter
+@Table(name = "stock_reservations", indexes = @Index(name = "idx_stock_reservations_expires_at", columnList = "expires_at"))
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_sku_id", nullable = false)
+    private Long productSkuId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public StockReservation() {
+    }
+
+    private StockReservation(Builder builder) {
+        this.id = builder.id;
+        this.productSkuId = builder.productSkuId;
+        this.quantity = builder.quantity;
+        this.expiresAt = builder.expiresAt;
+        this.createdAt = builder.createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StockReservation{" +
+                "id=" + id +
+                ", productSkuId=" + productSkuId +
+                ", quantity=" + quantity +
+                ", expiresAt=" + expiresAt +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StockReservation that = (StockReservation) o;
+        return quantity == that.quantity &&
+                Objects.equals(id, that.id) &&
+                Objects.equals(productSkuId, that.productSkuId) &&
+                Objects.equals(expiresAt, that.expiresAt) &&
+                Objects.equals(createdAt, that.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, productSkuId, quantity, expiresAt, createdAt);
+    }
+
+    public static class Builder {
+        private Long id;
+        private Long productSkuId;
+        private int quantity;
+        private LocalDateTime expiresAt;
+        private LocalDateTime createdAt;
+
+        public Builder setId(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder setProductSkuId(Long productSkuId) {
+            this.productSkuId = productSkuId;
+            return this;
+        }
+
+        public Builder setQuantity(int quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        public Builder setExpiresAt(LocalDateTime expiresAt) {
+            this.expiresAt = expiresAt;
+            return this;
+        }
+
+        public Builder setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+            return this;
+        }
+
+        public Builder copy(StockReservation stockReservation) {
+            this.id = stockReservation.getId();
+            this.productSkuId = stockReservation.getProductSkuId();
+            this.quantity = stockReservation.getQuantity();
+            this.expiresAt = stockReservation.getExpiresAt();
+            this.createdAt = stockReservation.getCreatedAt();
+            return this;
+        }
+
+        public StockReservation build() {
+            return new StockReservation(this);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package za.ac.cput.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.Filter;
+import za.ac.cput.config.SoftDeleteConfig;
+import za.ac.cput.event.SharedReferenceListener;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents a sub-category entry in the system.
@@ -17,14 +22,19 @@ import java.util.Objects;
  */
 @Entity
 @Getter
-@Table(name = "sub_categories")
+@Table(name = "sub_categories", indexes = @Index(name = "idx_sub_categories_deleted_at", columnList = "deleted_at, id"))
+@Filter(name = SoftDeleteConfig.ACTIVE_FILTER)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@EntityListeners(SharedReferenceListener.class)
+@NamedEntityGraph(name = "SubCategory.withCategory", attributeNodes = @NamedAttributeNode("category"))
 public final class SubCategory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sub_categories_seq")
+    @SequenceGenerator(name = "sub_categories_seq", sequenceName = "sub_categories_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
@@ -36,6 +46,16 @@ public final class SubCategory {
     public SubCategory() {
     }
 
+    /**
+     * Points the category at the shared instance of the same row.
+     * The id does not change, so Hibernate does not see the sub-category as modified.
+     *
+     * @param shared maps a category to its shared instance
+     */
+    public void shareCategory(UnaryOperator<Category> shared) {
+        this.category = shared.apply(category);
+    }
+
     private SubCategory(Builder builder) {
         this.id = builder.id;
         this.category = builder.category;
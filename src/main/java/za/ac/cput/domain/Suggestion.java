@@ -0,0 +1,25 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import za.ac.cput.enums.SuggestionType;
+
+/**
+ * Suggestion.java
+ *
+ * One typeahead completion: a product, category, sub-category or brand and the name to show for it.
+ * The id is the id of the product, category, sub-category or brand attribute.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+@EqualsAndHashCode
+public class Suggestion {
+    private SuggestionType type;
+    private Long id;
+    private String text;
+}
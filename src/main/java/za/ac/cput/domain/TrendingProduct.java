@@ -0,0 +1,23 @@
+package za.ac.cput.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * TrendingProduct.java
+ *
+ * A product in the trending ranking with the views and cart adds it had within the window.
+ * The score ranks cart adds above views.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+@Builder
+public class TrendingProduct {
+    private Product product;
+    private long views;
+    private long cartAdds;
+    private long score;
+}
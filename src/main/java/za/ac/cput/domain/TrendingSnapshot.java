@@ -0,0 +1,151 @@
+package za.ac.cput.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Represents one product of a periodic snapshot of the trending ranking.
+ * The live counters are kept in memory only, the snapshots keep a history of what was trending without
+ * writing a row per view or cart add.
+ *
+ * This entity class is mapped to the "trending_snapshots" table in the database.
+ *
+ * @author Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Entity
+@Getter
+@Table(name = "trending_snapshots", indexes = @Index(name = "idx_trending_snapshots_taken_at", columnList = "taken_at"))
+public class TrendingSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trending_snapshots_seq")
+    @SequenceGenerator(name = "trending_snapshots_seq", sequenceName = "trending_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "ranking", nullable = false)
+    private int rank;
+
+    @Column(nullable = false)
+    private long views;
+
+    @Column(name = "cart_adds", nullable = false)
+    private long cartAdds;
+
+    @Column(nullable = false)
+    private long score;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    public TrendingSnapshot() {
+    }
+
+    private TrendingSnapshot(Builder builder) {
+        this.id = builder.id;
+        this.productId = builder.productId;
+        this.rank = builder.rank;
+        this.views = builder.views;
+        this.cartAdds = builder.cartAdds;
+        this.score = builder.score;
+        this.takenAt = builder.takenAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TrendingSnapshot{" +
+                "id=" + id +
+                ", productId=" + productId +
+                ", rank=" + rank +
+                ", views=" + views +
+                ", cartAdds=" + cartAdds +
+                ", score=" + score +
+                ", takenAt=" + takenAt +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TrendingSnapshot that = (TrendingSnapshot) o;
+        return rank == that.rank &&
+                views == that.views &&
+                cartAdds == that.cartAdds &&
+                score == that.score &&
+                Objects.equals(id, that.id) &&
+                Objects.equals(productId, that.productId) &&
+                Objects.equals(takenAt, that.takenAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, productId, rank, views, cartAdds, score, takenAt);
+    }
+
+    public static class Builder {
+        private Long id;
+        private Long productId;
+        private int rank;
+        private long views;
+        private long cartAdds;
+        private long score;
+        private LocalDateTime takenAt;
+
+        public Builder setId(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder setProductId(Long productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        public Builder setRank(int rank) {
+            this.rank = rank;
+            return this;
+        }
+
+        public Builder setViews(long views) {
+            this.views = views;
+            return this;
+        }
+
+        public Builder setCartAdds(long cartAdds) {
+            this.cartAdds = cartAdds;
+            return this;
+        }
+
+        public Builder setScore(long score) {
+            this.score = score;
+            return this;
+        }
+
+        public Builder setTakenAt(LocalDateTime takenAt) {
+            this.takenAt = takenAt;
+            return this;
+        }
+
+        public Builder copy(TrendingSnapshot trendingSnapshot) {
+            this.id = trendingSnapshot.getId();
+            this.productId = trendingSnapshot.getProductId();
+            this.rank = trendingSnapshot.getRank();
+            this.views = trendingSnapshot.getViews();
+            this.cartAdds = trendingSnapshot.getCartAdds();
+            this.score = trendingSnapshot.getScore();
+            this.takenAt = trendingSnapshot.getTakenAt();
+            return this;
+        }
+
+        public TrendingSnapshot build() {
+            return new TrendingSnapshot(this);
+        }
+    }
+}
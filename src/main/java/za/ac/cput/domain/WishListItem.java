@@ -20,7 +20,8 @@ import java.util.Objects;
 public class WishListItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wish_list_items_seq")
+    @SequenceGenerator(name = "wish_list_items_seq", sequenceName = "wish_list_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -3,6 +3,8 @@ package za.ac.cput.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.Filter;
+import za.ac.cput.config.SoftDeleteConfig;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,11 +22,13 @@ import java.util.Objects;
  */
 @Entity
 @Getter
-@Table(name = "wishlist")
+@Table(name = "wishlist", indexes = @Index(name = "idx_wishlist_deleted_at", columnList = "deleted_at, id"))
+@Filter(name = SoftDeleteConfig.ACTIVE_FILTER)
 public class Wishlist {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wishlist_seq")
+    @SequenceGenerator(name = "wishlist_seq", sequenceName = "wishlist_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,12 @@
+/**
+ * Entities of the store.
+ * <p>
+ * Products, SKUs, categories, sub-categories and wishlists are soft-deleted by setting deletedAt. The
+ * {@value za.ac.cput.config.SoftDeleteConfig#ACTIVE_FILTER} filter declared here hides those rows and is
+ * enabled on every EntityManager by {@link za.ac.cput.config.SoftDeleteConfig}.
+ */
+@FilterDef(name = SoftDeleteConfig.ACTIVE_FILTER, defaultCondition = "deleted_at IS NULL")
+package za.ac.cput.domain;
+
+import org.hibernate.annotations.FilterDef;
+import za.ac.cput.config.SoftDeleteConfig;
@@ -0,0 +1,15 @@
+package za.ac.cput.enums;
+
+/**
+ * CatalogAction.java
+ * Enum representing the kind of write carried by a catalog event.
+ *
+ * Author: Rethabile Ntsekhe
+ * Student Num: 220455430
+ * Date: 18-Oct-26
+ */
+public enum CatalogAction {
+    CREATED,
+    UPDATED,
+    DELETED,
+}
@@ -0,0 +1,27 @@
+package za.ac.cput.enums;
+
+/**
+ * ImageVariant.java
+ * Enum representing the resized copies made of every product image, by the longest side in pixels.
+ *
+ * Author: Rethabile Ntsekhe
+ * Student Num: 220455430
+ * Date: 18-Oct-26
+ */
+public enum ImageVariant {
+    THUMBNAIL(200),
+    MEDIUM(800);
+
+    private final int maxSize;
+
+    ImageVariant(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the longest side of the variant in pixels, smaller images are not enlarged
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,63 @@
+package za.ac.cput.enums;
+
+/**
+ * ImportFormat.java
+ * Enum representing the body formats accepted by the bulk import endpoints and written by the export endpoints.
+ *
+ * Author: Rethabile Ntsekhe
+ * Student Num: 220455430
+ * Date: 18-Oct-26
+ */
+public enum ImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    /**
+     * Resolves the format from its name, e.g. the format parameter of an export.
+     *
+     * @param name csv or ndjson, in any case
+     * @return the matching format
+     * @throws IllegalArgumentException if the name is not a supported format
+     */
+    public static ImportFormat fromName(String name) {
+        for (ImportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + name);
+    }
+
+    /**
+     * @return the media type of a body in this format
+     */
+    public String mediaType() {
+        return this == CSV ? CSV_MEDIA_TYPE : NDJSON_MEDIA_TYPE;
+    }
+
+    /**
+     * @return the file extension of a body in this format, without the dot
+     */
+    public String extension() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Resolves the format from a Content-Type header, ignoring parameters such as the charset.
+     *
+     * @param contentType the Content-Type of the request
+     * @return the matching format
+     * @throws IllegalArgumentException if the content type is not supported
+     */
+    public static ImportFormat fromContentType(String contentType) {
+        String mediaType = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase();
+        return switch (mediaType) {
+            case CSV_MEDIA_TYPE -> CSV;
+            case NDJSON_MEDIA_TYPE -> NDJSON;
+            default -> throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package za.ac.cput.enums;
+
+/**
+ * SuggestionType.java
+ * Enum representing what a typeahead suggestion points to.
+ *
+ * Author: Rethabile Ntsekhe
+ * Student Num: 220455430
+ * Date: 18-Oct-26
+ */
+public enum SuggestionType {
+    PRODUCT,
+    CATEGORY,
+    SUB_CATEGORY,
+    BRAND,
+}
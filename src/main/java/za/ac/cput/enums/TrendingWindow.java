@@ -0,0 +1,45 @@
+package za.ac.cput.enums;
+
+import java.time.Duration;
+
+/**
+ * TrendingWindow.java
+ * Enum representing how far back the trending products ranking counts views and cart adds.
+ *
+ * Author: Rethabile Ntsekhe
+ * Student Num: 220455430
+ * Date: 18-Oct-26
+ */
+public enum TrendingWindow {
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1));
+
+    private final Duration duration;
+
+    TrendingWindow(Duration duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * @return how far back the window reaches
+     */
+    public Duration duration() {
+        return duration;
+    }
+
+    /**
+     * Resolves the window from its name, e.g. the window parameter of the trending endpoint.
+     *
+     * @param name hour or day, in any case
+     * @return the matching window
+     * @throws IllegalArgumentException if the name is not a supported window
+     */
+    public static TrendingWindow fromName(String name) {
+        for (TrendingWindow window : values()) {
+            if (window.name().equalsIgnoreCase(name)) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported trending window: " + name);
+    }
+}
@@ -0,0 +1,71 @@
+package za.ac.cput.event;
+
+import lombok.Getter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+import za.ac.cput.enums.CatalogAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * CatalogEvent.java
+ *
+ * Published by the catalog services after an entity is created, updated or deleted.
+ * In-memory indexes listen for the events of the entity type they care about,
+ * e.g. {@code @TransactionalEventListener public void on(CatalogEvent<ProductSku> event)},
+ * so they only see writes that were committed.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Getter
+public class CatalogEvent<T> implements ResolvableTypeProvider {
+
+    private final Class<T> type;
+    private final CatalogAction action;
+    private final Long id;
+    // The entity as saved, null when it was deleted
+    private final T entity;
+
+    public CatalogEvent(Class<T> type, CatalogAction action, Long id, T entity) {
+        this.type = type;
+        this.action = action;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    public static <T> CatalogEvent<T> created(Class<T> type, Long id, T entity) {
+        return new CatalogEvent<>(type, CatalogAction.CREATED, id, entity);
+    }
+
+    public static <T> CatalogEvent<T> updated(Class<T> type, Long id, T entity) {
+        return new CatalogEvent<>(type, CatalogAction.UPDATED, id, entity);
+    }
+
+    public static <T> CatalogEvent<T> deleted(Class<T> type, Long id) {
+        return new CatalogEvent<>(type, CatalogAction.DELETED, id, null);
+    }
+
+    /**
+     * An update that soft-deletes the entity is published as a deletion, the row is no longer
+     * visible to queries so listeners drop it like a removed one.
+     */
+    public static <T> CatalogEvent<T> updated(Class<T> type, Long id, T entity, LocalDateTime deletedAt) {
+        return deletedAt == null ? updated(type, id, entity) : deleted(type, id);
+    }
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forClass(type));
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogEvent{" +
+                "type=" + type.getSimpleName() +
+                ", action=" + action +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package za.ac.cput.event;
+
+import jakarta.persistence.PostLoad;
+import org.springframework.beans.factory.ObjectProvider;
+import za.ac.cput.domain.ProductSku;
+import za.ac.cput.domain.SubCategory;
+import za.ac.cput.service.CatalogRegistry;
+
+/**
+ * SharedReferenceListener.java
+ *
+ * JPA listener that points freshly loaded SKUs and sub-categories at the shared attribute and category
+ * instances of the {@link CatalogRegistry}. The references are mapped lazily and not joined, so the listener
+ * replaces the uninitialised proxies before anything reads them.
+ *
+ * Hibernate creates the listener through Spring, the registry is looked up on first use because
+ * the listener is built while the EntityManagerFactory the registry depends on is still starting.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class SharedReferenceListener {
+
+    private final ObjectProvider<CatalogRegistry> catalogRegistry;
+
+    public SharedReferenceListener(ObjectProvider<CatalogRegistry> catalogRegistry) {
+        this.catalogRegistry = catalogRegistry;
+    }
+
+    @PostLoad
+    public void share(Object entity) {
+        CatalogRegistry registry = catalogRegistry.getIfAvailable();
+        if (registry == null || !registry.isLoaded()) {
+            return;
+        }
+        if (entity instanceof ProductSku productSku) {
+            productSku.shareAttributes(registry::shared);
+        } else if (entity instanceof SubCategory subCategory) {
+            subCategory.shareCategory(registry::shared);
+        }
+    }
+}
@@ -59,7 +59,7 @@ public class CategoryFactory {
                 .setName(name) // Set the name of the category
                 .setDescription(description) // Set the description of the category
                 .setCreatedAt(createdAt) // Set the date the category was created
-                .setDeletedAt(LocalDateTime.now()) // Set the date the category was deleted (if applicable)
+                .setDeletedAt(deletedAt) // Set the date the category was deleted (if applicable)
                 .build();
     }
 }
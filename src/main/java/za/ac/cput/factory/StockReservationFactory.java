@@ -0,0 +1,46 @@
+package za.ac.cput.factory;
+
+import za.ac.cput.domain.StockReservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Factory class for creating instances of {@link StockReservation}.
+ * Provides static methods to create {@link StockReservation} objects from various inputs.
+ *
+ * @author Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+public class StockReservationFactory {
+
+    /**
+     * Creates a {@link StockReservation} instance from various inputs.
+     *
+     * @param id           the ID of the reservation
+     * @param productSkuId the ID of the reserved product SKU
+     * @param quantity     the number of units reserved
+     * @param expiresAt    the date and time the reservation is released if not committed
+     * @param createdAt    the date and time the reservation was made
+     * @return a new {@link StockReservation} object with properties set from the input parameters
+     */
+    public static StockReservation createStockReservation(Long id, Long productSkuId, int quantity,
+                                                          LocalDateTime expiresAt, LocalDateTime createdAt) {
+        if (productSkuId == null) {
+            throw new IllegalArgumentException("Product SKU cannot be null");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+        if (expiresAt == null) {
+            throw new IllegalArgumentException("Expiry cannot be null");
+        }
+
+        return new StockReservation.Builder()
+                .setId(id)
+                .setProductSkuId(productSkuId)
+                .setQuantity(quantity)
+                .setExpiresAt(expiresAt)
+                .setCreatedAt(createdAt)
+                .build();
+    }
+}
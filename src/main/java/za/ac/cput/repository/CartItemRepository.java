@@ -1,10 +1,20 @@
 package za.ac.cput.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.CartItem;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * CartItemRepository.java
@@ -29,6 +39,28 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
      */
     List<CartItem> findByCartId(Long cartId);
 
+    /**
+     * Prices the items saved before cart items kept their unit price, at the current price of their SKU.
+     * Only matches items without a unit price.
+     *
+     * @return the number of items priced
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CartItem i SET i.unitPrice = (SELECT s.price FROM ProductSku s WHERE s.id = i.productSku.id) " +
+            "WHERE i.unitPrice IS NULL")
+    int backfillUnitPrices();
+
+    /**
+     * Reads a CartItem and locks its row until the transaction ends, so two writes to the same item
+     * cannot both take its old quantity off the cart total.
+     *
+     * @param id the ID of the CartItem
+     * @return the CartItem, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM CartItem i WHERE i.id = :id")
+    Optional<CartItem> findByIdForUpdate(@Param("id") Long id);
+
     /**
      * Finds CartItems by their associated Product ID.
      *
@@ -77,4 +109,26 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
      * @param cartId the ID of the Cart entity to search by
      */
     void deleteByCartId(Long cartId);
+
+    /**
+     * Streams the product of every cart item, grouped by cart, for the related products index.
+     * Must be consumed inside a transaction.
+     *
+     * @return one row per cart item, ordered by cart id
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i.cart.id AS basketId, i.product.id AS productId FROM CartItem i ORDER BY i.cart.id")
+    Stream<BasketItem> streamBasketItems();
+
+    /**
+     * Projection of a product in a cart.
+     */
+    interface BasketItem {
+        Long getBasketId();
+
+        Long getProductId();
+    }
 }
@@ -1,6 +1,7 @@
 package za.ac.cput.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -125,6 +126,47 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c WHERE c.createdAt >= :thirtyDaysAgo")
     List<Cart> findCartsCreatedInLast30Days(@Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo);
 
+    /**
+     * Adds the change of one cart item write to the total and item count of a cart. The read and the write
+     * are one statement, so concurrent writes to the same cart never lose each other's change.
+     * Flushes pending inserts first and clears the persistence context after, so later reads see the new totals.
+     *
+     * @param id         the ID of the cart
+     * @param totalDelta the amount to add to the total, negative to take off
+     * @param countDelta the number of units to add to the item count, negative to take off
+     * @param updatedAt  the time of the change
+     * @return 1 if the cart was updated, 0 if it does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.total = COALESCE(c.total, 0) + :totalDelta, " +
+            "c.itemCount = COALESCE(c.itemCount, 0) + :countDelta, c.updatedAt = :updatedAt WHERE c.id = :id")
+    int adjustTotals(@Param("id") Long id, @Param("totalDelta") double totalDelta,
+                     @Param("countDelta") int countDelta, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Sets the total and item count of the carts saved before the cart items kept them, which still hold the
+     * total the client sent, to what their items add up to. Only matches carts without an item count.
+     *
+     * @return the number of carts updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET " +
+            "c.total = COALESCE((SELECT SUM(i.unitPrice * i.quantity) FROM CartItem i WHERE i.cart.id = c.id), 0), " +
+            "c.itemCount = COALESCE((SELECT SUM(i.quantity) FROM CartItem i WHERE i.cart.id = c.id), 0) " +
+            "WHERE c.itemCount IS NULL")
+    int backfillTotals();
+
+    /**
+     * Sets the total and item count of a cart back to zero, once all its items are removed.
+     *
+     * @param id        the ID of the cart
+     * @param updatedAt the time of the change
+     * @return 1 if the cart was updated, 0 if it does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Cart c SET c.total = 0, c.itemCount = 0, c.updatedAt = :updatedAt WHERE c.id = :id")
+    int resetTotals(@Param("id") Long id, @Param("updatedAt") LocalDateTime updatedAt);
+
     /**
      * Deletes all Carts associated with a specific userId.
      *
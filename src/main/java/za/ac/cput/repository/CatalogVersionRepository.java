@@ -0,0 +1,41 @@
+package za.ac.cput.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import za.ac.cput.domain.CatalogVersion;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for {@link CatalogVersion} entity.
+ * Provides methods to read and move the shared revision counters.
+ *
+ * @autor Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String> {
+
+    /**
+     * Reads a revision without loading the entity.
+     *
+     * @param name the name of the counter
+     * @return the revision, or null if the counter was never moved
+     */
+    @Query("SELECT v.revision FROM CatalogVersion v WHERE v.name = :name")
+    Long findRevision(@Param("name") String name);
+
+    /**
+     * Moves a revision by one in a single statement, so concurrent writers on any instance never lose a move.
+     *
+     * @param name      the name of the counter
+     * @param updatedAt the time of the move
+     * @return 1 if the counter was moved, 0 if it does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE CatalogVersion v SET v.revision = v.revision + 1, v.updatedAt = :updatedAt WHERE v.name = :name")
+    int increment(@Param("name") String name, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -24,6 +24,16 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    /**
+     * Finds a category by its ID, a soft-deleted category is not found.
+     *
+     * @param id the ID of the category
+     * @return the category, if it exists and is not deleted
+     */
+    @Override
+    @Query("SELECT c FROM Category c WHERE c.id = :id")
+    Optional<Category> findById(@Param("id") Long id);
+
     /**
      * Finds all categories with a specific name.
      *
@@ -42,11 +52,13 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     /**
      * Finds all categories that have been marked as deleted.
+     * Native, so the soft-delete restriction on Category does not hide the deleted rows.
      *
      * @param deletedAt the date to search by
-     * @return a list of categories marked as deleted on or after the given date
+     * @return a list of categories marked as deleted on the given date
      */
-    List<Category> findByDeletedAt(LocalDateTime deletedAt);
+    @Query(value = "SELECT * FROM categories WHERE deleted_at = :deletedAt", nativeQuery = true)
+    List<Category> findByDeletedAt(@Param("deletedAt") LocalDateTime deletedAt);
 
     /**
      * Finds all categories with a name containing a specific keyword.
@@ -85,8 +97,10 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     /**
      * Finds all categories that have been deleted.
+     * Native, so the soft-delete restriction on Category does not hide the deleted rows.
      *
      * @return a list of categories that have been marked as deleted
      */
-    Optional<Category> findByDeletedAtIsNotNull();
+    @Query(value = "SELECT * FROM categories WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    List<Category> findByDeletedAtIsNotNull();
 }
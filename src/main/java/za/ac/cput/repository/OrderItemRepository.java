@@ -1,9 +1,16 @@
 package za.ac.cput.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.OrderItem;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * OrderItemRepository.java
  *
@@ -16,5 +23,42 @@ import za.ac.cput.domain.OrderItem;
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
    void deleteOrderItemByOrderDetails_Id(Long orderDetailsId);
 
+   /**
+    * Sums the units ordered of each product.
+    *
+    * @return one row per product that has been ordered
+    */
+   @Query("SELECT i.product.id AS productId, SUM(i.quantity) AS units FROM OrderItem i GROUP BY i.product.id")
+   List<ProductUnits> sumUnitsByProduct();
+
+   /**
+    * Streams the product of every order item, grouped by order, for the related products index.
+    * Must be consumed inside a transaction.
+    *
+    * @return one row per order item, ordered by order id
+    */
+   @QueryHints({
+           @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+           @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+   })
+   @Query("SELECT i.orderDetails.id AS basketId, i.product.id AS productId FROM OrderItem i ORDER BY i.orderDetails.id")
+   Stream<BasketItem> streamBasketItems();
+
+   /**
+    * Projection of a product in an order.
+    */
+   interface BasketItem {
+      Long getBasketId();
+
+      Long getProductId();
+   }
+
+   /**
+    * Projection of the units ordered of a product.
+    */
+   interface ProductUnits {
+      Long getProductId();
 
+      Long getUnits();
+   }
 }
@@ -1,9 +1,13 @@
 package za.ac.cput.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.ProductAttribute;
+import za.ac.cput.enums.ProductAttributeType;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,4 +22,15 @@ import java.util.Optional;
 @Repository
 public interface ProductAttributeRepository extends JpaRepository<ProductAttribute, Long> {
     Optional<ProductAttribute> findById(Long id);
+
+    /**
+     * Reads the ids of every attribute of a type without loading the entities.
+     *
+     * @param type the attribute type
+     * @return the ids of the attributes of that type
+     */
+    @Query("SELECT a.id FROM ProductAttribute a WHERE a.type = :type")
+    List<Long> findIdsByType(@Param("type") ProductAttributeType type);
+
+    List<ProductAttribute> findByType(ProductAttributeType type);
 }
@@ -0,0 +1,48 @@
+package za.ac.cput.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import za.ac.cput.domain.ProductImageFailure;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for {@link ProductImageFailure} entity.
+ * Provides methods to perform CRUD operations on ProductImageFailure entities.
+ *
+ * @autor Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Repository
+public interface ProductImageFailureRepository extends JpaRepository<ProductImageFailure, Long> {
+
+    /**
+     * Finds the failure recorded for an original.
+     *
+     * @param sourceKey the S3 key of the original
+     * @return the failure, if one was recorded
+     */
+    Optional<ProductImageFailure> findBySourceKey(String sourceKey);
+
+    /**
+     * Reads the S3 key of every original no variants could be made of.
+     *
+     * @return the keys of the originals
+     */
+    @Query("SELECT f.sourceKey FROM ProductImageFailure f")
+    List<String> findSourceKeys();
+
+    /**
+     * Forgets the failure of an original, once variants were made of it.
+     *
+     * @param sourceKey the S3 key of the original
+     * @return the number of failures removed
+     */
+    @Modifying
+    @Query("DELETE FROM ProductImageFailure f WHERE f.sourceKey = :sourceKey")
+    int deleteBySourceKey(@Param("sourceKey") String sourceKey);
+}
@@ -0,0 +1,44 @@
+package za.ac.cput.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import za.ac.cput.domain.ProductImageVariant;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for {@link ProductImageVariant} entity.
+ * Provides methods to perform CRUD operations on ProductImageVariant entities.
+ *
+ * @autor Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Repository
+public interface ProductImageVariantRepository extends JpaRepository<ProductImageVariant, Long> {
+
+    /**
+     * Finds the variants of a product's images.
+     *
+     * @param productId the ID of the product
+     * @return the variants, grouped by original
+     */
+    List<ProductImageVariant> findByProductIdOrderBySourceKeyAscVariantAsc(Long productId);
+
+    /**
+     * Finds the variants made of any of the given originals.
+     *
+     * @param sourceKeys the S3 keys of the originals
+     * @return the variants found
+     */
+    List<ProductImageVariant> findBySourceKeyIn(Collection<String> sourceKeys);
+
+    /**
+     * Reads the S3 key of every original that has variants.
+     *
+     * @return the keys of the originals
+     */
+    @Query("SELECT DISTINCT v.sourceKey FROM ProductImageVariant v")
+    List<String> findSourceKeys();
+}
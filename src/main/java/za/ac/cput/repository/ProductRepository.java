@@ -1,14 +1,30 @@
 package za.ac.cput.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.Product;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link Product} entity.
  * Provides methods to perform CRUD operations on Product entities.
+ * <p>
+ * Read methods use the Product.withSubCategories entity graph so a product and its
+ * sub-categories and categories are loaded in one statement instead of one select per row.
+ * findById is a query rather than a load by id so the active filter hides soft-deleted products there too.
  *
  * @autor Rethabile Ntsekhe
  * @date 25-Aug-24
@@ -16,5 +32,227 @@ import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    Optional<Product> findById(Long id);
+
+    @Override
+    @EntityGraph("Product.withSubCategories")
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findById(@Param("id") Long id);
+
+    @Override
+    @EntityGraph("Product.withSubCategories")
+    List<Product> findAll();
+
+    /**
+     * Finds the products with the given ids, fetching their sub-categories and categories.
+     *
+     * @param ids the ids of the products to load
+     * @return the products found, in no particular order
+     */
+    @EntityGraph("Product.withSubCategories")
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Reads the ids of the next page of products after the given id, ordered by id.
+     * Used for keyset pagination so the database seeks straight to the page instead of using an offset.
+     * Only ids are paged, fetching the sub-category collection with a limit would page in memory.
+     *
+     * @param afterId  the id of the last product on the previous page, 0 for the first page
+     * @param pageable the page request holding the maximum number of ids to return
+     * @return the ids of the products with an id greater than the given id
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Reads which of the given product ids exist, without loading the entities.
+     *
+     * @param ids the ids to check
+     * @return the ids that belong to a product
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads every product to sub-category link without loading the entities.
+     * Used to count the products of each category at startup.
+     *
+     * @return one row per link
+     */
+    @Query("SELECT p.id AS productId, s.id AS subCategoryId FROM Product p JOIN p.subCategory s")
+    List<SubCategoryLink> findAllSubCategoryLinks();
+
+    /**
+     * Reads the ids of the sub-categories of a product.
+     *
+     * @param id the ID of the product
+     * @return the ids of its sub-categories
+     */
+    @Query("SELECT s.id FROM Product p JOIN p.subCategory s WHERE p.id = :id")
+    List<Long> findSubCategoryIds(@Param("id") Long id);
+
+    /**
+     * Counts the products filed under each sub-category.
+     *
+     * @return one row per sub-category that has products
+     */
+    @Query("SELECT s.id AS subCategoryId, COUNT(p) AS productCount FROM Product p JOIN p.subCategory s GROUP BY s.id")
+    List<SubCategoryCount> countBySubCategory();
+
+    /**
+     * Reads the name of every product without loading the entities.
+     *
+     * @return one row per product
+     */
+    @Query("SELECT p.id AS id, p.name AS name FROM Product p")
+    List<ProductName> findAllNames();
+
+    /**
+     * Reads the searchable text of every product without loading the entities.
+     * Used to build the in-memory search index at startup.
+     *
+     * @return one row per product
+     */
+    @Query("SELECT p.id AS id, p.name AS name, p.summary AS summary, p.description AS description FROM Product p")
+    List<SearchFields> findAllSearchFields();
+
+    /**
+     * Streams every product with its sub-category ids for the catalog export, one row per product and
+     * sub-category (one row with a null sub-category for products without any), ordered by product id.
+     * The rows are read through a forward-only cursor and are not managed entities,
+     * so the export holds one fetch of rows at a time. Must be consumed inside a transaction.
+     *
+     * @return the rows, to be closed by the caller
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.summary AS summary, p.cover AS cover, " +
+            "p.imageUrls.imageUrl1 AS imageUrl1, p.imageUrls.imageUrl2 AS imageUrl2, " +
+            "p.imageUrls.imageUrl3 AS imageUrl3, p.imageUrls.imageUrl4 AS imageUrl4, " +
+            "p.createdAt AS createdAt, s.id AS subCategoryId " +
+            "FROM Product p LEFT JOIN p.subCategory s ORDER BY p.id, s.id")
+    Stream<ExportRow> streamExportRows();
+
+    /**
+     * Reads the cover and images of every product, for the image pipeline to find originals without variants.
+     *
+     * @return one row per product
+     */
+    @Query("SELECT p.id AS id, p.cover AS cover, p.imageUrls.imageUrl1 AS imageUrl1, p.imageUrls.imageUrl2 AS imageUrl2, " +
+            "p.imageUrls.imageUrl3 AS imageUrl3, p.imageUrls.imageUrl4 AS imageUrl4 FROM Product p")
+    List<ImageFields> findAllImageFields();
+
+    /**
+     * Reads every image a product row points at, including soft-deleted products, which may still be restored.
+     * Native, so the soft-delete filter does not apply.
+     *
+     * @return the distinct covers, cover thumbnails and image URLs or keys
+     */
+    @Query(value = "SELECT cover FROM products WHERE cover IS NOT NULL " +
+            "UNION SELECT cover_thumbnail FROM products WHERE cover_thumbnail IS NOT NULL " +
+            "UNION SELECT image_url1 FROM products WHERE image_url1 IS NOT NULL " +
+            "UNION SELECT image_url2 FROM products WHERE image_url2 IS NOT NULL " +
+            "UNION SELECT image_url3 FROM products WHERE image_url3 IS NOT NULL " +
+            "UNION SELECT image_url4 FROM products WHERE image_url4 IS NOT NULL",
+            nativeQuery = true)
+    List<String> findAllReferencedImages();
+
+    /**
+     * Sets the cover thumbnail of a product, as long as its cover is still the image the thumbnail was made from.
+     * A product that already has the thumbnail is left alone.
+     *
+     * @param id        the ID of the product
+     * @param cover     the cover the thumbnail was made from
+     * @param thumbnail the URL of the thumbnail
+     * @return 1 if the thumbnail was set, 0 if the product is gone, has another cover by now or has the thumbnail
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.coverThumbnail = :thumbnail WHERE p.id = :id AND p.cover = :cover " +
+            "AND (p.coverThumbnail IS NULL OR p.coverThumbnail <> :thumbnail)")
+    int updateCoverThumbnail(@Param("id") Long id, @Param("cover") String cover, @Param("thumbnail") String thumbnail);
+
+    /**
+     * Projection of a product row of the catalog export.
+     */
+    interface ExportRow {
+        Long getId();
+
+        String getName();
+
+        String getDescription();
+
+        String getSummary();
+
+        String getCover();
+
+        String getImageUrl1();
+
+        String getImageUrl2();
+
+        String getImageUrl3();
+
+        String getImageUrl4();
+
+        LocalDateTime getCreatedAt();
+
+        Long getSubCategoryId();
+    }
+
+    /**
+     * Projection of the cover and images of a product.
+     */
+    interface ImageFields {
+        Long getId();
+
+        String getCover();
+
+        String getImageUrl1();
+
+        String getImageUrl2();
+
+        String getImageUrl3();
+
+        String getImageUrl4();
+    }
+
+    /**
+     * Projection of the text fields of a product that are indexed for search.
+     */
+    interface SearchFields {
+        Long getId();
+
+        String getName();
+
+        String getSummary();
+
+        String getDescription();
+    }
+
+    /**
+     * Projection of the name of a product.
+     */
+    interface ProductName {
+        Long getId();
+
+        String getName();
+    }
+
+    /**
+     * Projection of the number of products in a sub-category.
+     */
+    interface SubCategoryCount {
+        Long getSubCategoryId();
+
+        Long getProductCount();
+    }
+
+    /**
+     * Projection of a product to sub-category link.
+     */
+    interface SubCategoryLink {
+        Long getProductId();
+
+        Long getSubCategoryId();
+    }
 }
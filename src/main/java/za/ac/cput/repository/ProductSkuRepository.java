@@ -1,14 +1,28 @@
 package za.ac.cput.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.ProductSku;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for {@link ProductSku} entity.
  * Provides methods to perform CRUD operations on ProductSkuService entities.
+ * <p>
+ * Read methods use the ProductSku.view entity graph, which joins the product, its sub-categories
+ * and the size, color and brand attributes into the same statement.
  *
  * @autor Rethabile Ntsekhe
  * @date 25-Aug-24
@@ -16,5 +30,259 @@ import java.util.Optional;
 
 @Repository
 public interface ProductSkuRepository extends JpaRepository<ProductSku, Long> {
-    Optional<ProductSku> findById(Long id);
+
+    // Queried rather than loaded by id, so soft-deleted SKUs are filtered
+    @Override
+    @EntityGraph("ProductSku.view")
+    @Query("SELECT s FROM ProductSku s WHERE s.id = :id")
+    Optional<ProductSku> findById(@Param("id") Long id);
+
+    @Override
+    @EntityGraph("ProductSku.view")
+    List<ProductSku> findAll();
+
+    /**
+     * Finds a SKU by its unique SKU code, fetching its product and attributes.
+     *
+     * @param sku the SKU code
+     * @return the SKU, if found
+     */
+    @EntityGraph("ProductSku.view")
+    Optional<ProductSku> findBySku(String sku);
+
+    /**
+     * Reads the id and SKU code of every SKU without loading the entities.
+     * Used to warm the in-memory code lookup at startup.
+     *
+     * @return one row per SKU
+     */
+    @Query("SELECT s.id AS id, s.sku AS sku FROM ProductSku s")
+    List<SkuCode> findAllSkuCodes();
+
+    /**
+     * Finds the SKUs with the given ids, fetching their product and attributes.
+     *
+     * @param ids the ids of the SKUs to load
+     * @return the SKUs found, in no particular order
+     */
+    @EntityGraph("ProductSku.view")
+    List<ProductSku> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Reads the product and attribute ids of every SKU without loading the entities.
+     * Used to warm the in-memory SKU indexes at startup.
+     *
+     * @return one row of ids per SKU
+     */
+    @Query("SELECT s.id AS id, s.product.id AS productId, s.sizeAttribute.id AS sizeAttributeId, " +
+            "s.colorAttribute.id AS colorAttributeId, s.brandAttribute.id AS brandAttributeId FROM ProductSku s")
+    List<SkuAttributeIds> findAllAttributeIds();
+
+    /**
+     * Reads which of the given SKU codes are already taken.
+     *
+     * @param skus the SKU codes to check
+     * @return the codes that belong to an existing SKU
+     */
+    @Query("SELECT s.sku FROM ProductSku s WHERE s.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    /**
+     * Reads the id, price and quantity of the SKUs with the given codes without loading the entities.
+     *
+     * @param skus the SKU codes to read
+     * @return one row per existing SKU code
+     */
+    @Query("SELECT s.id AS id, s.sku AS sku, s.price AS price, s.quantity AS quantity FROM ProductSku s WHERE s.sku IN :skus")
+    List<SkuPriceStock> findPriceStockBySkuIn(@Param("skus") Collection<String> skus);
+
+    /**
+     * Takes stock off a SKU if, and only if, enough is left. The check and the decrement are one statement,
+     * so concurrent buyers can never take the quantity below zero.
+     *
+     * @param id       the ID of the SKU
+     * @param quantity the number of units to take
+     * @return 1 if the stock was taken, 0 if there was not enough
+     */
+    @Modifying
+    @Query("UPDATE ProductSku s SET s.quantity = s.quantity - :quantity WHERE s.id = :id AND s.quantity >= :quantity")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Puts stock back on a SKU.
+     *
+     * @param id       the ID of the SKU
+     * @param quantity the number of units to return
+     * @return 1 if the SKU exists, otherwise 0
+     */
+    @Modifying
+    @Query("UPDATE ProductSku s SET s.quantity = s.quantity + :quantity WHERE s.id = :id")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Changes the stock of a SKU by a number of units, as long as it does not go below zero.
+     *
+     * @param id    the ID of the SKU
+     * @param units the number of units to add, negative to remove
+     * @return 1 if the stock was changed, 0 if there is no such SKU or fewer units are left than removed
+     */
+    @Modifying
+    @Query("UPDATE ProductSku s SET s.quantity = s.quantity + :units WHERE s.id = :id AND s.quantity + :units >= 0")
+    int adjustQuantity(@Param("id") Long id, @Param("units") int units);
+
+    /**
+     * Reads the stock of a SKU without loading the entity.
+     *
+     * @param id the ID of the SKU
+     * @return the quantity on the SKU row, or null if there is no such SKU
+     */
+    @Query("SELECT s.quantity FROM ProductSku s WHERE s.id = :id")
+    Integer findQuantityById(@Param("id") Long id);
+
+    /**
+     * Reads the SKUs of a product with the ids of their attributes, without loading the entities.
+     * The attributes are resolved from the CatalogRegistry.
+     *
+     * @param productId the ID of the product
+     * @return one row per SKU, ordered by id
+     */
+    @Query("SELECT s.id AS id, s.sku AS sku, s.price AS price, s.quantity AS quantity, " +
+            "s.sizeAttribute.id AS sizeAttributeId, s.colorAttribute.id AS colorAttributeId, " +
+            "s.brandAttribute.id AS brandAttributeId FROM ProductSku s WHERE s.product.id = :productId ORDER BY s.id")
+    List<SkuRow> findRowsByProductId(@Param("productId") Long productId);
+
+    /**
+     * Reads the product, price and stock of every SKU without loading the entities.
+     * Used to build the in-memory price index.
+     *
+     * @return one row per SKU
+     */
+    @Query("SELECT s.id AS id, s.product.id AS productId, s.price AS price, s.quantity AS quantity FROM ProductSku s")
+    List<SkuPrice> findAllPrices();
+
+    /**
+     * Counts the SKUs of each brand.
+     *
+     * @return one row per brand attribute that is in use
+     */
+    @Query("SELECT s.brandAttribute.id AS brandAttributeId, COUNT(s) AS skuCount FROM ProductSku s GROUP BY s.brandAttribute.id")
+    List<BrandSkuCount> countByBrand();
+
+    /**
+     * Streams every SKU of a product that is not deleted for the catalog export, ordered by id.
+     * The rows are read through a forward-only cursor and are not managed entities,
+     * so the export holds one fetch of rows at a time. Must be consumed inside a transaction.
+     *
+     * @return the rows, to be closed by the caller
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id AS id, s.product.id AS productId, s.sizeAttribute.id AS sizeAttributeId, " +
+            "s.colorAttribute.id AS colorAttributeId, s.brandAttribute.id AS brandAttributeId, " +
+            "s.sku AS sku, s.price AS price, s.quantity AS quantity, s.createdAt AS createdAt " +
+            "FROM ProductSku s WHERE s.product.deletedAt IS NULL ORDER BY s.id")
+    Stream<ExportRow> streamExportRows();
+
+    /**
+     * Projection of the ids a SKU links to.
+     */
+    interface SkuAttributeIds {
+        Long getId();
+
+        Long getProductId();
+
+        Long getSizeAttributeId();
+
+        Long getColorAttributeId();
+
+        Long getBrandAttributeId();
+    }
+
+    /**
+     * Projection of the price and stock of a SKU.
+     */
+    interface SkuPriceStock {
+        Long getId();
+
+        String getSku();
+
+        Double getPrice();
+
+        Integer getQuantity();
+    }
+
+    /**
+     * Projection of a SKU with the ids of its attributes.
+     */
+    interface SkuRow {
+        Long getId();
+
+        String getSku();
+
+        Double getPrice();
+
+        Integer getQuantity();
+
+        Long getSizeAttributeId();
+
+        Long getColorAttributeId();
+
+        Long getBrandAttributeId();
+    }
+
+    /**
+     * Projection of the product, price and stock of a SKU.
+     */
+    interface SkuPrice {
+        Long getId();
+
+        Long getProductId();
+
+        Double getPrice();
+
+        Integer getQuantity();
+    }
+
+    /**
+     * Projection of the number of SKUs of a brand.
+     */
+    interface BrandSkuCount {
+        Long getBrandAttributeId();
+
+        Long getSkuCount();
+    }
+
+    /**
+     * Projection of the SKU code of a SKU.
+     */
+    interface SkuCode {
+        Long getId();
+
+        String getSku();
+    }
+
+    /**
+     * Projection of a SKU row of the catalog export.
+     */
+    interface ExportRow {
+        Long getId();
+
+        Long getProductId();
+
+        Long getSizeAttributeId();
+
+        Long getColorAttributeId();
+
+        Long getBrandAttributeId();
+
+        String getSku();
+
+        Double getPrice();
+
+        Integer getQuantity();
+
+        LocalDateTime getCreatedAt();
+    }
 }
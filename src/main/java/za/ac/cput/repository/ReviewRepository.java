@@ -3,6 +3,8 @@ package za.ac.cput.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.Review;
 
@@ -23,4 +25,21 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     List<Review> findByRatingGreaterThan(int rating);
 
+    /**
+     * Counts the reviews of a product per rating, without loading the reviews.
+     *
+     * @param productId the ID of the product
+     * @return one row per rating that has reviews
+     */
+    @Query("SELECT r.rating AS rating, COUNT(r) AS reviewCount FROM review r WHERE r.product.id = :productId GROUP BY r.rating")
+    List<RatingCount> countByRating(@Param("productId") Long productId);
+
+    /**
+     * Projection of the number of reviews with a rating.
+     */
+    interface RatingCount {
+        Integer getRating();
+
+        Long getReviewCount();
+    }
 }
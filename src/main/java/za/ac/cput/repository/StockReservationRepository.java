@@ -0,0 +1,43 @@
+package za.ac.cput.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import za.ac.cput.domain.StockReservation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for {@link StockReservation} entity.
+ * Provides methods to perform CRUD operations on StockReservation entities.
+ *
+ * @autor Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Finds reservations that expired before the given time, oldest first.
+     *
+     * @param now      the current time
+     * @param pageable the maximum number of reservations to return
+     * @return the expired reservations
+     */
+    List<StockReservation> findByExpiresAtBeforeOrderByExpiresAt(LocalDateTime now, Pageable pageable);
+
+    /**
+     * Deletes a reservation. Of two concurrent commits, releases or expiries of the same reservation
+     * only one sees a deleted row, so the stock is returned at most once.
+     *
+     * @param id the ID of the reservation
+     * @return 1 if this call deleted the reservation, 0 if it was already gone
+     */
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int deleteReservation(@Param("id") Long id);
+}
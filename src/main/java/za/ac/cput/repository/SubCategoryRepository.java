@@ -1,13 +1,30 @@
 package za.ac.cput.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.SubCategory;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SubCategoryRepository extends JpaRepository<SubCategory, Long> {
+
+    @Override
+    @EntityGraph("SubCategory.withCategory")
+    @Query("SELECT s FROM SubCategory s WHERE s.id = :id")
+    Optional<SubCategory> findById(@Param("id") Long id);
+
+    @Override
+    @EntityGraph("SubCategory.withCategory")
+    List<SubCategory> findAll();
+
     // Additional query methods if needed
     List<SubCategory> findAllById(Long id);
-}
\ No newline at end of file
+
+    @Query("SELECT s.id FROM SubCategory s")
+    List<Long> findAllIds();
+}
@@ -0,0 +1,16 @@
+package za.ac.cput.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import za.ac.cput.domain.TrendingSnapshot;
+
+/**
+ * Repository interface for {@link TrendingSnapshot} entity.
+ * Provides methods to perform CRUD operations on TrendingSnapshot entities.
+ *
+ * @autor Rethabile Ntsekhe
+ * @date 18-Oct-26
+ */
+@Repository
+public interface TrendingSnapshotRepository extends JpaRepository<TrendingSnapshot, Long> {
+}
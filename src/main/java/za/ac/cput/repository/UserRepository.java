@@ -1,6 +1,7 @@
 package za.ac.cput.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.User;
 
@@ -28,6 +29,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Reads the avatar of every user that has one.
+     *
+     * @return the distinct avatar URLs or keys
+     */
+    @Query("SELECT DISTINCT u.avatar FROM User u WHERE u.avatar IS NOT NULL")
+    List<String> findAllAvatars();
 
 
     /**
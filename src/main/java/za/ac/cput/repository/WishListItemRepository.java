@@ -1,9 +1,15 @@
 package za.ac.cput.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.WishListItem;
 
+import java.util.stream.Stream;
+
 /**
  * WishListItemRepository.java
  *
@@ -15,4 +21,27 @@ import za.ac.cput.domain.WishListItem;
 public interface WishListItemRepository extends JpaRepository<WishListItem, Long> {
 
     void deleteByWishlistId(Long wishlistId);
+
+    /**
+     * Streams the product of every item of a wishlist, grouped by wishlist, for the related products index.
+     * Must be consumed inside a transaction.
+     *
+     * @return one row per wishlist item, ordered by wishlist id
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i.wishlist.id AS basketId, i.product.id AS productId FROM WishListItem i " +
+            "WHERE i.wishlist IS NOT NULL ORDER BY i.wishlist.id")
+    Stream<BasketItem> streamBasketItems();
+
+    /**
+     * Projection of a product on a wishlist.
+     */
+    interface BasketItem {
+        Long getBasketId();
+
+        Long getProductId();
+    }
 }
@@ -1,9 +1,13 @@
 package za.ac.cput.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.ac.cput.domain.Wishlist;
 
+import java.util.Optional;
+
 /**
  * WishlistRepository.java
  *
@@ -14,5 +18,8 @@ import za.ac.cput.domain.Wishlist;
 
 @Repository
 public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
-    // Additional query methods if needed
+    // Unlike a load by id, a query applies the active filter, so a soft-deleted wishlist is not found
+    @Override
+    @Query("SELECT w FROM Wishlist w WHERE w.id = :id")
+    Optional<Wishlist> findById(@Param("id") Long id);
 }
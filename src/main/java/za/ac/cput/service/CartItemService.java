@@ -4,8 +4,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import za.ac.cput.domain.CartItem;
+import za.ac.cput.domain.ProductSku;
 import za.ac.cput.repository.CartItemRepository;
+import za.ac.cput.repository.CartRepository;
+import za.ac.cput.repository.ProductSkuRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -14,6 +18,10 @@ import java.util.List;
  * Service implementation for managing CartItem entities.
  * Implements methods for CRUD operations and additional query methods.
  *
+ * Every write of an item also adjusts the total and item count of its cart, with one atomic UPDATE of the
+ * difference, so a cart never has to sum its items to be read. The price of an item is taken from its SKU
+ * and kept on the item, so a later change takes off exactly what was added, even if the SKU price changed.
+ *
  * Author: Rethabile Ntsekhe
  * Student Number: 220455430
  * Date: 25-Aug-24
@@ -24,21 +32,35 @@ import java.util.List;
 public class CartItemService implements ICartItem {
 
     private final CartItemRepository cartItemRepository;
+    private final CartRepository cartRepository;
+    private final ProductSkuRepository productSkuRepository;
 
     @Autowired
-    public CartItemService(CartItemRepository cartItemRepository) {
+    public CartItemService(CartItemRepository cartItemRepository,
+                           CartRepository cartRepository,
+                           ProductSkuRepository productSkuRepository) {
         this.cartItemRepository = cartItemRepository;
+        this.cartRepository = cartRepository;
+        this.productSkuRepository = productSkuRepository;
     }
 
     /**
      * Creates a new CartItem in the database.
      *
      * @param cartItem the CartItem entity to be created
-     * @return the created CartItem entity
+     * @return the created CartItem entity, with the cart totals that include it
+     * @throws IllegalArgumentException if the item has no cart or its SKU does not exist
      */
     @Override
     public CartItem create(CartItem cartItem) {
-        return cartItemRepository.save(cartItem);
+        Long cartId = cartIdOf(cartItem);
+        CartItem priced = new CartItem.Builder()
+                .copy(cartItem)
+                .setUnitPrice(priceOf(cartItem))
+                .build();
+        CartItem savedCartItem = cartItemRepository.save(priced);
+        cartRepository.adjustTotals(cartId, lineTotal(savedCartItem), savedCartItem.getQuantity(), LocalDateTime.now());
+        return read(savedCartItem.getId());
     }
 
     /**
@@ -56,13 +78,19 @@ public class CartItemService implements ICartItem {
      * Updates an existing CartItem in the database.
      *
      * @param cartItem the CartItem entity with updated details
-     * @return the updated CartItem entity
-     * @throws IllegalArgumentException if the CartItem with the given ID does not exist
+     * @return the updated CartItem entity, with the cart totals that include the change
+     * @throws IllegalArgumentException if the CartItem with the given ID does not exist, or the new SKU does not
      */
     @Override
     public CartItem update(CartItem cartItem) {
-        CartItem existingCartItem = cartItemRepository.findById(cartItem.getId()).orElse(null);
+        CartItem existingCartItem = cartItemRepository.findByIdForUpdate(cartItem.getId()).orElse(null);
         if (existingCartItem != null) {
+            // Taken before the save, which copies the new values onto the managed item
+            Long oldCartId = existingCartItem.getCart().getId();
+            double oldLineTotal = lineTotal(existingCartItem);
+            int oldQuantity = existingCartItem.getQuantity();
+
+            Long cartId = cartIdOf(cartItem);
             CartItem updatedCartItem = new CartItem.Builder()
                     .copy(existingCartItem)
                     .setId(existingCartItem.getId())
@@ -70,8 +98,23 @@ public class CartItemService implements ICartItem {
                     .setProduct(cartItem.getProduct())
                     .setProductSku(cartItem.getProductSku())
                     .setQuantity(cartItem.getQuantity())
+                    .setUnitPrice(priceOf(cartItem))
                     .build();
-            return cartItemRepository.save(updatedCartItem);
+            CartItem savedCartItem = cartItemRepository.save(updatedCartItem);
+
+            LocalDateTime now = LocalDateTime.now();
+            if (cartId.equals(oldCartId)) {
+                double totalDelta = lineTotal(savedCartItem) - oldLineTotal;
+                int countDelta = savedCartItem.getQuantity() - oldQuantity;
+                if (totalDelta != 0 || countDelta != 0) {
+                    cartRepository.adjustTotals(cartId, totalDelta, countDelta, now);
+                }
+            } else {
+                // Moved to another cart
+                cartRepository.adjustTotals(oldCartId, -oldLineTotal, -oldQuantity, now);
+                cartRepository.adjustTotals(cartId, lineTotal(savedCartItem), savedCartItem.getQuantity(), now);
+            }
+            return read(savedCartItem.getId());
         } else {
             throw new IllegalArgumentException("Attempt to update a non-existent cart item with ID: " + cartItem.getId());
         }
@@ -85,7 +128,12 @@ public class CartItemService implements ICartItem {
      */
     @Override
     public boolean delete(Long id) {
-        cartItemRepository.deleteById(id); // Use deleteById (standard JpaRepository method)
+        CartItem existingCartItem = cartItemRepository.findByIdForUpdate(id).orElse(null);
+        if (existingCartItem != null) {
+            cartItemRepository.delete(existingCartItem);
+            cartRepository.adjustTotals(existingCartItem.getCart().getId(), -lineTotal(existingCartItem),
+                    -existingCartItem.getQuantity(), LocalDateTime.now());
+        }
 
         // Check if the entity still exists after deletion
         boolean exists = cartItemRepository.existsById(id);
@@ -148,8 +196,37 @@ public class CartItemService implements ICartItem {
         return cartItemRepository.findByQuantity(quantity);
     }
 
+    /**
+     * Deletes every CartItem of a Cart and sets the cart total and item count back to zero.
+     *
+     * @param cartId the ID of the Cart to empty
+     */
     @Override
     public void deleteByCartId(Long cartId) {
         cartItemRepository.deleteByCartId(cartId);
+        cartRepository.resetTotals(cartId, LocalDateTime.now());
+    }
+
+    // The amount an item adds to its cart total
+    private static double lineTotal(CartItem cartItem) {
+        return cartItem.getUnitPrice() == null ? 0 : cartItem.getUnitPrice() * cartItem.getQuantity();
+    }
+
+    private static Long cartIdOf(CartItem cartItem) {
+        if (cartItem.getCart() == null || cartItem.getCart().getId() == null) {
+            throw new IllegalArgumentException("A cart item must belong to a saved cart");
+        }
+        return cartItem.getCart().getId();
+    }
+
+    // The price comes from the SKU as stored, never from the request
+    private Double priceOf(CartItem cartItem) {
+        ProductSku productSku = cartItem.getProductSku();
+        if (productSku == null || productSku.getId() == null) {
+            throw new IllegalArgumentException("A cart item must have a SKU");
+        }
+        return productSkuRepository.findById(productSku.getId())
+                .map(ProductSku::getPrice)
+                .orElseThrow(() -> new IllegalArgumentException("Product SKU with ID " + productSku.getId() + " does not exist"));
     }
 }
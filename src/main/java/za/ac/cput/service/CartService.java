@@ -10,6 +10,7 @@ import za.ac.cput.repository.CartRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * CartService.java
@@ -36,14 +37,21 @@ public class CartService implements ICart {
     }
 
     /**
-     * Creates a new Cart.
+     * Creates a new Cart. The total and item count are kept by the cart item writes, a new cart starts at zero
+     * and a cart saved again keeps its own, the columns are never written by a save.
      *
      * @param cart the Cart entity to be created
      * @return the created Cart
      */
     @Override
     public Cart create(Cart cart) {
-        return cartRepository.save(cart);
+        Cart existingCart = cart.getId() == null ? null : cartRepository.findById(cart.getId()).orElse(null);
+        Cart newCart = new Cart.Builder()
+                .copy(cart)
+                .setTotal(existingCart == null ? 0.0 : existingCart.getTotal())
+                .setItemCount(existingCart == null ? 0 : existingCart.getItemCount())
+                .build();
+        return cartRepository.save(newCart);
     }
 
     /**
@@ -60,7 +68,8 @@ public class CartService implements ICart {
 
 
     /**
-     * Updates an existing Cart.
+     * Updates an existing Cart. The total and item count sent are ignored, the cart keeps the ones
+     * its items add up to. The save does not write them, so an item written meanwhile is not lost.
      *
      * @param cartDetails the Cart entity to be updated
      * @return the updated Cart entity, or null if the Cart does not exist
@@ -74,11 +83,14 @@ public class CartService implements ICart {
         Cart updatedCart = CartFactory.createCart(
                 existingCartItem.getId(),
                 cartDetails.getUser(),
-                cartDetails.getTotal(),
+                Objects.requireNonNullElse(existingCartItem.getTotal(), 0.0),
                cartDetails.getCreatedAt(),
                 cartDetails.getUpdatedAt()
         );
-        return cartRepository.save(updatedCart);
+        return cartRepository.save(new Cart.Builder()
+                .copy(updatedCart)
+                .setItemCount(existingCartItem.getItemCount())
+                .build());
     }
 
     /**
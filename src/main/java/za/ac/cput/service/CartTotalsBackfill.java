@@ -0,0 +1,54 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.ac.cput.repository.CartItemRepository;
+import za.ac.cput.repository.CartRepository;
+
+/**
+ * CartTotalsBackfill.java
+ *
+ * Brings carts and cart items saved before the cart kept its own totals up to date, once at startup.
+ * Items without a unit price are priced at the current price of their SKU, the price they were added at
+ * was never stored. Carts without an item count still hold the total the client sent and are set to what
+ * their items add up to. Both statements only match such rows, so a later start changes nothing.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class CartTotalsBackfill {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public CartTotalsBackfill(CartRepository cartRepository, CartItemRepository cartItemRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Prices the old cart items, then sets the totals of the old carts from them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int items = cartItemRepository.backfillUnitPrices();
+            int carts = cartRepository.backfillTotals();
+            if (items > 0 || carts > 0) {
+                log.info("Priced {} cart items and set the totals of {} carts from their items", items, carts);
+            }
+        });
+    }
+}
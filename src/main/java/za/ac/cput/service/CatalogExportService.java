@@ -0,0 +1,128 @@
+package za.ac.cput.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.ac.cput.enums.ImportFormat;
+import za.ac.cput.repository.ProductRepository;
+import za.ac.cput.repository.ProductSkuRepository;
+import za.ac.cput.util.RowWriter;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * CatalogExportService.java
+ *
+ * Full dump of the products and product SKUs as CSV or NDJSON, in the columns the import reads.
+ * Rows are streamed from a forward-only cursor straight to the output, each row is written and dropped
+ * before the next one is read. The rows are scalar projections rather than entities, so nothing builds up
+ * in the persistence context and memory use does not depend on the size of the catalog.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class CatalogExportService {
+
+    static final List<String> PRODUCT_COLUMNS = List.of("id", "name", "description", "summary", "cover",
+            "imageUrl1", "imageUrl2", "imageUrl3", "imageUrl4", "subCategoryIds", "createdAt");
+    static final List<String> PRODUCT_SKU_COLUMNS = List.of("id", "productId", "sizeAttributeId",
+            "colorAttributeId", "brandAttributeId", "sku", "price", "quantity", "createdAt");
+
+    private final ProductRepository productRepository;
+    private final ProductSkuRepository productSkuRepository;
+    private final TransactionTemplate readTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CatalogExportService(ProductRepository productRepository,
+                                ProductSkuRepository productSkuRepository,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.productSkuRepository = productSkuRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every product that is not deleted, ordered by id.
+     *
+     * @param out    the response body, left open
+     * @param format the format to write
+     * @return the number of products written
+     */
+    public long exportProducts(OutputStream out, ImportFormat format) {
+        RowWriter writer = new RowWriter(out, format, PRODUCT_COLUMNS, objectMapper);
+        Long exported = readTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<ProductRepository.ExportRow> rows = productRepository.streamExportRows()) {
+                // one row per sub-category, the rows of a product are adjacent
+                ProductRepository.ExportRow current = null;
+                List<Long> subCategoryIds = new ArrayList<>();
+                for (Iterator<ProductRepository.ExportRow> it = rows.iterator(); it.hasNext(); ) {
+                    ProductRepository.ExportRow row = it.next();
+                    if (current != null && !current.getId().equals(row.getId())) {
+                        writeProduct(writer, current, subCategoryIds);
+                        subCategoryIds.clear();
+                        count++;
+                    }
+                    current = row;
+                    if (row.getSubCategoryId() != null) {
+                        subCategoryIds.add(row.getSubCategoryId());
+                    }
+                }
+                if (current != null) {
+                    writeProduct(writer, current, subCategoryIds);
+                    count++;
+                }
+            }
+            return count;
+        });
+        writer.flush();
+        log.info("Product export finished: {} rows", exported);
+        return exported == null ? 0 : exported;
+    }
+
+    /**
+     * Writes every SKU whose product is not deleted, ordered by id.
+     *
+     * @param out    the response body, left open
+     * @param format the format to write
+     * @return the number of SKUs written
+     */
+    public long exportProductSkus(OutputStream out, ImportFormat format) {
+        RowWriter writer = new RowWriter(out, format, PRODUCT_SKU_COLUMNS, objectMapper);
+        Long exported = readTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<ProductSkuRepository.ExportRow> rows = productSkuRepository.streamExportRows()) {
+                for (Iterator<ProductSkuRepository.ExportRow> it = rows.iterator(); it.hasNext(); ) {
+                    ProductSkuRepository.ExportRow row = it.next();
+                    writer.write(row.getId(), row.getProductId(), row.getSizeAttributeId(), row.getColorAttributeId(),
+                            row.getBrandAttributeId(), row.getSku(), row.getPrice(), row.getQuantity(), row.getCreatedAt());
+                    count++;
+                }
+            }
+            return count;
+        });
+        writer.flush();
+        log.info("Product SKU export finished: {} rows", exported);
+        return exported == null ? 0 : exported;
+    }
+
+    private static void writeProduct(RowWriter writer, ProductRepository.ExportRow row, List<Long> subCategoryIds) {
+        writer.write(row.getId(), row.getName(), row.getDescription(), row.getSummary(), row.getCover(),
+                row.getImageUrl1(), row.getImageUrl2(), row.getImageUrl3(), row.getImageUrl4(),
+                subCategoryIds, row.getCreatedAt());
+    }
+}
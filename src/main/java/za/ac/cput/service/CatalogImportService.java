@@ -0,0 +1,322 @@
+package za.ac.cput.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.ac.cput.domain.*;
+import za.ac.cput.enums.ImportFormat;
+import za.ac.cput.enums.ProductAttributeType;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.factory.ProductFactory;
+import za.ac.cput.factory.ProductSkuFactory;
+import za.ac.cput.repository.ProductAttributeRepository;
+import za.ac.cput.repository.ProductRepository;
+import za.ac.cput.repository.ProductSkuRepository;
+import za.ac.cput.repository.SubCategoryRepository;
+import za.ac.cput.util.RowReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * CatalogImportService.java
+ *
+ * Bulk import of products and product SKUs from a CSV or NDJSON body.
+ * The body is read one row at a time and rows are written in batches, each batch in its own transaction
+ * and persistence context, which is closed before the next one starts, so memory use depends on the batch
+ * size and not on the size of the file. Rows are validated with the same rules as ProductFactory and
+ * ProductSkuFactory and every rejected row is reported with its line number.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+
+    private static final List<String> SKU_REQUIRED_COLUMNS = List.of("productId", "sizeAttributeId",
+            "colorAttributeId", "brandAttributeId", "sku", "price", "quantity");
+
+    private final ProductRepository productRepository;
+    private final ProductSkuRepository productSkuRepository;
+    private final SubCategoryRepository subCategoryRepository;
+    private final ProductAttributeRepository productAttributeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${store.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${store.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Autowired
+    public CatalogImportService(ProductRepository productRepository,
+                                ProductSkuRepository productSkuRepository,
+                                SubCategoryRepository subCategoryRepository,
+                                ProductAttributeRepository productAttributeRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.productSkuRepository = productSkuRepository;
+        this.subCategoryRepository = subCategoryRepository;
+        this.productAttributeRepository = productAttributeRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Imports products. Columns: name, description, summary, cover, imageUrl1 to imageUrl4 and
+     * subCategoryIds, a ';' separated list of sub-category ids (or a JSON array in NDJSON).
+     *
+     * @param in     the request body
+     * @param format the format of the body
+     * @return the number of imported rows and the rows that were rejected
+     */
+    public ImportReport importProducts(InputStream in, ImportFormat format) {
+        Set<Long> subCategoryIds = new HashSet<>(subCategoryRepository.findAllIds());
+        ImportReport report = new ImportReport(maxErrors);
+        run(in, format, report, row -> parseProduct(row, subCategoryIds), batch -> writeProducts(batch, report));
+        log.info("Product import finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Imports product SKUs. Columns: productId, sizeAttributeId, colorAttributeId, brandAttributeId,
+     * sku, price and quantity. SKU codes must be unique across the file and the existing catalog.
+     *
+     * @param in     the request body
+     * @param format the format of the body
+     * @return the number of imported rows and the rows that were rejected
+     */
+    public ImportReport importProductSkus(InputStream in, ImportFormat format) {
+        EnumMap<ProductAttributeType, Set<Long>> attributeIds = new EnumMap<>(ProductAttributeType.class);
+        for (ProductAttributeType type : ProductAttributeType.values()) {
+            attributeIds.put(type, new HashSet<>(productAttributeRepository.findIdsByType(type)));
+        }
+        ImportReport report = new ImportReport(maxErrors);
+        run(in, format, report, row -> parseProductSku(row, attributeIds), batch -> writeProductSkus(batch, report));
+        log.info("Product SKU import finished: {}", report);
+        return report;
+    }
+
+    private <T> void run(InputStream in, ImportFormat format, ImportReport report,
+                         Function<RowReader.Row, T> parser, Consumer<List<Pending<T>>> writer) {
+        List<Pending<T>> batch = new ArrayList<>(batchSize);
+        try (RowReader reader = new RowReader(in, format, objectMapper)) {
+            RowReader.Row row;
+            while ((row = reader.next()) != null) {
+                if (row.error() != null) {
+                    report.addError(row.line(), row.error());
+                    continue;
+                }
+                try {
+                    batch.add(new Pending<>(row.line(), parser.apply(row)));
+                } catch (IllegalArgumentException e) {
+                    report.addError(row.line(), e.getMessage());
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    writer.accept(batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            writer.accept(batch);
+        }
+    }
+
+    private Product parseProduct(RowReader.Row row, Set<Long> knownSubCategoryIds) {
+        List<SubCategory> subCategories = new ArrayList<>();
+        String ids = row.get("subCategoryIds");
+        if (ids != null) {
+            for (String value : ids.split(";")) {
+                if (value.isBlank()) {
+                    continue;
+                }
+                Long id = parseLong("subCategoryIds", value.trim());
+                if (!knownSubCategoryIds.contains(id)) {
+                    throw new IllegalArgumentException("Unknown sub-category: " + id);
+                }
+                subCategories.add(new SubCategory.Builder().setId(id).build());
+            }
+        }
+        ImageUrls imageUrls = new ImageUrls.Builder()
+                .setImageUrl1(row.get("imageUrl1"))
+                .setImageUrl2(row.get("imageUrl2"))
+                .setImageUrl3(row.get("imageUrl3"))
+                .setImageUrl4(row.get("imageUrl4"))
+                .build();
+        return ProductFactory.createProduct(null, row.get("name"), row.get("description"), row.get("summary"),
+                row.get("cover"), imageUrls, subCategories, LocalDateTime.now(), null);
+    }
+
+    // Checked here rather than left to ProductSkuFactory, which lets some combinations of missing and invalid
+    // fields through, and a SKU without its product or attributes cannot be written
+    private ProductSku parseProductSku(RowReader.Row row, Map<ProductAttributeType, Set<Long>> knownAttributeIds) {
+        List<String> missing = SKU_REQUIRED_COLUMNS.stream()
+                .filter(column -> row.get(column) == null)
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("The following fields cannot be null: " + String.join(", ", missing));
+        }
+        double price = parseDouble("price", row.get("price"));
+        if (price <= 0) {
+            throw new IllegalArgumentException("price must be greater than zero: " + row.get("price"));
+        }
+        int quantity = parseInt("quantity", row.get("quantity"));
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be greater than zero: " + row.get("quantity"));
+        }
+        return ProductSkuFactory.createProductSku(null,
+                new Product.Builder().setId(parseLong("productId", row.get("productId"))).build(),
+                attribute(row, "sizeAttributeId", ProductAttributeType.SIZE, knownAttributeIds),
+                attribute(row, "colorAttributeId", ProductAttributeType.COLOR, knownAttributeIds),
+                attribute(row, "brandAttributeId", ProductAttributeType.BRAND, knownAttributeIds),
+                row.get("sku"),
+                price,
+                quantity,
+                LocalDateTime.now(),
+                null);
+    }
+
+    private void writeProducts(List<Pending<Product>> batch, ImportReport report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Product> products = new ArrayList<>(batch.size());
+                for (Pending<Product> pending : batch) {
+                    Product product = pending.entity();
+                    List<SubCategory> references = product.getSubCategory().stream()
+                            .map(subCategory -> entityManager.getReference(SubCategory.class, subCategory.getId()))
+                            .toList();
+                    products.add(new Product.Builder()
+                            .copy(product)
+                            .setImageUrls(product.getImageUrls())
+                            .setSubCategory(new ArrayList<>(references))
+                            .build());
+                }
+                List<Product> saved = productRepository.saveAll(products);
+                // Through the repository, so a rejected batch is translated to a DataAccessException
+                productRepository.flush();
+                // Not cleared, the listeners run after the commit and may load the sub-categories of the saved
+                // products, the persistence context is only closed after them
+                saved.forEach(product -> eventPublisher.publishEvent(
+                        CatalogEvent.created(Product.class, product.getId(), product)));
+            });
+            report.addImported(batch.size());
+        } catch (DataAccessException e) {
+            log.warn("Product import batch starting at line {} failed", batch.get(0).line(), e);
+            batch.forEach(pending -> report.addError(pending.line(), "Batch failed: " + e.getMostSpecificCause().getMessage()));
+        }
+    }
+
+    private void writeProductSkus(List<Pending<ProductSku>> batch, ImportReport report) {
+        Set<Long> productIds = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        batch.forEach(pending -> {
+            productIds.add(pending.entity().getProduct().getId());
+            codes.add(pending.entity().getSku());
+        });
+
+        // rows rejected inside the transaction are only reported once it commits
+        Map<Long, String> rejected = new LinkedHashMap<>();
+        try {
+            Long imported = transactionTemplate.execute(status -> {
+                rejected.clear();
+                Set<Long> existingProducts = new HashSet<>(productRepository.findExistingIds(productIds));
+                Set<String> takenCodes = new HashSet<>(productSkuRepository.findExistingSkus(codes));
+
+                List<ProductSku> productSkus = new ArrayList<>(batch.size());
+                for (Pending<ProductSku> pending : batch) {
+                    ProductSku productSku = pending.entity();
+                    if (!existingProducts.contains(productSku.getProduct().getId())) {
+                        rejected.put(pending.line(), "Unknown product: " + productSku.getProduct().getId());
+                    } else if (!takenCodes.add(productSku.getSku())) {
+                        rejected.put(pending.line(), "Duplicate SKU: " + productSku.getSku());
+                    } else {
+                        productSkus.add(new ProductSku.Builder()
+                                .copy(productSku)
+                                .setProduct(entityManager.getReference(Product.class, productSku.getProduct().getId()))
+                                .setSizeAttribute(reference(productSku.getSizeAttribute()))
+                                .setColorAttribute(reference(productSku.getColorAttribute()))
+                                .setBrandAttribute(reference(productSku.getBrandAttribute()))
+                                .build());
+                    }
+                }
+                List<ProductSku> saved = productSkuRepository.saveAll(productSkus);
+                productSkuRepository.flush();
+                saved.forEach(productSku -> eventPublisher.publishEvent(
+                        CatalogEvent.created(ProductSku.class, productSku.getId(), productSku)));
+                return (long) saved.size();
+            });
+            report.addImported(imported == null ? 0 : imported);
+            rejected.forEach(report::addError);
+        } catch (DataAccessException e) {
+            log.warn("Product SKU import batch starting at line {} failed", batch.get(0).line(), e);
+            batch.forEach(pending -> report.addError(pending.line(), "Batch failed: " + e.getMostSpecificCause().getMessage()));
+        }
+    }
+
+    private ProductAttribute reference(ProductAttribute attribute) {
+        return entityManager.getReference(ProductAttribute.class, attribute.getId());
+    }
+
+    private static ProductAttribute attribute(RowReader.Row row, String column, ProductAttributeType type,
+                                              Map<ProductAttributeType, Set<Long>> knownAttributeIds) {
+        Long id = parseLong(column, row.get(column));
+        if (!knownAttributeIds.get(type).contains(id)) {
+            throw new IllegalArgumentException("Unknown " + type.name().toLowerCase() + " attribute: " + id);
+        }
+        return new ProductAttribute.Builder().setId(id).setType(type).build();
+    }
+
+    private static Long parseLong(String column, String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    private static double parseDouble(String column, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    private static int parseInt(String column, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a whole number: " + value);
+        }
+    }
+
+    private record Pending<T>(long line, T entity) {
+    }
+}
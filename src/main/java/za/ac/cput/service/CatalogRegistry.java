@@ -0,0 +1,320 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.ac.cput.domain.Category;
+import za.ac.cput.domain.ProductAttribute;
+import za.ac.cput.domain.SubCategory;
+import za.ac.cput.enums.CatalogAction;
+import za.ac.cput.enums.ProductAttributeType;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.CategoryRepository;
+import za.ac.cput.repository.ProductAttributeRepository;
+import za.ac.cput.repository.SubCategoryRepository;
+
+import java.util.*;
+
+/**
+ * CatalogRegistry.java
+ *
+ * In-memory copy of the reference data: product attributes, categories and sub-categories.
+ * There are only a few hundred rows, but every SKU and product load used to join them and build its own copies.
+ * The registry keeps one detached instance per row. The SharedReferenceListener points loaded SKUs and
+ * sub-categories at these instances instead of joining the tables, so the copies are shared across requests
+ * and caches. The instances are never modified, a write replaces them.
+ *
+ * Readers see an immutable snapshot. Committed attribute, category and sub-category writes swap in a new one.
+ * The written row is read back in a new session rather than taken from the event: the event carries the values
+ * as sent, e.g. timestamps finer than the column. SKUs do not cascade to their attributes, so saving a SKU that
+ * points at a shared instance never writes the instance back.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class CatalogRegistry {
+
+    private static final Comparator<ProductAttribute> BY_VALUE = Comparator.comparing(ProductAttribute::getValue);
+
+    private final ProductAttributeRepository productAttributeRepository;
+    private final CategoryRepository categoryRepository;
+    private final SubCategoryRepository subCategoryRepository;
+    private final TransactionTemplate readTemplate;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+
+    @Autowired
+    public CatalogRegistry(ProductAttributeRepository productAttributeRepository,
+                           CategoryRepository categoryRepository,
+                           SubCategoryRepository subCategoryRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.productAttributeRepository = productAttributeRepository;
+        this.categoryRepository = categoryRepository;
+        this.subCategoryRepository = subCategoryRepository;
+        this.readTemplate = transactionManager == null ? null : new TransactionTemplate(transactionManager);
+        if (readTemplate != null) {
+            // the listeners run after the writer committed, while its persistence context is still open
+            readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            readTemplate.setReadOnly(true);
+        }
+    }
+
+    /**
+     * Loads the reference data once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductAttribute> attributes = productAttributeRepository.findAll();
+        List<Category> categories = categoryRepository.findAll();
+        List<SubCategory> subCategories = subCategoryRepository.findAll();
+
+        Map<Long, ProductAttribute> attributesById = new HashMap<>();
+        attributes.forEach(attribute -> attributesById.put(attribute.getId(), copy(attribute)));
+        Map<Long, Category> categoriesById = new HashMap<>();
+        categories.forEach(category -> categoriesById.put(category.getId(), copy(category)));
+        Map<Long, SubCategory> subCategoriesById = new HashMap<>();
+        subCategories.forEach(subCategory -> subCategoriesById.put(subCategory.getId(), copy(subCategory, categoriesById)));
+
+        synchronized (this) {
+            snapshot = Snapshot.of(attributesById, categoriesById, subCategoriesById);
+            loaded = true;
+        }
+        log.info("Catalog registry loaded {} attributes, {} categories and {} sub-categories",
+                attributesById.size(), categoriesById.size(), subCategoriesById.size());
+    }
+
+    /**
+     * @return true once the reference data has been loaded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public ProductAttribute attribute(Long id) {
+        return id == null ? null : snapshot.attributes().get(id);
+    }
+
+    /**
+     * Looks up an attribute by type and value.
+     *
+     * @param type  the attribute type
+     * @param value the exact value, e.g. "Red"
+     * @return the attribute, or null if there is none
+     */
+    public ProductAttribute attribute(ProductAttributeType type, String value) {
+        ProductAttribute[] values = snapshot.attributesByType().get(type);
+        if (values == null || value == null) {
+            return null;
+        }
+        int index = Arrays.binarySearch(values, new ProductAttribute.Builder().setValue(value).build(), BY_VALUE);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * @param type the attribute type
+     * @return the attributes of the type, ordered by value
+     */
+    public List<ProductAttribute> attributes(ProductAttributeType type) {
+        ProductAttribute[] values = snapshot.attributesByType().get(type);
+        return values == null ? List.of() : List.of(values);
+    }
+
+    public Category category(Long id) {
+        return id == null ? null : snapshot.categories().get(id);
+    }
+
+    public SubCategory subCategory(Long id) {
+        return id == null ? null : snapshot.subCategories().get(id);
+    }
+
+    /**
+     * Returns the shared instance of an attribute row. A row the registry does not know yet,
+     * e.g. one written by another instance, is read from the reference and added,
+     * which may load a lazy reference, so call this while its session is open.
+     *
+     * @param attribute an attribute or a lazy reference to one
+     * @return the shared instance, or the argument itself until the registry is loaded
+     */
+    public ProductAttribute shared(ProductAttribute attribute) {
+        if (attribute == null || !loaded) {
+            return attribute;
+        }
+        ProductAttribute shared = attribute(attribute.getId());
+        if (shared != null) {
+            return shared;
+        }
+        ProductAttribute loadedAttribute = (ProductAttribute) Hibernate.unproxy(attribute);
+        putAttribute(loadedAttribute);
+        return attribute(loadedAttribute.getId());
+    }
+
+    /**
+     * Returns the shared instance of a category row, see {@link #shared(ProductAttribute)}.
+     *
+     * @param category a category or a lazy reference to one
+     * @return the shared instance, or the argument itself until the registry is loaded
+     */
+    public Category shared(Category category) {
+        if (category == null || !loaded) {
+            return category;
+        }
+        Category shared = category(category.getId());
+        if (shared != null) {
+            return shared;
+        }
+        Category loadedCategory = (Category) Hibernate.unproxy(category);
+        if (loadedCategory.getDeletedAt() != null) {
+            // a sub-category can still point at a soft-deleted category, which is not shared
+            return loadedCategory;
+        }
+        putCategory(loadedCategory);
+        return category(loadedCategory.getId());
+    }
+
+    /**
+     * Applies a committed attribute write.
+     *
+     * @param event the attribute event published by ProductAttributeService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttribute(CatalogEvent<ProductAttribute> event) {
+        ProductAttribute attribute = committed(productAttributeRepository, event);
+        if (attribute == null) {
+            removeAttribute(event.getId());
+        } else {
+            putAttribute(attribute);
+        }
+    }
+
+    /**
+     * Applies a committed category write, the sub-categories of the category are relinked to the new instance.
+     *
+     * @param event the category event published by CategoryService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategory(CatalogEvent<Category> event) {
+        Category category = committed(categoryRepository, event);
+        if (category == null) {
+            removeCategory(event.getId());
+        } else {
+            putCategory(category);
+        }
+    }
+
+    /**
+     * Applies a committed sub-category write.
+     *
+     * @param event the sub-category event published by SubCategoryService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubCategory(CatalogEvent<SubCategory> event) {
+        SubCategory subCategory = committed(subCategoryRepository, event);
+        synchronized (this) {
+            Snapshot current = snapshot;
+            Map<Long, SubCategory> subCategories = new HashMap<>(current.subCategories());
+            if (subCategory == null) {
+                subCategories.remove(event.getId());
+            } else {
+                subCategories.put(event.getId(), copy(subCategory, current.categories()));
+            }
+            snapshot = Snapshot.of(current.attributes(), current.categories(), subCategories);
+        }
+    }
+
+    // The row as stored, or null if it was deleted. Without a transaction manager (unit tests) the event entity is used.
+    private <T> T committed(JpaRepository<T, Long> repository, CatalogEvent<T> event) {
+        if (event.getAction() == CatalogAction.DELETED || event.getEntity() == null) {
+            return null;
+        }
+        if (readTemplate == null) {
+            return event.getEntity();
+        }
+        return readTemplate.execute(status -> repository.findById(event.getId()).orElse(null));
+    }
+
+    private synchronized void putAttribute(ProductAttribute attribute) {
+        Snapshot current = snapshot;
+        Map<Long, ProductAttribute> attributes = new HashMap<>(current.attributes());
+        attributes.put(attribute.getId(), copy(attribute));
+        snapshot = Snapshot.of(attributes, current.categories(), current.subCategories());
+    }
+
+    private synchronized void removeAttribute(Long id) {
+        Snapshot current = snapshot;
+        Map<Long, ProductAttribute> attributes = new HashMap<>(current.attributes());
+        if (attributes.remove(id) != null) {
+            snapshot = Snapshot.of(attributes, current.categories(), current.subCategories());
+        }
+    }
+
+    private synchronized void putCategory(Category category) {
+        Snapshot current = snapshot;
+        Map<Long, Category> categories = new HashMap<>(current.categories());
+        categories.put(category.getId(), copy(category));
+        snapshot = Snapshot.of(current.attributes(), categories, relink(current.subCategories(), categories));
+    }
+
+    private synchronized void removeCategory(Long id) {
+        Snapshot current = snapshot;
+        Map<Long, Category> categories = new HashMap<>(current.categories());
+        if (categories.remove(id) != null) {
+            snapshot = Snapshot.of(current.attributes(), categories, current.subCategories());
+        }
+    }
+
+    // Points every sub-category at the current instance of its category
+    private static Map<Long, SubCategory> relink(Map<Long, SubCategory> subCategories, Map<Long, Category> categories) {
+        Map<Long, SubCategory> relinked = new HashMap<>(subCategories.size());
+        subCategories.forEach((id, subCategory) -> relinked.put(id, copy(subCategory, categories)));
+        return relinked;
+    }
+
+    private static ProductAttribute copy(ProductAttribute attribute) {
+        return new ProductAttribute.Builder().copy(attribute).build();
+    }
+
+    private static Category copy(Category category) {
+        return new Category.Builder().copy(category).build();
+    }
+
+    private static SubCategory copy(SubCategory subCategory, Map<Long, Category> categories) {
+        Category category = subCategory.getCategory();
+        return new SubCategory.Builder()
+                .copy(subCategory)
+                .setCategory(category == null ? null : categories.getOrDefault(category.getId(), category))
+                .build();
+    }
+
+    private record Snapshot(Map<Long, ProductAttribute> attributes,
+                            Map<ProductAttributeType, ProductAttribute[]> attributesByType,
+                            Map<Long, Category> categories,
+                            Map<Long, SubCategory> subCategories) {
+
+        private static final Snapshot EMPTY = of(Map.of(), Map.of(), Map.of());
+
+        private static Snapshot of(Map<Long, ProductAttribute> attributes,
+                                   Map<Long, Category> categories,
+                                   Map<Long, SubCategory> subCategories) {
+            Map<ProductAttributeType, ProductAttribute[]> byType = new EnumMap<>(ProductAttributeType.class);
+            for (ProductAttributeType type : ProductAttributeType.values()) {
+                byType.put(type, attributes.values().stream()
+                        .filter(attribute -> attribute.getType() == type && attribute.getValue() != null)
+                        .sorted(BY_VALUE)
+                        .toArray(ProductAttribute[]::new));
+            }
+            return new Snapshot(Map.copyOf(attributes), byType, Map.copyOf(categories), Map.copyOf(subCategories));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package za.ac.cput.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.ac.cput.domain.CatalogVersion;
+import za.ac.cput.domain.Category;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.SubCategory;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.CatalogVersionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * CatalogRevision.java
+ *
+ * Revision counter of the product, category and sub-category data, used as the ETag of the catalog endpoints.
+ * Products embed their sub-categories and categories, so a write to any of the three moves the revision
+ * and every catalog response changes its ETag. The counter is a row of catalog_versions that every instance
+ * moves after its own writes, so all instances answer with the same ETag. It is moved once per committed
+ * transaction however many catalog rows it wrote, so an import does not queue a move per row on the one row.
+ * The revision is read at most once a second, a write of another instance shows in the ETag that much later.
+ *
+ * With a private bucket the product images in a response are signed URLs that expire, so the ETag also
+ * carries the read URL window of S3Service and a client's copy is only current during the window it was made in.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Service
+public class CatalogRevision {
+
+    static final String CATALOG = "catalog";
+    static final Duration REVISION_TTL = Duration.ofSeconds(1);
+
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final S3Service s3Service;
+    private final TransactionTemplate transactionTemplate;
+    // Bound to a transaction that wrote the catalog, once its move is registered
+    private final Object pendingMove = new Object();
+    private volatile Cached cached;
+
+    @Autowired
+    public CatalogRevision(CatalogVersionRepository catalogVersionRepository, S3Service s3Service,
+                           PlatformTransactionManager transactionManager) {
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.s3Service = s3Service;
+        // The listener runs after the write committed, the move needs a transaction of its own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Moves the revision once the transaction that wrote a product, category or sub-category commits,
+     * or right away if the write ran without one. Later events of the same transaction add nothing.
+     *
+     * @param event any catalog event
+     */
+    @EventListener
+    public void on(CatalogEvent<?> event) {
+        Class<?> type = event.getType();
+        if (type != Product.class && type != Category.class && type != SubCategory.class) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(pendingMove)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(pendingMove, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(pendingMove);
+            }
+        });
+    }
+
+    /**
+     * @return the current strong ETag, quoted
+     */
+    public String etag() {
+        String tag = "catalog-" + revision();
+        if (s3Service.isPrivateBucket()) {
+            tag += "-" + s3Service.readUrlWindow();
+        }
+        return "\"" + tag + "\"";
+    }
+
+    private long revision() {
+        Cached current = cached;
+        long now = System.nanoTime();
+        if (current == null || now - current.readAt() > REVISION_TTL.toNanos()) {
+            Long revision = catalogVersionRepository.findRevision(CATALOG);
+            current = new Cached(revision == null ? 0 : revision, now);
+            cached = current;
+        }
+        return current.revision();
+    }
+
+    private void increment() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                if (catalogVersionRepository.increment(CATALOG, now) == 0) {
+                    catalogVersionRepository.saveAndFlush(new CatalogVersion.Builder()
+                            .setName(CATALOG).setRevision(1).setUpdatedAt(now).build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the row first
+            transactionTemplate.executeWithoutResult(status ->
+                    catalogVersionRepository.increment(CATALOG, LocalDateTime.now()));
+        } finally {
+            // This instance's own writes show in the next ETag
+            cached = null;
+        }
+    }
+
+    /**
+     * Answers a conditional GET. The ETag is read before the body is loaded, so a write that commits
+     * in between can only make the body newer than its tag, never older, and the next request refetches.
+     *
+     * @param ifNoneMatch the If-None-Match header of the request, may be null
+     * @param body        loads the response body, only called when the client's copy is stale
+     * @return 304 Not Modified if the client has the current revision, 404 Not Found if the body is null,
+     * otherwise 200 OK with the body, all carrying the ETag
+     */
+    public <T> ResponseEntity<T> conditional(String ifNoneMatch, Supplier<T> body) {
+        return conditional(ifNoneMatch, etag(), body);
+    }
+
+    /**
+     * Answers a conditional GET for a resource that has its own ETag.
+     *
+     * @param ifNoneMatch the If-None-Match header of the request, may be null
+     * @param etag        the quoted ETag of the current representation
+     * @param body        loads the response body, only called when the client's copy is stale
+     * @return 304 Not Modified if the client has the current representation, 404 Not Found if the body is null,
+     * otherwise 200 OK with the body, all carrying the ETag
+     */
+    public <T> ResponseEntity<T> conditional(String ifNoneMatch, String etag, Supplier<T> body) {
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        T value = body.get();
+        if (value == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // "*" matches any current representation, so only once the resource is known to exist
+        if (matchesAny(ifNoneMatch)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(value);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    // If-None-Match uses the weak comparison, so W/"x" matches "x"
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesAny(String ifNoneMatch) {
+        return ifNoneMatch != null && ifNoneMatch.trim().equals("*");
+    }
+
+    private record Cached(long revision, long readAt) {
+    }
+}
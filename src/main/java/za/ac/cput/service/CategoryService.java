@@ -1,29 +1,36 @@
 package za.ac.cput.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import za.ac.cput.config.CacheConfig;
 import za.ac.cput.domain.Category;
+import za.ac.cput.event.CatalogEvent;
 import za.ac.cput.repository.CategoryRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 @Transactional
 public class CategoryService implements ICategory {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Category create(Category category) {
-        return categoryRepository.save(category);
+        Category createdCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogEvent.created(Category.class, createdCategory.getId(), createdCategory));
+        return createdCategory;
     }
 
     @Override
@@ -32,6 +39,7 @@ public class CategoryService implements ICategory {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCT_SKUS}, allEntries = true) // cached products embed their categories
     public Category update(Category category) {
         if (category.getId() == null || !categoryRepository.existsById(category.getId())) {
             throw new IllegalArgumentException("Category with the given ID does not exist.");
@@ -45,15 +53,21 @@ public class CategoryService implements ICategory {
                 .setDeletedAt(category.getDeletedAt())
                 .build();
 
-        return categoryRepository.save(updatedCategory);
+        Category savedCategory = categoryRepository.save(updatedCategory);
+        eventPublisher.publishEvent(CatalogEvent.updated(Category.class, savedCategory.getId(), savedCategory, savedCategory.getDeletedAt()));
+        return savedCategory;
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCT_SKUS}, allEntries = true)
     public boolean delete(Long id) {
         categoryRepository.deleteById(id); // Use deleteById (standard JpaRepository method)
 
         // Check if the entity still exists after deletion
         boolean exists = categoryRepository.existsById(id);
+        if (!exists) {
+            eventPublisher.publishEvent(CatalogEvent.deleted(Category.class, id));
+        }
 
         // Return true if it no longer exists (successful deletion), otherwise return false
         return !exists;
@@ -101,7 +115,7 @@ public class CategoryService implements ICategory {
     }
 
     @Override
-    public Optional<Category> findByDeletedAtIsNotNull() {
+    public List<Category> findByDeletedAtIsNotNull() {
         return categoryRepository.findByDeletedAtIsNotNull();
     }
 }
@@ -0,0 +1,242 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.ac.cput.domain.Category;
+import za.ac.cput.domain.CategoryTreeNode;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.SubCategory;
+import za.ac.cput.enums.CatalogAction;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.CategoryRepository;
+import za.ac.cput.repository.ProductRepository;
+import za.ac.cput.repository.SubCategoryRepository;
+
+import java.util.*;
+
+/**
+ * CategoryTreeService.java
+ *
+ * Keeps the category, sub-category and product count tree used by the navigation menu in memory.
+ * The links between products and sub-categories are loaded once at startup and the counts are then
+ * adjusted from committed product, category and sub-category writes, so serving the tree never queries.
+ * Readers get an immutable snapshot that is swapped in after every change.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class CategoryTreeService {
+
+    private static final Comparator<CategoryTreeNode> BY_NAME = Comparator
+            .comparing(CategoryTreeNode::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(CategoryTreeNode::getId);
+
+    private final CategoryRepository categoryRepository;
+    private final SubCategoryRepository subCategoryRepository;
+    private final ProductRepository productRepository;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Guarded by this
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final Map<Long, String> subCategoryNames = new HashMap<>();
+    private final Map<Long, Long> categoryOfSubCategory = new HashMap<>();
+    private final Map<Long, Set<Long>> subCategoriesOfProduct = new HashMap<>();
+    private final Map<Long, Integer> subCategoryCounts = new HashMap<>();
+    private final Map<Long, Integer> categoryCounts = new HashMap<>();
+    private long version;
+
+    private volatile Snapshot snapshot = new Snapshot("\"tree-" + epoch + "-0\"", List.of());
+
+    @Autowired
+    public CategoryTreeService(CategoryRepository categoryRepository,
+                               SubCategoryRepository subCategoryRepository,
+                               ProductRepository productRepository) {
+        this.categoryRepository = categoryRepository;
+        this.subCategoryRepository = subCategoryRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * @return the current tree and its ETag
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Loads the categories, sub-categories and product links once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Category> categories = categoryRepository.findAll();
+        List<SubCategory> subCategories = subCategoryRepository.findAll();
+        List<ProductRepository.SubCategoryLink> links = productRepository.findAllSubCategoryLinks();
+
+        synchronized (this) {
+            categoryNames.clear();
+            subCategoryNames.clear();
+            categoryOfSubCategory.clear();
+            subCategoriesOfProduct.clear();
+            categories.forEach(category -> categoryNames.put(category.getId(), category.getName()));
+            subCategories.forEach(this::putSubCategory);
+            links.forEach(link -> subCategoriesOfProduct
+                    .computeIfAbsent(link.getProductId(), id -> new HashSet<>())
+                    .add(link.getSubCategoryId()));
+            recount();
+            publish();
+        }
+        log.info("Category tree loaded {} categories, {} sub-categories and {} products",
+                categories.size(), subCategories.size(), subCategoriesOfProduct.size());
+    }
+
+    /**
+     * Moves a committed product's counts to its current sub-categories.
+     *
+     * @param event the product event published by ProductService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProduct(CatalogEvent<Product> event) {
+        Set<Long> current = event.getAction() == CatalogAction.DELETED || event.getEntity() == null
+                ? Set.of()
+                : subCategoryIds(event.getEntity());
+        synchronized (this) {
+            Set<Long> previous = subCategoriesOfProduct.getOrDefault(event.getId(), Set.of());
+            if (previous.equals(current)) {
+                return;
+            }
+            count(previous, -1);
+            count(current, 1);
+            if (current.isEmpty()) {
+                subCategoriesOfProduct.remove(event.getId());
+            } else {
+                subCategoriesOfProduct.put(event.getId(), current);
+            }
+            publish();
+        }
+    }
+
+    /**
+     * Applies a committed category write.
+     *
+     * @param event the category event published by CategoryService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCategory(CatalogEvent<Category> event) {
+        if (event.getAction() == CatalogAction.DELETED || event.getEntity() == null) {
+            categoryNames.remove(event.getId());
+        } else {
+            categoryNames.put(event.getId(), event.getEntity().getName());
+        }
+        publish();
+    }
+
+    /**
+     * Applies a committed sub-category write. Moving a sub-category to another category recounts the categories.
+     *
+     * @param event the sub-category event published by SubCategoryService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSubCategory(CatalogEvent<SubCategory> event) {
+        Long previousCategory = categoryOfSubCategory.get(event.getId());
+        if (event.getAction() == CatalogAction.DELETED || event.getEntity() == null) {
+            subCategoryNames.remove(event.getId());
+            categoryOfSubCategory.remove(event.getId());
+        } else {
+            putSubCategory(event.getEntity());
+        }
+        if (!Objects.equals(previousCategory, categoryOfSubCategory.get(event.getId()))) {
+            recount();
+        }
+        publish();
+    }
+
+    private Set<Long> subCategoryIds(Product product) {
+        List<SubCategory> subCategories = product.getSubCategory();
+        if (subCategories == null) {
+            return Set.of();
+        }
+        if (!Hibernate.isInitialized(subCategories)) {
+            return new HashSet<>(productRepository.findSubCategoryIds(product.getId()));
+        }
+        Set<Long> ids = new HashSet<>();
+        subCategories.forEach(subCategory -> ids.add(subCategory.getId()));
+        return ids;
+    }
+
+    // Callers hold the lock for the methods below
+
+    private void putSubCategory(SubCategory subCategory) {
+        subCategoryNames.put(subCategory.getId(), subCategory.getName());
+        if (subCategory.getCategory() != null) {
+            categoryOfSubCategory.put(subCategory.getId(), subCategory.getCategory().getId());
+        } else {
+            categoryOfSubCategory.remove(subCategory.getId());
+        }
+    }
+
+    private void count(Set<Long> subCategoryIds, int delta) {
+        Set<Long> categoryIds = new HashSet<>();
+        for (Long subCategoryId : subCategoryIds) {
+            subCategoryCounts.merge(subCategoryId, delta, Integer::sum);
+            Long categoryId = categoryOfSubCategory.get(subCategoryId);
+            if (categoryId != null) {
+                categoryIds.add(categoryId);
+            }
+        }
+        categoryIds.forEach(categoryId -> categoryCounts.merge(categoryId, delta, Integer::sum));
+    }
+
+    private void recount() {
+        subCategoryCounts.clear();
+        categoryCounts.clear();
+        subCategoriesOfProduct.values().forEach(subCategoryIds -> count(subCategoryIds, 1));
+    }
+
+    private void publish() {
+        Map<Long, List<CategoryTreeNode>> children = new HashMap<>();
+        subCategoryNames.forEach((id, name) -> {
+            Long categoryId = categoryOfSubCategory.get(id);
+            if (categoryId != null) {
+                children.computeIfAbsent(categoryId, k -> new ArrayList<>()).add(CategoryTreeNode.builder()
+                        .id(id)
+                        .name(name)
+                        .productCount(subCategoryCounts.getOrDefault(id, 0))
+                        .build());
+            }
+        });
+
+        List<CategoryTreeNode> tree = new ArrayList<>(categoryNames.size());
+        categoryNames.forEach((id, name) -> {
+            List<CategoryTreeNode> subCategories = children.getOrDefault(id, new ArrayList<>());
+            subCategories.sort(BY_NAME);
+            tree.add(CategoryTreeNode.builder()
+                    .id(id)
+                    .name(name)
+                    .productCount(categoryCounts.getOrDefault(id, 0))
+                    .subCategories(List.copyOf(subCategories))
+                    .build());
+        });
+        tree.sort(BY_NAME);
+
+        version++;
+        snapshot = new Snapshot("\"tree-" + epoch + "-" + version + "\"", List.copyOf(tree));
+    }
+
+    /**
+     * An immutable version of the tree.
+     *
+     * @param etag  the quoted ETag of this version
+     * @param nodes the categories, each with its sub-categories
+     */
+    public record Snapshot(String etag, List<CategoryTreeNode> nodes) {
+    }
+}
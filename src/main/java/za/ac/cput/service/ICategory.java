@@ -6,7 +6,6 @@ import za.ac.cput.domain.Category;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * ICategoryService.java
@@ -77,5 +76,5 @@ public interface ICategory extends IService<Category, Long> {
      *
      * @return a list of categories that have been marked as deleted
      */
-    Optional<Category> findByDeletedAtIsNotNull();
+    List<Category> findByDeletedAtIsNotNull();
 }
@@ -1,7 +1,13 @@
 package za.ac.cput.service;
 
+import za.ac.cput.domain.PriceSummary;
+import za.ac.cput.domain.PricedProduct;
 import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductPage;
+import za.ac.cput.domain.TrendingProduct;
+import za.ac.cput.enums.TrendingWindow;
 
+import java.util.List;
 
 
 /**
@@ -13,5 +19,60 @@ import za.ac.cput.domain.Product;
 
 public interface IProduct extends IService<Product, Long>{
 
+    /**
+     * Reads one page of products using keyset pagination.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param size   the requested page size, clamped to the configured maximum
+     * @return the page of products and the cursor of the next page
+     */
+    ProductPage findPage(String cursor, Integer size);
+
+    /**
+     * Searches the name, summary and description of every product.
+     *
+     * @param query the free text query
+     * @param limit the maximum number of products to return
+     * @return the matching products, best match first
+     */
+    List<Product> search(String query, Integer limit);
+
+    /**
+     * Finds the products most often bought, carted or wished for together with a product.
+     *
+     * @param id    the ID of the product
+     * @param limit the maximum number of products to return
+     * @return the related products, most related first, empty if none are known
+     */
+    List<Product> findRelated(Long id, Integer limit);
+
+    /**
+     * Finds the products viewed and added to carts the most within a window.
+     *
+     * @param window how far back to count
+     * @param limit  the maximum number of products to return
+     * @return the trending products, highest score first
+     */
+    List<TrendingProduct> findTrending(TrendingWindow window, Integer limit);
+
+    /**
+     * Finds the products with a SKU priced within a range.
+     *
+     * @param minPrice    the lowest price, inclusive, or null
+     * @param maxPrice    the highest price, inclusive, or null
+     * @param inStockOnly true to only match SKUs that have stock
+     * @param limit       the maximum number of products to return
+     * @return the matching products, cheapest first
+     * @throws IllegalArgumentException if the minimum is above the maximum
+     */
+    List<PricedProduct> findByPriceRange(Double minPrice, Double maxPrice, boolean inStockOnly, Integer limit);
+
+    /**
+     * Reads the price range and stock of a product across its SKUs.
+     *
+     * @param id the ID of the product
+     * @return the summary, or null if the product has no SKUs
+     */
+    PriceSummary findPriceSummary(Long id);
 }
 
@@ -1,6 +1,10 @@
 package za.ac.cput.service;
 
 import za.ac.cput.domain.ProductSku;
+import za.ac.cput.domain.SkuUpdate;
+import za.ac.cput.domain.SkuUpdateResult;
+
+import java.util.List;
 
 /**
  * IProductSku.java
@@ -12,4 +16,19 @@ import za.ac.cput.domain.ProductSku;
 
 public interface IProductSku extends IService<ProductSku, Long>{
 
+    /**
+     * Finds a SKU by its unique SKU code.
+     *
+     * @param sku the SKU code
+     * @return the SKU, or null if there is no SKU with that code
+     */
+    ProductSku findBySku(String sku);
+
+    /**
+     * Sets the price and/or quantity of many SKUs, identified by SKU code, in one transaction.
+     *
+     * @param updates the new values, one per SKU code
+     * @return the number of changed and unchanged SKUs and the codes that were unknown or invalid
+     */
+    SkuUpdateResult bulkUpdate(List<SkuUpdate> updates);
 }
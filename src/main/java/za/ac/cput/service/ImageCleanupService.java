@@ -0,0 +1,219 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import za.ac.cput.domain.ProductImageVariant;
+import za.ac.cput.repository.ProductImageVariantRepository;
+import za.ac.cput.repository.ProductRepository;
+import za.ac.cput.repository.UserRepository;
+import za.ac.cput.util.S3Keys;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ImageCleanupService.java
+ *
+ * Removes product images nothing points at any more. Deleting a product leaves its cover, images and their
+ * variants in the bucket, so on a timer the bucket listing is streamed page by page and every object is
+ * checked against the images still referenced by products, soft-deleted ones included, and the user avatars.
+ * Orphans are deleted with DeleteObjects, up to 1000 keys a request, with a bounded number of requests in flight.
+ *
+ * Only the prefixes in store.images.cleanup.prefixes are scanned, products/ and variants/ unless set, since the
+ * bucket also holds uploads this job knows nothing about. A blank prefix would scan the whole bucket and is refused.
+ *
+ * Objects younger than the grace period are kept, they may be uploads whose product is not saved yet.
+ * The job is off unless store.images.cleanup.enabled is set, it deletes from the bucket for good.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class ImageCleanupService {
+
+    // The most keys S3 accepts in one DeleteObjects request
+    static final int MAX_KEYS_PER_DELETE = 1000;
+
+    private final S3Client s3Client;
+    private final ProductRepository productRepository;
+    private final ProductImageVariantRepository productImageVariantRepository;
+    private final UserRepository userRepository;
+    private final String bucketName;
+    private final String endpoint;
+    private final boolean enabled;
+    private final List<String> prefixes;
+    private final Duration gracePeriod;
+    private final int concurrency;
+
+    @Autowired
+    public ImageCleanupService(S3Client s3Client,
+                               ProductRepository productRepository,
+                               ProductImageVariantRepository productImageVariantRepository,
+                               UserRepository userRepository,
+                               @Value("${aws.s3.bucket}") String bucketName,
+                               @Value("${aws.s3.endpoint:}") String endpoint,
+                               @Value("${store.images.cleanup.enabled:false}") boolean enabled,
+                               @Value("${store.images.cleanup.prefixes:products/,variants/}") List<String> prefixes,
+                               @Value("${store.images.cleanup.grace-period:24h}") Duration gracePeriod,
+                               @Value("${store.images.cleanup.concurrency:4}") int concurrency) {
+        this.s3Client = s3Client;
+        this.productRepository = productRepository;
+        this.productImageVariantRepository = productImageVariantRepository;
+        this.userRepository = userRepository;
+        this.bucketName = bucketName;
+        this.endpoint = endpoint;
+        this.enabled = enabled;
+        if (prefixes.isEmpty() || prefixes.stream().anyMatch(prefix -> prefix == null || prefix.isBlank())) {
+            throw new IllegalArgumentException("store.images.cleanup.prefixes must not be empty or hold a blank prefix");
+        }
+        this.prefixes = List.copyOf(prefixes);
+        this.gracePeriod = gracePeriod;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    @Scheduled(fixedDelayString = "${store.images.cleanup.interval:86400000}",
+            initialDelayString = "${store.images.cleanup.interval:86400000}")
+    public void scheduledCleanUp() {
+        if (enabled) {
+            cleanUp();
+        }
+    }
+
+    /**
+     * Deletes the objects under the prefixes no product or user points at, and the variant rows of originals
+     * that are gone.
+     *
+     * @return the number of objects scanned, deleted and failed to delete
+     */
+    public Result cleanUp() {
+        Set<String> referenced = new HashSet<>();
+        List<String> images = new ArrayList<>(productRepository.findAllReferencedImages());
+        images.addAll(userRepository.findAllAvatars());
+        for (String image : images) {
+            String key = S3Keys.keyOf(image, bucketName, endpoint);
+            if (key != null) {
+                referenced.add(key);
+            }
+        }
+        Instant cutoff = Instant.now().minus(gracePeriod);
+
+        // Variants are kept while their original is, the rows of the rest go once they are past the grace period
+        List<ProductImageVariant> orphanVariants = new ArrayList<>();
+        for (ProductImageVariant variant : productImageVariantRepository.findAll()) {
+            if (referenced.contains(variant.getSourceKey())) {
+                referenced.add(variant.getKey());
+            } else if (variant.getCreatedAt() == null
+                    || variant.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().isBefore(cutoff)) {
+                orphanVariants.add(variant);
+            }
+        }
+
+        Result result = deleteOrphans(referenced, cutoff);
+        if (!orphanVariants.isEmpty()) {
+            productImageVariantRepository.deleteAllInBatch(orphanVariants);
+        }
+        log.info("Image cleanup scanned {} objects, deleted {}, failed to delete {}, removed {} variant rows",
+                result.scanned(), result.deleted(), result.failed(), orphanVariants.size());
+        return result;
+    }
+
+    /**
+     * Streams the listing of every prefix and deletes every object that is not referenced and was last modified
+     * before the cutoff.
+     *
+     * @param referenced the keys to keep
+     * @param cutoff     objects modified at or after this are kept
+     * @return the number of objects scanned, deleted and failed to delete
+     */
+    Result deleteOrphans(Set<String> referenced, Instant cutoff) {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        // Bounds the batches in flight, so the listing is not read far ahead of the deletes
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicLong deleted = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long scanned = 0;
+        try {
+            List<String> batch = new ArrayList<>(MAX_KEYS_PER_DELETE);
+            for (String prefix : prefixes) {
+                for (S3Object object : s3Client.listObjectsV2Paginator(r -> r.bucket(bucketName).prefix(prefix)).contents()) {
+                    scanned++;
+                    if (referenced.contains(object.key())
+                            || object.lastModified() == null || !object.lastModified().isBefore(cutoff)) {
+                        continue;
+                    }
+                    batch.add(object.key());
+                    if (batch.size() == MAX_KEYS_PER_DELETE) {
+                        submit(executor, inFlight, batch, deleted, failed);
+                        batch = new ArrayList<>(MAX_KEYS_PER_DELETE);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(executor, inFlight, batch, deleted, failed);
+            }
+            // Every permit back means every batch is done
+            inFlight.acquire(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Image cleanup was interrupted, the next run continues it");
+        } finally {
+            executor.shutdown();
+        }
+        return new Result(scanned, deleted.get(), failed.get());
+    }
+
+    private void submit(ExecutorService executor, Semaphore inFlight, List<String> keys,
+                        AtomicLong deleted, AtomicLong failed) throws InterruptedException {
+        inFlight.acquire();
+        executor.execute(() -> {
+            try {
+                List<S3Error> errors = delete(keys);
+                for (S3Error error : errors) {
+                    log.warn("Could not delete orphaned image {}: {}", error.key(), error.message());
+                }
+                deleted.addAndGet(keys.size() - errors.size());
+                failed.addAndGet(errors.size());
+            } catch (RuntimeException e) {
+                log.warn("Could not delete a batch of {} orphaned images, the next run retries it", keys.size(), e);
+                failed.addAndGet(keys.size());
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    // Quiet mode, so the response lists only the keys that could not be deleted
+    private List<S3Error> delete(List<String> keys) {
+        List<ObjectIdentifier> objects = keys.stream()
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .toList();
+        DeleteObjectsResponse response = s3Client.deleteObjects(r -> r.bucket(bucketName)
+                .delete(d -> d.objects(objects).quiet(true)));
+        return response.hasErrors() ? response.errors() : List.of();
+    }
+
+    /**
+     * The outcome of a cleanup run.
+     */
+    public record Result(long scanned, long deleted, long failed) {
+    }
+}
@@ -0,0 +1,280 @@
+package za.ac.cput.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.ac.cput.config.CacheConfig;
+import za.ac.cput.domain.StockReservation;
+import za.ac.cput.factory.StockReservationFactory;
+import za.ac.cput.repository.ProductSkuRepository;
+import za.ac.cput.repository.StockReservationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * InventoryService.java
+ *
+ * Reserves, commits and releases SKU stock.
+ * Stock is taken with a single conditional UPDATE (quantity >= n), so the database decides who gets the
+ * last unit and no row is locked for reading. A reservation row records what was taken until the order
+ * is paid (commit) or abandoned (release), reservations that are neither are released when they expire.
+ *
+ * For hot SKUs a lease size can be configured: the first reservation takes a block of units off the row
+ * and later reservations are served from an in-memory counter with compare-and-set, so they do not all
+ * queue on the same row. Leased units are returned to the row on a timer and at shutdown.
+ *
+ * Like reserved units, leased ones are not on the row, and any instance may hold some. So stock is never
+ * set outright: a new quantity is applied as the change from the quantity that was read, see adjust.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+@Transactional
+public class InventoryService {
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final ProductSkuRepository productSkuRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+
+    // SKU id -> units taken off the row and not yet reserved
+    private final Map<Long, AtomicInteger> leases = new ConcurrentHashMap<>();
+
+    @Value("${store.inventory.reservation-ttl:15m}")
+    private Duration reservationTtl;
+
+    @Value("${store.inventory.lease-size:0}")
+    private int leaseSize;
+
+    @Autowired
+    public InventoryService(ProductSkuRepository productSkuRepository,
+                            StockReservationRepository stockReservationRepository,
+                            CacheManager cacheManager,
+                            PlatformTransactionManager transactionManager) {
+        this.productSkuRepository = productSkuRepository;
+        this.stockReservationRepository = stockReservationRepository;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reserves stock of a SKU.
+     *
+     * @param productSkuId the ID of the SKU
+     * @param quantity     the number of units to reserve
+     * @return the reservation, or null if there is not enough stock
+     * @throws IllegalArgumentException if the quantity is not positive
+     */
+    public StockReservation reserve(Long productSkuId, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = StockReservationFactory.createStockReservation(
+                null, productSkuId, quantity, now.plus(reservationTtl), now);
+
+        boolean leased = takeFromLease(productSkuId, quantity);
+        if (!leased && !takeFromRow(productSkuId, quantity)) {
+            return null;
+        }
+        try {
+            return stockReservationRepository.save(reservation);
+        } catch (RuntimeException e) {
+            // Within a transaction the rollback returns them, see takeFromLease
+            if (leased && !TransactionSynchronizationManager.isSynchronizationActive()) {
+                lease(productSkuId).addAndGet(quantity);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Commits a reservation once the order is paid, the stock stays taken.
+     *
+     * @param reservationId the ID of the reservation
+     * @return true if the reservation was committed, false if it no longer exists
+     */
+    public boolean commit(Long reservationId) {
+        return stockReservationRepository.deleteReservation(reservationId) == 1;
+    }
+
+    /**
+     * Releases a reservation and puts its stock back on the SKU.
+     *
+     * @param reservationId the ID of the reservation
+     * @return true if the reservation was released, false if it no longer exists
+     */
+    public boolean release(Long reservationId) {
+        StockReservation reservation = stockReservationRepository.findById(reservationId).orElse(null);
+        if (reservation == null) {
+            log.warn("Attempt to release a non-existent stock reservation with ID: " + reservationId);
+            return false;
+        }
+        return release(reservation);
+    }
+
+    /**
+     * Reads the stock that can still be reserved, including units leased by this instance.
+     *
+     * @param productSkuId the ID of the SKU
+     * @return the available quantity, or null if there is no such SKU
+     */
+    @Transactional(readOnly = true)
+    public Integer available(Long productSkuId) {
+        Integer quantity = productSkuRepository.findQuantityById(productSkuId);
+        if (quantity == null) {
+            return null;
+        }
+        AtomicInteger lease = leases.get(productSkuId);
+        return lease == null ? quantity : quantity + lease.get();
+    }
+
+    /**
+     * Releases reservations that expired without being committed.
+     */
+    @Scheduled(fixedDelayString = "${store.inventory.sweep-interval:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void releaseExpired() {
+        int released = 0;
+        List<StockReservation> expired;
+        do {
+            expired = transactionTemplate.execute(status -> {
+                List<StockReservation> page = stockReservationRepository.findByExpiresAtBeforeOrderByExpiresAt(
+                        LocalDateTime.now(), PageRequest.of(0, SWEEP_BATCH_SIZE));
+                page.forEach(this::release);
+                return page;
+            });
+            released += expired == null ? 0 : expired.size();
+        } while (expired != null && expired.size() == SWEEP_BATCH_SIZE);
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+    }
+
+    /**
+     * Returns every leased unit to its SKU row, so the database quantity is accurate again.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${store.inventory.lease-flush-interval:5000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flushLeases() {
+        leases.forEach((productSkuId, lease) -> {
+            int units = lease.getAndSet(0);
+            if (units == 0) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        productSkuRepository.incrementQuantity(productSkuId, units));
+                evict(productSkuId);
+            } catch (RuntimeException e) {
+                lease.addAndGet(units);
+                log.warn("Could not return {} leased units to SKU {}", units, productSkuId, e);
+            }
+        });
+    }
+
+    /**
+     * Changes the stock of a SKU by a number of units. Units reserved or leased meanwhile stay taken,
+     * and leased units come back on top of the change when they are returned.
+     *
+     * @param productSkuId the ID of the SKU
+     * @param units        the number of units to add, negative to remove
+     * @return true if the stock was changed, false if there is no such SKU or fewer units are left than removed
+     */
+    public boolean adjust(Long productSkuId, int units) {
+        if (productSkuRepository.adjustQuantity(productSkuId, units) == 0) {
+            return false;
+        }
+        evict(productSkuId);
+        return true;
+    }
+
+    private boolean release(StockReservation reservation) {
+        if (stockReservationRepository.deleteReservation(reservation.getId()) == 0) {
+            return false;
+        }
+        productSkuRepository.incrementQuantity(reservation.getProductSkuId(), reservation.getQuantity());
+        evict(reservation.getProductSkuId());
+        return true;
+    }
+
+    private boolean takeFromLease(Long productSkuId, int quantity) {
+        AtomicInteger lease = leaseSize > 0 ? leases.get(productSkuId) : null;
+        if (lease == null) {
+            return false;
+        }
+        int units;
+        do {
+            units = lease.get();
+            if (units < quantity) {
+                return false;
+            }
+        } while (!lease.compareAndSet(units, units - quantity));
+        // The units are already off the row and the reservation is only inserted at the flush or commit,
+        // so they go back to the lease if the transaction rolls back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        lease.addAndGet(quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private boolean takeFromRow(Long productSkuId, int quantity) {
+        // With leasing on, take the next block in the same statement. The block is only handed out
+        // once this transaction commits, so a rollback can never leave units in the lease that are back on the row.
+        if (leaseSize > 0 && productSkuRepository.decrementQuantity(productSkuId, quantity + leaseSize) == 1) {
+            AtomicInteger lease = lease(productSkuId);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lease.addAndGet(leaseSize);
+                    }
+                });
+            } else {
+                lease.addAndGet(leaseSize);
+            }
+        } else if (productSkuRepository.decrementQuantity(productSkuId, quantity) == 0) {
+            return false;
+        }
+        evict(productSkuId);
+        return true;
+    }
+
+    private AtomicInteger lease(Long productSkuId) {
+        return leases.computeIfAbsent(productSkuId, id -> new AtomicInteger());
+    }
+
+    private void evict(Long productSkuId) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_SKUS);
+        if (cache != null) {
+            cache.evict(productSkuId);
+        }
+    }
+}
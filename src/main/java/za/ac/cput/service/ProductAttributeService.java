@@ -2,9 +2,15 @@ package za.ac.cput.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import za.ac.cput.config.CacheConfig;
 import za.ac.cput.domain.ProductAttribute;
+import za.ac.cput.event.CatalogEvent;
 import za.ac.cput.repository.ProductAttributeRepository;
 
 import java.time.LocalDateTime;
@@ -24,23 +30,33 @@ import java.util.List;
 public class ProductAttributeService implements IProductAttribute {
 
     private final ProductAttributeRepository productAttributeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ProductAttributeService(ProductAttributeRepository productAttributeRepository) {
+    public ProductAttributeService(ProductAttributeRepository productAttributeRepository,
+                                   ApplicationEventPublisher eventPublisher) {
         this.productAttributeRepository = productAttributeRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public ProductAttribute create(ProductAttribute productAttribute) {
-        return productAttributeRepository.save(productAttribute);
+        ProductAttribute createdProductAttribute = productAttributeRepository.save(productAttribute);
+        eventPublisher.publishEvent(CatalogEvent.created(ProductAttribute.class, createdProductAttribute.getId(), createdProductAttribute));
+        return createdProductAttribute;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_ATTRIBUTES, key = "#id", unless = "#result == null")
     public ProductAttribute read(Long id) {
         return productAttributeRepository.findById(id).orElse(null);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_ATTRIBUTES, key = "#productAttribute.id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_SKUS, allEntries = true) // cached SKUs embed their attributes
+    })
     public ProductAttribute update(ProductAttribute productAttribute) {
         ProductAttribute existingProductAttribute = productAttributeRepository.findById(productAttribute.getId()).orElse(null);
 
@@ -53,18 +69,27 @@ public class ProductAttributeService implements IProductAttribute {
                     .setCreatedAt(existingProductAttribute.getCreatedAt())
                     .setUpdatedAt(LocalDateTime.now())
                     .build();
-            return productAttributeRepository.save(updatedProductAttribute);
+            ProductAttribute savedProductAttribute = productAttributeRepository.save(updatedProductAttribute);
+            eventPublisher.publishEvent(CatalogEvent.updated(ProductAttribute.class, savedProductAttribute.getId(), savedProductAttribute));
+            return savedProductAttribute;
         }
         log.warn("Attempt to update a non-existent product attribute with ID: {}", productAttribute.getId());
         return null;
     }
 
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_ATTRIBUTES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_SKUS, allEntries = true)
+    })
     public boolean delete(Long id) {
         productAttributeRepository.deleteById(id);
 
         // Check if the entity still exists after deletion
         boolean exists = productAttributeRepository.existsById(id);
+        if (!exists) {
+            eventPublisher.publishEvent(CatalogEvent.deleted(ProductAttribute.class, id));
+        }
 
         // Return false if entity was deleted successfully, otherwise return true
         return !exists;
@@ -0,0 +1,134 @@
+package za.ac.cput.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import za.ac.cput.config.AsyncConfig;
+import za.ac.cput.domain.*;
+import za.ac.cput.repository.ProductAttributeRepository;
+import za.ac.cput.repository.ProductSkuRepository;
+import za.ac.cput.repository.ReviewRepository;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * ProductDetailService.java
+ *
+ * Builds the product page in one call: the product, its SKUs and its rating.
+ * The three lookups are independent, so they run concurrently on the catalog executor. The product is
+ * served from the product cache, the SKUs are read as one scalar query with their attributes resolved
+ * from the CatalogRegistry, and the rating is one grouped count. A page therefore costs at most
+ * three queries that overlap, instead of three round trips from the browser.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Service
+public class ProductDetailService {
+
+    private final IProduct productService;
+    private final ProductSkuRepository productSkuRepository;
+    private final ReviewRepository reviewRepository;
+    private final ProductAttributeRepository productAttributeRepository;
+    private final CatalogRegistry catalogRegistry;
+    private final Executor executor;
+
+    @Autowired
+    public ProductDetailService(IProduct productService,
+                                ProductSkuRepository productSkuRepository,
+                                ReviewRepository reviewRepository,
+                                ProductAttributeRepository productAttributeRepository,
+                                CatalogRegistry catalogRegistry,
+                                @Qualifier(AsyncConfig.CATALOG_EXECUTOR) Executor executor) {
+        this.productService = productService;
+        this.productSkuRepository = productSkuRepository;
+        this.reviewRepository = reviewRepository;
+        this.productAttributeRepository = productAttributeRepository;
+        this.catalogRegistry = catalogRegistry;
+        this.executor = executor;
+    }
+
+    /**
+     * Reads everything the product page shows.
+     *
+     * @param id the ID of the product
+     * @return the product detail, or null if there is no such product
+     */
+    public ProductDetail read(Long id) {
+        CompletableFuture<Product> product = CompletableFuture.supplyAsync(() -> productService.read(id), executor);
+        CompletableFuture<List<SkuDetail>> skus = CompletableFuture.supplyAsync(() -> findSkus(id), executor);
+        CompletableFuture<RatingSummary> rating = CompletableFuture.supplyAsync(() -> summarizeRatings(id), executor);
+        try {
+            CompletableFuture.allOf(product, skus, rating).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        if (product.join() == null) {
+            return null;
+        }
+        return ProductDetail.builder()
+                .product(product.join())
+                .skus(skus.join())
+                .rating(rating.join())
+                .build();
+    }
+
+    private List<SkuDetail> findSkus(Long productId) {
+        List<ProductSkuRepository.SkuRow> rows = productSkuRepository.findRowsByProductId(productId);
+
+        // The registry knows every attribute unless it was written by another instance since startup
+        Map<Long, ProductAttribute> attributes = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (ProductSkuRepository.SkuRow row : rows) {
+            for (Long attributeId : List.of(row.getSizeAttributeId(), row.getColorAttributeId(), row.getBrandAttributeId())) {
+                ProductAttribute attribute = catalogRegistry.attribute(attributeId);
+                if (attribute != null) {
+                    attributes.put(attributeId, attribute);
+                } else {
+                    missing.add(attributeId);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            productAttributeRepository.findAllById(missing).forEach(attribute -> attributes.put(attribute.getId(), attribute));
+        }
+
+        List<SkuDetail> skus = new ArrayList<>(rows.size());
+        for (ProductSkuRepository.SkuRow row : rows) {
+            skus.add(SkuDetail.builder()
+                    .id(row.getId())
+                    .sku(row.getSku())
+                    .price(row.getPrice())
+                    .quantity(row.getQuantity())
+                    .size(attributes.get(row.getSizeAttributeId()))
+                    .color(attributes.get(row.getColorAttributeId()))
+                    .brand(attributes.get(row.getBrandAttributeId()))
+                    .build());
+        }
+        return skus;
+    }
+
+    private RatingSummary summarizeRatings(Long productId) {
+        Map<Integer, Long> distribution = new TreeMap<>();
+        long count = 0;
+        long total = 0;
+        for (ReviewRepository.RatingCount row : reviewRepository.countByRating(productId)) {
+            distribution.put(row.getRating(), row.getReviewCount());
+            count += row.getReviewCount();
+            total += (long) row.getRating() * row.getReviewCount();
+        }
+        return RatingSummary.builder()
+                .reviewCount(count)
+                .averageRating(count == 0 ? 0 : (double) total / count)
+                .distribution(distribution)
+                .build();
+    }
+}
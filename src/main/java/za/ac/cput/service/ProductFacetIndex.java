@@ -0,0 +1,337 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.ac.cput.domain.FacetResult;
+import za.ac.cput.domain.ProductAttribute;
+import za.ac.cput.domain.ProductSku;
+import za.ac.cput.enums.CatalogAction;
+import za.ac.cput.enums.ProductAttributeType;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.ProductSkuRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ProductFacetIndex.java
+ *
+ * In-memory facet index over the size, color and brand attributes of every SKU.
+ * Each SKU gets a dense ordinal and every attribute value keeps a bitmap of the SKU ordinals
+ * that use it, so a multi-facet filter is a handful of bitmap unions and intersections.
+ * The index is loaded at startup and kept up to date from committed SKU writes. Writes that arrive while
+ * the load reads the table are applied and also recorded, then replayed once the rows are loaded.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class ProductFacetIndex {
+
+    private static final ProductAttributeType[] TYPES = ProductAttributeType.values();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductSkuRepository productSkuRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // SKU ordinals, freed ordinals are reused so the bitmaps stay dense
+    private final Map<Long, Integer> ordinalBySkuId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private int[] productOrdinals = new int[INITIAL_CAPACITY];
+    private final long[][] attributeIds = new long[TYPES.length][INITIAL_CAPACITY];
+
+    // Product ordinals, used to count distinct products in a bitmap of SKUs
+    private final Map<Long, Integer> productOrdinalById = new HashMap<>();
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private int[] productSkuCounts = new int[INITIAL_CAPACITY];
+    private final BitSet liveProducts = new BitSet();
+
+    private final EnumMap<ProductAttributeType, Map<Long, BitSet>> bitmaps = new EnumMap<>(ProductAttributeType.class);
+
+    // Writes applied while a rebuild reads the table, null when no rebuild runs; guarded by the write lock
+    private List<Runnable> replay;
+    // One rebuild at a time, they would share the replay list
+    private final Object rebuildLock = new Object();
+
+    @Autowired
+    public ProductFacetIndex(ProductSkuRepository productSkuRepository) {
+        this.productSkuRepository = productSkuRepository;
+        for (ProductAttributeType type : TYPES) {
+            bitmaps.put(type, new HashMap<>());
+        }
+    }
+
+    /**
+     * Loads every SKU into the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            write(() -> replay = new ArrayList<>());
+            try {
+                List<ProductSkuRepository.SkuAttributeIds> rows = productSkuRepository.findAllAttributeIds();
+                write(() -> {
+                    clear();
+                    for (ProductSkuRepository.SkuAttributeIds row : rows) {
+                        add(row.getId(), row.getProductId(),
+                                row.getSizeAttributeId(), row.getColorAttributeId(), row.getBrandAttributeId());
+                    }
+                    replay.forEach(Runnable::run);
+                });
+                log.info("Facet index loaded {} SKUs", rows.size());
+            } finally {
+                write(() -> replay = null);
+            }
+        }
+    }
+
+    /**
+     * Applies a committed SKU write to the index.
+     *
+     * @param event the SKU event published by ProductSkuService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CatalogEvent<ProductSku> event) {
+        if (event.getAction() == CatalogAction.DELETED || event.getEntity() == null) {
+            remove(event.getId());
+        } else {
+            index(event.getEntity());
+        }
+    }
+
+    /**
+     * Adds a SKU to the index, replacing what was indexed for it before.
+     *
+     * @param productSku the SKU to index
+     */
+    public void index(ProductSku productSku) {
+        if (productSku == null || productSku.getId() == null || productSku.getProduct() == null) {
+            return;
+        }
+        Long skuId = productSku.getId();
+        Long productId = productSku.getProduct().getId();
+        Long sizeId = idOf(productSku.getSizeAttribute());
+        Long colorId = idOf(productSku.getColorAttribute());
+        Long brandId = idOf(productSku.getBrandAttribute());
+        apply(() -> {
+            removeOrdinal(skuId);
+            add(skuId, productId, sizeId, colorId, brandId);
+        });
+    }
+
+    /**
+     * Removes a SKU from the index.
+     *
+     * @param skuId the ID of the SKU to remove
+     */
+    public void remove(Long skuId) {
+        apply(() -> removeOrdinal(skuId));
+    }
+
+    /**
+     * Filters SKUs by attribute values. Values of the same type are OR-ed, types are AND-ed,
+     * so size 9 or 10, in black, from brand X is {@code filter([9, 10], [black], [X])}.
+     * Counts are disjunctive: the count of a value is computed with every other type's filter applied
+     * but not its own, which is what a shopper sees next to each unticked checkbox.
+     *
+     * @param sizeIds  the size attribute ids to match, empty or null for any size
+     * @param colorIds the color attribute ids to match, empty or null for any color
+     * @param brandIds the brand attribute ids to match, empty or null for any brand
+     * @return the matching product ids and the per-value product counts
+     */
+    public FacetResult filter(Collection<Long> sizeIds, Collection<Long> colorIds, Collection<Long> brandIds) {
+        EnumMap<ProductAttributeType, Collection<Long>> selected = new EnumMap<>(ProductAttributeType.class);
+        selected.put(ProductAttributeType.SIZE, sizeIds);
+        selected.put(ProductAttributeType.COLOR, colorIds);
+        selected.put(ProductAttributeType.BRAND, brandIds);
+
+        lock.readLock().lock();
+        try {
+            EnumMap<ProductAttributeType, BitSet> unions = new EnumMap<>(ProductAttributeType.class);
+            for (ProductAttributeType type : TYPES) {
+                Collection<Long> ids = selected.get(type);
+                if (ids != null && !ids.isEmpty()) {
+                    unions.put(type, union(type, ids));
+                }
+            }
+
+            BitSet match = (BitSet) live.clone();
+            unions.values().forEach(match::and);
+
+            EnumMap<ProductAttributeType, Map<Long, Integer>> counts = new EnumMap<>(ProductAttributeType.class);
+            for (ProductAttributeType type : TYPES) {
+                BitSet base = (BitSet) live.clone();
+                unions.forEach((other, union) -> {
+                    if (other != type) {
+                        base.and(union);
+                    }
+                });
+                Map<Long, Integer> valueCounts = new HashMap<>();
+                bitmaps.get(type).forEach((attributeId, bitmap) -> {
+                    BitSet skus = (BitSet) bitmap.clone();
+                    skus.and(base);
+                    int products = products(skus).cardinality();
+                    if (products > 0) {
+                        valueCounts.put(attributeId, products);
+                    }
+                });
+                counts.put(type, valueCounts);
+            }
+
+            BitSet matchingProducts = products(match);
+            List<Long> ids = new ArrayList<>(matchingProducts.cardinality());
+            for (int p = matchingProducts.nextSetBit(0); p >= 0; p = matchingProducts.nextSetBit(p + 1)) {
+                ids.add(productIds[p]);
+            }
+            Collections.sort(ids);
+
+            return FacetResult.builder()
+                    .productIds(ids)
+                    .skuCount(match.cardinality())
+                    .counts(counts)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Runnable change) {
+        write(() -> {
+            change.run();
+            if (replay != null) {
+                replay.add(change);
+            }
+        });
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock for the methods below
+
+    private void clear() {
+        ordinalBySkuId.clear();
+        live.clear();
+        productOrdinalById.clear();
+        liveProducts.clear();
+        bitmaps.values().forEach(Map::clear);
+    }
+
+    private void add(Long skuId, Long productId, Long sizeId, Long colorId, Long brandId) {
+        if (skuId == null || productId == null) {
+            return;
+        }
+        int ordinal = live.nextClearBit(0);
+        ensureSkuCapacity(ordinal);
+        live.set(ordinal);
+        ordinalBySkuId.put(skuId, ordinal);
+        productOrdinals[ordinal] = productOrdinal(productId);
+
+        setAttribute(ProductAttributeType.SIZE, ordinal, sizeId);
+        setAttribute(ProductAttributeType.COLOR, ordinal, colorId);
+        setAttribute(ProductAttributeType.BRAND, ordinal, brandId);
+    }
+
+    private void removeOrdinal(Long skuId) {
+        Integer ordinal = skuId == null ? null : ordinalBySkuId.remove(skuId);
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        for (ProductAttributeType type : TYPES) {
+            long attributeId = attributeIds[type.ordinal()][ordinal];
+            BitSet bitmap = bitmaps.get(type).get(attributeId);
+            if (bitmap != null) {
+                bitmap.clear(ordinal);
+                if (bitmap.isEmpty()) {
+                    bitmaps.get(type).remove(attributeId);
+                }
+            }
+        }
+        int product = productOrdinals[ordinal];
+        if (--productSkuCounts[product] == 0) {
+            liveProducts.clear(product);
+            productOrdinalById.remove(productIds[product]);
+        }
+    }
+
+    private void setAttribute(ProductAttributeType type, int ordinal, Long attributeId) {
+        // 0 is never a generated id, it marks a SKU without a value for this type
+        long id = attributeId == null ? 0L : attributeId;
+        attributeIds[type.ordinal()][ordinal] = id;
+        if (attributeId != null) {
+            bitmaps.get(type).computeIfAbsent(id, k -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private int productOrdinal(Long productId) {
+        Integer existing = productOrdinalById.get(productId);
+        int ordinal = existing != null ? existing : liveProducts.nextClearBit(0);
+        if (existing == null) {
+            ensureProductCapacity(ordinal);
+            liveProducts.set(ordinal);
+            productOrdinalById.put(productId, ordinal);
+            productIds[ordinal] = productId;
+            productSkuCounts[ordinal] = 0;
+        }
+        productSkuCounts[ordinal]++;
+        return ordinal;
+    }
+
+    private void ensureSkuCapacity(int ordinal) {
+        if (ordinal < productOrdinals.length) {
+            return;
+        }
+        int capacity = Math.max(ordinal + 1, productOrdinals.length * 2);
+        productOrdinals = Arrays.copyOf(productOrdinals, capacity);
+        for (int t = 0; t < attributeIds.length; t++) {
+            attributeIds[t] = Arrays.copyOf(attributeIds[t], capacity);
+        }
+    }
+
+    private void ensureProductCapacity(int ordinal) {
+        if (ordinal < productIds.length) {
+            return;
+        }
+        int capacity = Math.max(ordinal + 1, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, capacity);
+        productSkuCounts = Arrays.copyOf(productSkuCounts, capacity);
+    }
+
+    // Callers hold at least the read lock for the methods below
+
+    private BitSet union(ProductAttributeType type, Collection<Long> ids) {
+        BitSet union = new BitSet();
+        for (Long id : ids) {
+            BitSet bitmap = bitmaps.get(type).get(id);
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    private BitSet products(BitSet skus) {
+        BitSet products = new BitSet();
+        for (int s = skus.nextSetBit(0); s >= 0; s = skus.nextSetBit(s + 1)) {
+            products.set(productOrdinals[s]);
+        }
+        return products;
+    }
+
+    private static Long idOf(ProductAttribute attribute) {
+        return attribute == null ? null : attribute.getId();
+    }
+}
@@ -0,0 +1,324 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import za.ac.cput.config.AsyncConfig;
+import za.ac.cput.config.CacheConfig;
+import za.ac.cput.domain.ImageUrls;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductImageFailure;
+import za.ac.cput.domain.ProductImageVariant;
+import za.ac.cput.enums.CatalogAction;
+import za.ac.cput.enums.ImageVariant;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.ProductImageFailureRepository;
+import za.ac.cput.repository.ProductImageVariantRepository;
+import za.ac.cput.repository.ProductRepository;
+import za.ac.cput.util.ImageResizer;
+import za.ac.cput.util.S3Keys;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * ProductImageService.java
+ *
+ * Makes the resized variants of product images. The editor uploads originals straight to S3, once a product is
+ * saved pointing at them each original is fetched, scaled to every ImageVariant and written back to S3 under
+ * variants/{variant}/, on the bounded image executor. The variants are recorded in product_image_variants and
+ * the thumbnail of the cover is set on the product, so listings can show it instead of the full photo, and an
+ * update of the product is published.
+ *
+ * Originals are found by their S3 key, the product may hold the key itself or a URL of the object.
+ * Work that does not fit the executor's queue, or fails, is retried by a sweep on a timer. Originals that are
+ * missing, are not images or have more pixels than store.images.max-pixels are recorded in
+ * product_image_failures instead, the sweep skips them until their product is saved again.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class ProductImageService {
+
+    static final String VARIANT_PREFIX = "variants/";
+    // Variant keys are never overwritten with other content, so they can be cached for good
+    private static final String VARIANT_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final S3Client s3Client;
+    private final ProductImageVariantRepository productImageVariantRepository;
+    private final ProductImageFailureRepository productImageFailureRepository;
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String bucketName;
+    private final String endpoint;
+    private final long maxPixels;
+
+    // Originals queued or being resized, so an event and the sweep do not resize the same one twice
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ProductImageService(S3Client s3Client,
+                               ProductImageVariantRepository productImageVariantRepository,
+                               ProductImageFailureRepository productImageFailureRepository,
+                               ProductRepository productRepository,
+                               CacheManager cacheManager,
+                               @Qualifier(AsyncConfig.IMAGE_EXECUTOR) Executor executor,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${aws.s3.bucket}") String bucketName,
+                               @Value("${aws.s3.endpoint:}") String endpoint,
+                               @Value("${store.images.max-pixels:40000000}") long maxPixels) {
+        this.s3Client = s3Client;
+        this.productImageVariantRepository = productImageVariantRepository;
+        this.productImageFailureRepository = productImageFailureRepository;
+        this.productRepository = productRepository;
+        this.cacheManager = cacheManager;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.bucketName = bucketName;
+        this.endpoint = endpoint;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Queues the images of a created or updated product. Images that already have variants only have
+     * the cover thumbnail checked, images recorded as failed are tried again.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProduct(CatalogEvent<Product> event) {
+        if (event.getAction() == CatalogAction.DELETED || event.getEntity() == null) {
+            return;
+        }
+        Product product = event.getEntity();
+        ImageUrls images = product.getImageUrls();
+        submit(product.getId(), product.getCover());
+        if (images != null) {
+            submit(product.getId(), images.getImageUrl1());
+            submit(product.getId(), images.getImageUrl2());
+            submit(product.getId(), images.getImageUrl3());
+            submit(product.getId(), images.getImageUrl4());
+        }
+    }
+
+    /**
+     * Queues every product image that has no variants yet and has not failed.
+     */
+    @Scheduled(fixedDelayString = "${store.images.sweep-interval:900000}",
+            initialDelayString = "${store.images.sweep-interval:900000}")
+    public void sweep() {
+        Set<String> done = new HashSet<>(productImageVariantRepository.findSourceKeys());
+        done.addAll(productImageFailureRepository.findSourceKeys());
+        int queued = 0;
+        for (ProductRepository.ImageFields row : productRepository.findAllImageFields()) {
+            for (String image : new String[]{row.getCover(), row.getImageUrl1(), row.getImageUrl2(),
+                    row.getImageUrl3(), row.getImageUrl4()}) {
+                String key = keyOf(image);
+                if (key != null && !done.contains(key) && submit(row.getId(), image)) {
+                    queued++;
+                }
+            }
+        }
+        if (queued > 0) {
+            log.info("Queued {} product images without variants", queued);
+        }
+    }
+
+    /**
+     * Reads the variants of a product's images.
+     *
+     * @param productId the ID of the product
+     * @return the variants, grouped by original
+     */
+    public List<ProductImageVariant> findVariants(Long productId) {
+        return productImageVariantRepository.findByProductIdOrderBySourceKeyAscVariantAsc(productId);
+    }
+
+    /**
+     * Fetches an original from S3 and writes every variant of it back to S3. Nothing is saved to the database.
+     *
+     * @param productId the ID of the product the image belongs to
+     * @param sourceKey the S3 key of the original
+     * @return the variants written
+     * @throws UnusableImageException if the original is missing, not an image or too large to decode
+     */
+    public List<ProductImageVariant> generate(Long productId, String sourceKey) {
+        BufferedImage original;
+        try (ResponseInputStream<GetObjectResponse> in = s3Client.getObject(r -> r.bucket(bucketName).key(sourceKey))) {
+            original = ImageResizer.read(in, maxPixels);
+        } catch (NoSuchKeyException e) {
+            throw new UnusableImageException("not in the bucket");
+        } catch (ImageResizer.ImageTooLargeException e) {
+            throw new UnusableImageException(e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (original == null) {
+            throw new UnusableImageException("not an image that can be resized");
+        }
+
+        List<ProductImageVariant> variants = new ArrayList<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            BufferedImage resized = ImageResizer.resize(original, variant.maxSize());
+            String format = ImageResizer.formatOf(resized);
+            String key = variantKey(sourceKey, variant, format);
+            s3Client.putObject(r -> r.bucket(bucketName)
+                            .key(key)
+                            .contentType(format.equals("png") ? "image/png" : "image/jpeg")
+                            .cacheControl(VARIANT_CACHE_CONTROL),
+                    RequestBody.fromBytes(ImageResizer.encode(resized)));
+            variants.add(new ProductImageVariant.Builder()
+                    .setProductId(productId)
+                    .setSourceKey(sourceKey)
+                    .setVariant(variant)
+                    .setKey(key)
+                    .setUrl(s3Client.utilities().getUrl(r -> r.bucket(bucketName).key(key)).toString())
+                    .setWidth(resized.getWidth())
+                    .setHeight(resized.getHeight())
+                    .setCreatedAt(LocalDateTime.now())
+                    .build());
+        }
+        return variants;
+    }
+
+    // Queues an image unless it is already queued, false if it was not queued
+    private boolean submit(Long productId, String image) {
+        String key = keyOf(image);
+        if (productId == null || key == null || !pending.add(key)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(productId, image, key);
+                } catch (RuntimeException e) {
+                    log.warn("Could not make the variants of product {} image {}, the sweep will retry", productId, key, e);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            log.debug("Image queue is full, product {} image {} is left for the sweep", productId, key);
+            return false;
+        }
+    }
+
+    void process(Long productId, String image, String key) {
+        List<ProductImageVariant> existing = productImageVariantRepository.findBySourceKeyIn(List.of(key));
+        List<ProductImageVariant> created;
+        try {
+            created = existing.isEmpty() ? generate(productId, key) : List.of();
+        } catch (UnusableImageException e) {
+            log.warn("No variants can be made of product {} image {}: {}", productId, key, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> recordFailure(productId, key, e.getMessage()));
+            return;
+        }
+        List<ProductImageVariant> variants = existing.isEmpty() ? created : existing;
+        String thumbnail = variants.stream()
+                .filter(variant -> variant.getVariant() == ImageVariant.THUMBNAIL)
+                .map(ProductImageVariant::getUrl)
+                .findFirst()
+                .orElse(null);
+        Boolean updated = transactionTemplate.execute(status -> {
+            if (!created.isEmpty()) {
+                productImageVariantRepository.saveAll(created);
+                productImageFailureRepository.deleteBySourceKey(key);
+            }
+            // Only matches while the image is still the product's cover and the thumbnail is new
+            if (thumbnail == null || productRepository.updateCoverThumbnail(productId, image, thumbnail) == 0) {
+                return false;
+            }
+            // Published inside the transaction, so the listeners see the thumbnail once it is committed
+            productRepository.findById(productId).ifPresent(product -> eventPublisher.publishEvent(
+                    CatalogEvent.updated(Product.class, productId, product, product.getDeletedAt())));
+            return true;
+        });
+        if (Boolean.TRUE.equals(updated)) {
+            evict(productId);
+        }
+        if (!created.isEmpty()) {
+            log.info("Made {} variants of product {} image {}", created.size(), productId, key);
+        }
+    }
+
+    private void recordFailure(Long productId, String key, String reason) {
+        ProductImageFailure.Builder failure = productImageFailureRepository.findBySourceKey(key)
+                .map(existing -> new ProductImageFailure.Builder().copy(existing))
+                .orElseGet(ProductImageFailure.Builder::new);
+        productImageFailureRepository.save(failure.setProductId(productId)
+                .setSourceKey(key)
+                .setReason(reason.length() > 255 ? reason.substring(0, 255) : reason)
+                .setFailedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void evict(Long productId) {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        if (products != null) {
+            products.evict(productId);
+        }
+        // cached SKUs embed the product
+        Cache skus = cacheManager.getCache(CacheConfig.PRODUCT_SKUS);
+        if (skus != null) {
+            skus.clear();
+        }
+    }
+
+    /**
+     * @param image the cover or image URL of a product
+     * @return the S3 key of the image, or null if there is no image or it is itself a variant
+     */
+    String keyOf(String image) {
+        String key = S3Keys.keyOf(image, bucketName, endpoint);
+        return key == null || key.startsWith(VARIANT_PREFIX) ? null : key;
+    }
+
+    /**
+     * @return the S3 key of a variant, variants/{variant}/ followed by the whole original key and the extension
+     * of the format. The original keeps its own extension, shoe.png and shoe.jpg would share a variant otherwise.
+     */
+    static String variantKey(String sourceKey, ImageVariant variant, String format) {
+        return VARIANT_PREFIX + variant.name().toLowerCase(Locale.ROOT) + "/" + sourceKey + "." + format;
+    }
+
+    /**
+     * Thrown when no variants can be made of an original, trying again does not help until it is replaced.
+     */
+    public static class UnusableImageException extends RuntimeException {
+        public UnusableImageException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.ac.cput.domain.PriceSummary;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductSku;
+import za.ac.cput.enums.CatalogAction;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.ProductSkuRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * ProductPriceIndex.java
+ *
+ * In-memory price index over every SKU. Products have no price of their own, so filtering or sorting the
+ * catalog by price used to mean loading every SKU. The index keeps the SKUs in a skip list ordered by
+ * (price, SKU id), so a price range is a range scan in price order, and a price summary (min, max, in stock)
+ * per product. Reads do not lock.
+ *
+ * The index is loaded at startup and kept up to date from committed SKU and product writes.
+ * Stock taken or returned by reservations does not publish SKU events, so the in-stock flags are
+ * reconciled by reloading the index on a timer. Writes that arrive while a reload reads the table are
+ * applied to the current state and also recorded, then replayed onto the loaded state before it is swapped in.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class ProductPriceIndex {
+
+    private final ProductSkuRepository productSkuRepository;
+
+    // Writers hold the monitor of this, readers use the concurrent maps directly
+    private volatile State state = new State();
+    // Writes applied while a rebuild reads the table, null when no rebuild runs; guarded by this
+    private List<Consumer<State>> replay;
+    // One rebuild at a time, they would share the replay list
+    private final Object rebuildLock = new Object();
+
+    @Autowired
+    public ProductPriceIndex(ProductSkuRepository productSkuRepository) {
+        this.productSkuRepository = productSkuRepository;
+    }
+
+    /**
+     * Loads the price and stock of every SKU. Runs once the application has started and then on a timer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${store.price-index.refresh-interval:300000}",
+            initialDelayString = "${store.price-index.refresh-interval:300000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+            try {
+                load();
+            } finally {
+                synchronized (this) {
+                    replay = null;
+                }
+            }
+        }
+    }
+
+    private void load() {
+        List<ProductSkuRepository.SkuPrice> rows = productSkuRepository.findAllPrices();
+        State loaded = new State();
+        Map<Long, List<Sku>> byProduct = new HashMap<>();
+        for (ProductSkuRepository.SkuPrice row : rows) {
+            Sku sku = Sku.of(row.getId(), row.getProductId(), row.getPrice(), row.getQuantity());
+            if (sku != null) {
+                loaded.skus.put(sku.id(), sku);
+                loaded.byPrice.put(sku, sku.productId());
+                byProduct.computeIfAbsent(sku.productId(), id -> new ArrayList<>()).add(sku);
+            }
+        }
+        byProduct.forEach((productId, skus) -> loaded.setProduct(productId, skus));
+        synchronized (this) {
+            replay.forEach(change -> change.accept(loaded));
+            state = loaded;
+        }
+        log.info("Price index loaded {} SKUs of {} products", loaded.skus.size(), loaded.summaries.size());
+    }
+
+    /**
+     * Applies a committed SKU write.
+     *
+     * @param event the SKU event published by ProductSkuService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSku(CatalogEvent<ProductSku> event) {
+        ProductSku productSku = event.getEntity();
+        if (event.getAction() == CatalogAction.DELETED || productSku == null || productSku.getProduct() == null) {
+            remove(event.getId());
+        } else {
+            index(Sku.of(productSku.getId(), productSku.getProduct().getId(), productSku.getPrice(), productSku.getQuantity()));
+        }
+    }
+
+    /**
+     * Drops the SKUs of a deleted product.
+     *
+     * @param event the product event published by ProductService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProduct(CatalogEvent<Product> event) {
+        if (event.getAction() == CatalogAction.DELETED) {
+            apply(current -> current.removeProduct(event.getId()));
+        }
+    }
+
+    /**
+     * Finds the products with a SKU priced within a range, cheapest first.
+     * A product is listed once, at the lowest price of its SKUs that matched.
+     *
+     * @param minPrice    the lowest price, inclusive, null for no lower bound
+     * @param maxPrice    the highest price, inclusive, null for no upper bound
+     * @param inStockOnly true to only consider SKUs that have stock
+     * @param limit       the maximum number of products
+     * @return the product ids and the price each matched at, cheapest first
+     */
+    public List<Match> range(Double minPrice, Double maxPrice, boolean inStockOnly, int limit) {
+        double from = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+        double to = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+        if (from > to || limit <= 0) {
+            return List.of();
+        }
+        NavigableMap<Sku, Long> inRange = state.byPrice.subMap(
+                new Sku(Long.MIN_VALUE, null, from, 0), true,
+                new Sku(Long.MAX_VALUE, null, to, 0), true);
+
+        List<Match> matches = new ArrayList<>(Math.min(limit, 64));
+        Set<Long> seen = new HashSet<>();
+        for (Map.Entry<Sku, Long> entry : inRange.entrySet()) {
+            Sku sku = entry.getKey();
+            if (inStockOnly && sku.quantity() <= 0) {
+                continue;
+            }
+            // the scan runs in price order, so the first SKU seen of a product is its cheapest match
+            if (seen.add(entry.getValue())) {
+                matches.add(new Match(entry.getValue(), sku.price()));
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @param productId the ID of the product
+     * @return the price range and stock of the product, or null if it has no SKUs
+     */
+    public PriceSummary summary(Long productId) {
+        return productId == null ? null : state.summaries.get(productId);
+    }
+
+    private void index(Sku sku) {
+        if (sku != null) {
+            apply(current -> current.index(sku));
+        }
+    }
+
+    private void remove(Long skuId) {
+        if (skuId != null) {
+            apply(current -> current.remove(skuId));
+        }
+    }
+
+    private synchronized void apply(Consumer<State> change) {
+        change.accept(state);
+        if (replay != null) {
+            replay.add(change);
+        }
+    }
+
+    /**
+     * A product that matched a price range.
+     *
+     * @param productId the ID of the product
+     * @param price     the lowest SKU price of the product within the range
+     */
+    public record Match(Long productId, double price) {
+    }
+
+    // Ordered by price, then id, so SKUs with the same price are distinct keys
+    private record Sku(Long id, Long productId, double price, int quantity) implements Comparable<Sku> {
+
+        private static Sku of(Long id, Long productId, Double price, Integer quantity) {
+            if (id == null || productId == null || price == null) {
+                return null;
+            }
+            return new Sku(id, productId, price, quantity == null ? 0 : quantity);
+        }
+
+        @Override
+        public int compareTo(Sku other) {
+            int byPrice = Double.compare(price, other.price);
+            return byPrice != 0 ? byPrice : Long.compare(id, other.id);
+        }
+
+        // Keys of the skip list compare by price and id only
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Sku other && compareTo(other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(price, id);
+        }
+    }
+
+    private static final class State {
+        private final ConcurrentSkipListMap<Sku, Long> byPrice = new ConcurrentSkipListMap<>();
+        private final Map<Long, Sku> skus = new ConcurrentHashMap<>();
+        // immutable arrays, replaced when a SKU of the product changes
+        private final Map<Long, Sku[]> skusByProduct = new ConcurrentHashMap<>();
+        private final Map<Long, PriceSummary> summaries = new ConcurrentHashMap<>();
+
+        private void index(Sku sku) {
+            Sku previous = skus.put(sku.id(), sku);
+            if (previous != null) {
+                byPrice.remove(previous);
+                if (!previous.productId().equals(sku.productId())) {
+                    setProduct(previous.productId(), skusOf(previous.productId(), previous.id()));
+                }
+            }
+            byPrice.put(sku, sku.productId());
+            List<Sku> productSkus = skusOf(sku.productId(), sku.id());
+            productSkus.add(sku);
+            setProduct(sku.productId(), productSkus);
+        }
+
+        private void remove(Long skuId) {
+            Sku previous = skus.remove(skuId);
+            if (previous != null) {
+                byPrice.remove(previous);
+                setProduct(previous.productId(), skusOf(previous.productId(), previous.id()));
+            }
+        }
+
+        private void removeProduct(Long productId) {
+            Sku[] productSkus = skusByProduct.get(productId);
+            if (productSkus != null) {
+                for (Sku sku : productSkus) {
+                    skus.remove(sku.id());
+                    byPrice.remove(sku);
+                }
+                setProduct(productId, List.of());
+            }
+        }
+
+        // The SKUs of a product without the given one
+        private List<Sku> skusOf(Long productId, Long exceptSkuId) {
+            List<Sku> skus = new ArrayList<>();
+            for (Sku sku : skusByProduct.getOrDefault(productId, new Sku[0])) {
+                if (!sku.id().equals(exceptSkuId)) {
+                    skus.add(sku);
+                }
+            }
+            return skus;
+        }
+
+        private void setProduct(Long productId, List<Sku> skus) {
+            if (skus.isEmpty()) {
+                skusByProduct.remove(productId);
+                summaries.remove(productId);
+                return;
+            }
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            boolean inStock = false;
+            for (Sku sku : skus) {
+                min = Math.min(min, sku.price());
+                max = Math.max(max, sku.price());
+                inStock |= sku.quantity() > 0;
+            }
+            skusByProduct.put(productId, skus.toArray(Sku[]::new));
+            summaries.put(productId, PriceSummary.builder()
+                    .productId(productId)
+                    .minPrice(min)
+                    .maxPrice(max)
+                    .inStock(inStock)
+                    .skuCount(skus.size())
+                    .build());
+        }
+    }
+}
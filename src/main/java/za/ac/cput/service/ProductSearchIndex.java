@@ -0,0 +1,205 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.ac.cput.domain.Product;
+import za.ac.cput.enums.CatalogAction;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.ProductRepository;
+import za.ac.cput.util.TextAnalyzer;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ProductSearchIndex.java
+ *
+ * In-process inverted index over the name, summary and description of every product, ranked with BM25.
+ * Name terms count three times and summary terms twice, so a match in the name outranks
+ * the same match buried in the description.
+ * The index is rebuilt in parallel at startup and kept in sync from committed product writes.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 3;
+    private static final int SUMMARY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ProductRepository productRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (product id -> weighted term frequency)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    // product id -> its terms, kept so a product can be removed without re-analysing it
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Long, Integer> lengths = new HashMap<>();
+    private long totalLength;
+
+    @Autowired
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Rebuilds the index from the database once the application has started.
+     * Products are analysed in parallel, only the final merge runs under the write lock.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductRepository.SearchFields> rows = productRepository.findAllSearchFields();
+        List<Map.Entry<Long, Map<String, Integer>>> analysed = rows.parallelStream()
+                .map(row -> Map.entry(row.getId(), analyze(row.getName(), row.getSummary(), row.getDescription())))
+                .toList();
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            totalLength = 0;
+            analysed.forEach(document -> add(document.getKey(), document.getValue()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index loaded {} products", rows.size());
+    }
+
+    /**
+     * Applies a committed product write to the index.
+     *
+     * @param event the product event published by ProductService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CatalogEvent<Product> event) {
+        if (event.getAction() == CatalogAction.DELETED || event.getEntity() == null) {
+            remove(event.getId());
+        } else {
+            index(event.getEntity());
+        }
+    }
+
+    /**
+     * Adds a product to the index, replacing what was indexed for it before.
+     *
+     * @param product the product to index
+     */
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        Map<String, Integer> terms = analyze(product.getName(), product.getSummary(), product.getDescription());
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            add(product.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a product from the index.
+     *
+     * @param productId the ID of the product to remove
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param query the free text query
+     * @param limit the maximum number of ids to return
+     * @return the ids of the matching products, best match first
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 1 : (double) totalLength / documentCount;
+            for (String term : terms) {
+                Map<Long, Integer> postingList = postings.get(term);
+                if (postingList == null) {
+                    continue;
+                }
+                int df = postingList.size();
+                double idf = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+                postingList.forEach((productId, tf) -> {
+                    double norm = K1 * (1 - B + B * lengths.get(productId) / averageLength);
+                    scores.merge(productId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static Map<String, Integer> analyze(String name, String summary, String description) {
+        Map<String, Integer> terms = new HashMap<>();
+        TextAnalyzer.analyze(name).forEach(term -> terms.merge(term, NAME_WEIGHT, Integer::sum));
+        TextAnalyzer.analyze(summary).forEach(term -> terms.merge(term, SUMMARY_WEIGHT, Integer::sum));
+        TextAnalyzer.analyze(description).forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return terms;
+    }
+
+    // Callers hold the write lock for the methods below
+
+    private void add(Long productId, Map<String, Integer> terms) {
+        int length = 0;
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(productId, term.getValue());
+            length += term.getValue();
+        }
+        documents.put(productId, terms);
+        lengths.put(productId, length);
+        totalLength += length;
+    }
+
+    private void removeDocument(Long productId) {
+        Map<String, Integer> terms = productId == null ? null : documents.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Integer> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(productId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= lengths.remove(productId);
+    }
+}
@@ -2,12 +2,33 @@ package za.ac.cput.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import za.ac.cput.config.CacheConfig;
+import za.ac.cput.domain.PriceSummary;
+import za.ac.cput.domain.PricedProduct;
 import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductPage;
+import za.ac.cput.domain.TrendingProduct;
+import za.ac.cput.enums.TrendingWindow;
+import za.ac.cput.event.CatalogEvent;
 import za.ac.cput.repository.ProductRepository;
+import za.ac.cput.util.Cursor;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * ProductService.java
@@ -22,23 +43,48 @@ import java.util.List;
 public class ProductService implements IProduct {
 
     private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductPriceIndex productPriceIndex;
+    private final RelatedProductIndex relatedProductIndex;
+    private final TrendingService trendingService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${store.products.page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${store.products.max-page-size:100}")
+    private int maxPageSize;
 
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductSearchIndex productSearchIndex,
+                          ProductPriceIndex productPriceIndex, RelatedProductIndex relatedProductIndex,
+                          TrendingService trendingService, ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productPriceIndex = productPriceIndex;
+        this.relatedProductIndex = relatedProductIndex;
+        this.trendingService = trendingService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Product create(Product product) {
-        return productRepository.save(product);
+        Product createdProduct = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogEvent.created(Product.class, createdProduct.getId(), createdProduct));
+        return createdProduct;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id", unless = "#result == null")
     public Product read(Long id) {
         return productRepository.findById(id).orElse(null);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#product.id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_SKUS, allEntries = true) // cached SKUs embed the product
+    })
     public Product update(Product product) {
         Product existingProduct = productRepository.findById(product.getId()).orElse(null);
         if (existingProduct != null) {
@@ -49,12 +95,17 @@ public class ProductService implements IProduct {
                     .setDescription(product.getDescription())
                     .setSummary(product.getSummary())
                     .setCover(product.getCover())
+                    // The thumbnail belongs to the cover it was made from
+                    .setCoverThumbnail(Objects.equals(existingProduct.getCover(), product.getCover())
+                            ? existingProduct.getCoverThumbnail() : null)
                     .setImageUrls(product.getImageUrls())
                     .setSubCategory(product.getSubCategory())
                     .setCreatedAt(product.getCreatedAt())
                     .setDeletedAt(product.getDeletedAt())
                     .build();
-            return productRepository.save(updatedProduct);
+            Product savedProduct = productRepository.save(updatedProduct);
+            eventPublisher.publishEvent(CatalogEvent.updated(Product.class, savedProduct.getId(), savedProduct, savedProduct.getDeletedAt()));
+            return savedProduct;
         } else {
             log.warn("Attempt to update a non-existent order item with ID: {}", product.getId());
 
@@ -62,11 +113,18 @@ public class ProductService implements IProduct {
         }
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_SKUS, allEntries = true)
+    })
     public boolean delete(Long id) {
         productRepository.deleteById(id);
 
         // Check if the entity still exists after deletion
         boolean exists = productRepository.existsById(id);
+        if (!exists) {
+            eventPublisher.publishEvent(CatalogEvent.deleted(Product.class, id));
+        }
 
         // Return false if entity was deleted successfully, otherwise return true
         return !exists;
@@ -76,4 +134,124 @@ public class ProductService implements IProduct {
     public List<Product> findAll() {
         return productRepository.findAll();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPage findPage(String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        long afterId = Cursor.decode(cursor);
+
+        // Read one extra id so we know whether there is a next page without a count query
+        List<Long> ids = productRepository.findIdsAfter(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+
+        List<Product> items = pageIds.isEmpty() ? List.of() : productRepository.findByIdIn(pageIds);
+        items = items.stream().sorted(Comparator.comparing(Product::getId)).toList();
+
+        return ProductPage.builder()
+                .items(items)
+                .nextCursor(hasNext ? Cursor.encode(pageIds.get(pageIds.size() - 1)) : null)
+                .size(items.size())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> search(String query, Integer limit) {
+        int maxResults = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<Long> ids = productSearchIndex.search(query, maxResults);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Load the hits in one query and put them back in rank order
+        Map<Long, Product> products = productRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Product> findRelated(Long id, Integer limit) {
+        int maxResults = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<Long> ids = Arrays.stream(relatedProductIndex.related(id, maxResults)).boxed().toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Soft-deleted products are still in the index until the next rebuild, the lookup drops them
+        Map<Long, Product> products = productRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TrendingProduct> findTrending(TrendingWindow window, Integer limit) {
+        int maxResults = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<TrendingService.Trend> trends = trendingService.top(window, maxResults);
+        if (trends.isEmpty()) {
+            return List.of();
+        }
+
+        // Load the products in one query and put them back in rank order
+        Map<Long, Product> products = productRepository.findByIdIn(trends.stream().map(TrendingService.Trend::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<TrendingProduct> trending = new ArrayList<>(trends.size());
+        for (TrendingService.Trend trend : trends) {
+            Product product = products.get(trend.productId());
+            if (product != null) {
+                trending.add(TrendingProduct.builder()
+                        .product(product)
+                        .views(trend.views())
+                        .cartAdds(trend.cartAdds())
+                        .score(trend.score())
+                        .build());
+            }
+        }
+        return trending;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PricedProduct> findByPriceRange(Double minPrice, Double maxPrice, boolean inStockOnly, Integer limit) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("The minimum price is above the maximum price");
+        }
+        int maxResults = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<ProductPriceIndex.Match> matches = productPriceIndex.range(minPrice, maxPrice, inStockOnly, maxResults);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        // Load the matches in one query and put them back in price order
+        Map<Long, Product> products = productRepository.findByIdIn(matches.stream().map(ProductPriceIndex.Match::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<PricedProduct> priced = new ArrayList<>(matches.size());
+        for (ProductPriceIndex.Match match : matches) {
+            Product product = products.get(match.productId());
+            if (product != null) {
+                priced.add(PricedProduct.builder()
+                        .product(product)
+                        .price(match.price())
+                        .summary(productPriceIndex.summary(match.productId()))
+                        .build());
+            }
+        }
+        return priced;
+    }
+
+    @Override
+    public PriceSummary findPriceSummary(Long id) {
+        return productPriceIndex.summary(id);
+    }
 }
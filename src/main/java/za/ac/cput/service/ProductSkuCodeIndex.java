@@ -0,0 +1,112 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.ac.cput.domain.ProductSku;
+import za.ac.cput.enums.CatalogAction;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.ProductSkuRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProductSkuCodeIndex.java
+ *
+ * In-memory map from SKU code to SKU id, so a lookup by code is a hash lookup followed by the cached read by id.
+ * The map is loaded at startup and kept up to date from committed SKU writes.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class ProductSkuCodeIndex {
+
+    private final ProductSkuRepository productSkuRepository;
+
+    private final Map<String, Long> idByCode = new ConcurrentHashMap<>();
+    // kept so a SKU can be removed or renamed without knowing its old code
+    private final Map<Long, String> codeById = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProductSkuCodeIndex(ProductSkuRepository productSkuRepository) {
+        this.productSkuRepository = productSkuRepository;
+    }
+
+    /**
+     * Loads the code of every SKU once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductSkuRepository.SkuCode> rows = productSkuRepository.findAllSkuCodes();
+        synchronized (this) {
+            idByCode.clear();
+            codeById.clear();
+            rows.forEach(row -> put(row.getId(), row.getSku()));
+        }
+        log.info("SKU code index loaded {} SKUs", rows.size());
+    }
+
+    /**
+     * Applies a committed SKU write to the index.
+     *
+     * @param event the SKU event published by ProductSkuService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CatalogEvent<ProductSku> event) {
+        if (event.getAction() == CatalogAction.DELETED || event.getEntity() == null) {
+            remove(event.getId());
+        } else {
+            index(event.getEntity());
+        }
+    }
+
+    /**
+     * Adds a SKU to the index, replacing its previous code.
+     *
+     * @param productSku the SKU to index
+     */
+    public synchronized void index(ProductSku productSku) {
+        if (productSku == null || productSku.getId() == null) {
+            return;
+        }
+        remove(productSku.getId());
+        put(productSku.getId(), productSku.getSku());
+    }
+
+    /**
+     * Removes a SKU from the index.
+     *
+     * @param skuId the ID of the SKU to remove
+     */
+    public synchronized void remove(Long skuId) {
+        String code = skuId == null ? null : codeById.remove(skuId);
+        if (code != null) {
+            idByCode.remove(code, skuId);
+        }
+    }
+
+    /**
+     * Looks up the id of a SKU code.
+     *
+     * @param sku the SKU code
+     * @return the id of the SKU, or null if the code is not indexed
+     */
+    public Long idOf(String sku) {
+        return sku == null ? null : idByCode.get(sku);
+    }
+
+    private void put(Long id, String code) {
+        if (id != null && code != null) {
+            idByCode.put(code, id);
+            codeById.put(id, code);
+        }
+    }
+}
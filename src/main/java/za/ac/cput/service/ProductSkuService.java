@@ -2,12 +2,23 @@ package za.ac.cput.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import za.ac.cput.config.CacheConfig;
 import za.ac.cput.domain.ProductSku;
+import za.ac.cput.domain.SkuUpdate;
+import za.ac.cput.domain.SkuUpdateResult;
+import za.ac.cput.event.CatalogEvent;
 import za.ac.cput.repository.ProductSkuRepository;
+import za.ac.cput.util.Helper;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * ProductSkuService.java
@@ -22,28 +33,57 @@ import java.util.List;
 @Transactional
 public class ProductSkuService implements IProductSku {
 
+    // SQL Server accepts at most 2100 parameters per statement
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final String BULK_PRICE_SQL = "UPDATE products_skus SET price = ? WHERE id = ?";
+    private static final String BULK_STOCK_SQL =
+            "UPDATE products_skus SET quantity = quantity + ? WHERE id = ? AND quantity + ? >= 0";
+
     private final ProductSkuRepository productSkuRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryService inventoryService;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final ProductSkuCodeIndex productSkuCodeIndex;
 
     @Autowired
-    public ProductSkuService(ProductSkuRepository productSkuRepository) {
+    public ProductSkuService(ProductSkuRepository productSkuRepository, ApplicationEventPublisher eventPublisher,
+                             InventoryService inventoryService, JdbcTemplate jdbcTemplate, CacheManager cacheManager,
+                             ProductSkuCodeIndex productSkuCodeIndex) {
         this.productSkuRepository = productSkuRepository;
+        this.eventPublisher = eventPublisher;
+        this.inventoryService = inventoryService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.productSkuCodeIndex = productSkuCodeIndex;
     }
 
     @Override
     public za.ac.cput.domain.ProductSku create(za.ac.cput.domain.ProductSku productSku) {
-        return productSkuRepository.save(productSku);
+        ProductSku createdProductSku = productSkuRepository.save(productSku);
+        eventPublisher.publishEvent(CatalogEvent.created(ProductSku.class, createdProductSku.getId(), createdProductSku));
+        return createdProductSku;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_SKUS, key = "#id", unless = "#result == null")
     public ProductSku read(Long id) {
         return productSkuRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Saves the SKU. The quantity is not written with the entity, the change from the stored quantity is
+     * applied to the row instead, so units reserved or leased out while the update ran stay taken.
+     *
+     * @throws IllegalStateException if more units were reserved meanwhile than the new quantity
+     */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_SKUS, key = "#productSku.id")
     public za.ac.cput.domain.ProductSku update(za.ac.cput.domain.ProductSku productSku) {
         za.ac.cput.domain.ProductSku existingProductSku = productSkuRepository.findById(productSku.getId()).orElse(null);
 
         if (existingProductSku != null) {
+            int storedQuantity = existingProductSku.getQuantity();
             za.ac.cput.domain.ProductSku updatedProductSku = new za.ac.cput.domain.ProductSku.Builder()
                     .copy(existingProductSku)
                     .setId(existingProductSku.getId())
@@ -57,25 +97,171 @@ public class ProductSkuService implements IProductSku {
                     .setCreatedAt(productSku.getCreatedAt())
                     .setDeletedAt(productSku.getDeletedAt())
                     .build();
-            return productSkuRepository.save(updatedProductSku);
+            ProductSku savedProductSku = productSkuRepository.save(updatedProductSku);
+            Integer quantity = productSku.getQuantity();
+            if (quantity != null && quantity != storedQuantity
+                    && !inventoryService.adjust(savedProductSku.getId(), quantity - storedQuantity)) {
+                throw new IllegalStateException("More units of SKU " + savedProductSku.getSku()
+                        + " were reserved during the update than its new quantity " + quantity);
+            }
+            eventPublisher.publishEvent(CatalogEvent.updated(ProductSku.class, savedProductSku.getId(), savedProductSku,
+                    savedProductSku.getDeletedAt()));
+            return savedProductSku;
         } else {
             log.warn("Attempt to update a non-existent product sku with ID: " + productSku.getId());
             return null;
         }
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_SKUS, key = "#id")
     public boolean delete(Long id) {
         productSkuRepository.deleteById(id);
 
         // Check if the entity still exists after deletion
         boolean exists = productSkuRepository.existsById(id);
+        if (!exists) {
+            eventPublisher.publishEvent(CatalogEvent.deleted(ProductSku.class, id));
+        }
 
         // Return false if entity was deleted successfully, otherwise return true
         return !exists;
     }
 
+    /**
+     * Resolves the code through the in-memory code index and reads the SKU through the SKU cache,
+     * so a known code is served without a query. Codes the index does not know yet, for example
+     * SKUs created by another instance, fall back to the unique sku column and are added to the index.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductSku findBySku(String sku) {
+        Long id = productSkuCodeIndex.idOf(sku);
+        if (id != null) {
+            Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_SKUS);
+            ProductSku cached = cache == null ? null : cache.get(id, ProductSku.class);
+            if (cached != null && sku.equals(cached.getSku())) {
+                return cached;
+            }
+        }
+        ProductSku productSku = productSkuRepository.findBySku(sku).orElse(null);
+        if (productSku != null) {
+            productSkuCodeIndex.index(productSku);
+            Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_SKUS);
+            if (cache != null) {
+                cache.put(productSku.getId(), productSku);
+            }
+        } else if (id != null) {
+            productSkuCodeIndex.remove(id);
+        }
+        return productSku;
+    }
+
     @Override
     public List<za.ac.cput.domain.ProductSku> findAll() {
         return productSkuRepository.findAll();
     }
+
+    /**
+     * Applies the updates in chunks: one query reads the current price and stock of a chunk of codes,
+     * then the SKUs that actually change are written with a JDBC batch of price updates and one of stock updates.
+     * Only the columns a line supplies are written, and a new quantity is applied as the change from the
+     * quantity that was read, like in update, so reservations taken meanwhile are kept.
+     * Nothing is loaded as an entity until the changed SKUs are re-read for the catalog events.
+     */
+    @Override
+    public SkuUpdateResult bulkUpdate(List<SkuUpdate> updates) {
+        List<String> invalid = new ArrayList<>();
+        // later lines win if a code appears more than once
+        Map<String, SkuUpdate> byCode = new LinkedHashMap<>();
+        for (SkuUpdate update : updates) {
+            if (update == null || Helper.isNullOrEmpty(update.getSku())) {
+                invalid.add(update == null ? null : update.getSku());
+            } else if ((update.getPrice() != null && update.getPrice() <= 0)
+                    || (update.getQuantity() != null && update.getQuantity() < 0)) {
+                invalid.add(update.getSku());
+            } else {
+                byCode.put(update.getSku(), update);
+            }
+        }
+
+        int applied = 0;
+        int unchanged = 0;
+        List<String> unknown = new ArrayList<>();
+        List<String> conflicts = new ArrayList<>();
+        List<String> codes = new ArrayList<>(byCode.keySet());
+        for (int from = 0; from < codes.size(); from += BULK_CHUNK_SIZE) {
+            List<String> chunk = codes.subList(from, Math.min(from + BULK_CHUNK_SIZE, codes.size()));
+            Map<String, ProductSkuRepository.SkuPriceStock> current = new HashMap<>();
+            productSkuRepository.findPriceStockBySkuIn(chunk).forEach(row -> current.put(row.getSku(), row));
+
+            List<Object[]> priceRows = new ArrayList<>();
+            List<Object[]> stockRows = new ArrayList<>();
+            List<String> stockCodes = new ArrayList<>();
+            Set<Long> pricedIds = new HashSet<>();
+            Set<Long> changedIds = new LinkedHashSet<>();
+            for (String code : chunk) {
+                ProductSkuRepository.SkuPriceStock existing = current.get(code);
+                if (existing == null) {
+                    unknown.add(code);
+                    continue;
+                }
+                SkuUpdate update = byCode.get(code);
+                boolean priceChanges = update.getPrice() != null && !update.getPrice().equals(existing.getPrice());
+                boolean stockChanges = update.getQuantity() != null && !update.getQuantity().equals(existing.getQuantity());
+                if (!priceChanges && !stockChanges) {
+                    unchanged++;
+                    continue;
+                }
+                if (priceChanges) {
+                    priceRows.add(new Object[]{update.getPrice(), existing.getId()});
+                    pricedIds.add(existing.getId());
+                    changedIds.add(existing.getId());
+                }
+                if (stockChanges) {
+                    int units = update.getQuantity() - existing.getQuantity();
+                    stockRows.add(new Object[]{units, existing.getId(), units});
+                    stockCodes.add(code);
+                    changedIds.add(existing.getId());
+                }
+            }
+
+            if (!priceRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(BULK_PRICE_SQL, priceRows);
+            }
+            if (!stockRows.isEmpty()) {
+                int[] counts = jdbcTemplate.batchUpdate(BULK_STOCK_SQL, stockRows);
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        Long id = (Long) stockRows.get(i)[1];
+                        conflicts.add(stockCodes.get(i));
+                        // the new price of the SKU still applies
+                        if (!pricedIds.contains(id)) {
+                            changedIds.remove(id);
+                        }
+                    }
+                }
+            }
+            if (changedIds.isEmpty()) {
+                continue;
+            }
+            applied += changedIds.size();
+
+            Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_SKUS);
+            if (cache != null) {
+                changedIds.forEach(cache::evict);
+            }
+            productSkuRepository.findByIdIn(changedIds).forEach(productSku ->
+                    eventPublisher.publishEvent(CatalogEvent.updated(ProductSku.class, productSku.getId(), productSku)));
+        }
+
+        log.info("Bulk SKU update: {} applied, {} unchanged, {} unknown, {} invalid, {} conflicts",
+                applied, unchanged, unknown.size(), invalid.size(), conflicts.size());
+        return SkuUpdateResult.builder()
+                .applied(applied)
+                .unchanged(unchanged)
+                .unknown(unknown)
+                .invalid(invalid)
+                .conflicts(conflicts)
+                .build();
+    }
 }
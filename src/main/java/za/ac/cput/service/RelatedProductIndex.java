@@ -0,0 +1,139 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.ac.cput.repository.CartItemRepository;
+import za.ac.cput.repository.OrderItemRepository;
+import za.ac.cput.repository.WishListItemRepository;
+import za.ac.cput.util.CoOccurrenceMatrix;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * RelatedProductIndex.java
+ *
+ * "Frequently bought together" recommendations. Orders, carts and wishlists are read as baskets of products
+ * and every pair of products in a basket scores the basket's weight: an order counts more than a cart, a cart
+ * more than a wishlist. The best neighbours of each product are kept in a CoOccurrenceMatrix, built in parallel
+ * and swapped in whole, so readers never see a half-built matrix and never lock.
+ *
+ * The matrix is rebuilt at startup and then on a timer, the rows are streamed so the build holds the baskets
+ * but never the order, cart or wishlist entities.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class RelatedProductIndex {
+
+    static final float ORDER_WEIGHT = 3;
+    static final float CART_WEIGHT = 2;
+    static final float WISHLIST_WEIGHT = 1;
+
+    private final OrderItemRepository orderItemRepository;
+    private final CartItemRepository cartItemRepository;
+    private final WishListItemRepository wishListItemRepository;
+    private final TransactionTemplate readTemplate;
+
+    @Value("${store.related.max-neighbours:20}")
+    private int maxNeighbours = 20;
+
+    @Value("${store.related.max-basket-size:50}")
+    private int maxBasketSize = 50;
+
+    private volatile CoOccurrenceMatrix matrix = CoOccurrenceMatrix.empty();
+
+    @Autowired
+    public RelatedProductIndex(OrderItemRepository orderItemRepository,
+                               CartItemRepository cartItemRepository,
+                               WishListItemRepository wishListItemRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.orderItemRepository = orderItemRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.wishListItemRepository = wishListItemRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Rebuilds the matrix from every order, cart and wishlist. Runs once the application has started and then on a timer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${store.related.refresh-interval:3600000}",
+            initialDelayString = "${store.related.refresh-interval:3600000}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        CoOccurrenceMatrix.Builder builder = new CoOccurrenceMatrix.Builder(maxNeighbours, maxBasketSize);
+        readTemplate.executeWithoutResult(status -> {
+            try (Stream<OrderItemRepository.BasketItem> rows = orderItemRepository.streamBasketItems()) {
+                addBaskets(builder, rows, OrderItemRepository.BasketItem::getBasketId,
+                        OrderItemRepository.BasketItem::getProductId, ORDER_WEIGHT);
+            }
+            try (Stream<CartItemRepository.BasketItem> rows = cartItemRepository.streamBasketItems()) {
+                addBaskets(builder, rows, CartItemRepository.BasketItem::getBasketId,
+                        CartItemRepository.BasketItem::getProductId, CART_WEIGHT);
+            }
+            try (Stream<WishListItemRepository.BasketItem> rows = wishListItemRepository.streamBasketItems()) {
+                addBaskets(builder, rows, WishListItemRepository.BasketItem::getBasketId,
+                        WishListItemRepository.BasketItem::getProductId, WISHLIST_WEIGHT);
+            }
+        });
+        replace(builder.build());
+        log.info("Related products index built from {} baskets, {} products have related products, took {} ms",
+                builder.basketCount(), matrix.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Reads the products most often ordered, carted or wished for together with a product.
+     *
+     * @param productId the ID of the product
+     * @param limit     the maximum number of products to return
+     * @return the product ids, most related first
+     */
+    public long[] related(Long productId, int limit) {
+        if (productId == null) {
+            return new long[0];
+        }
+        return matrix.related(productId, limit);
+    }
+
+    void replace(CoOccurrenceMatrix matrix) {
+        this.matrix = matrix;
+    }
+
+    // The rows arrive ordered by basket, a basket ends where the basket id changes
+    static <T> void addBaskets(CoOccurrenceMatrix.Builder builder, Stream<T> rows, ToLongFunction<T> basketId,
+                               ToLongFunction<T> productId, float weight) {
+        long[] basket = new long[16];
+        int size = 0;
+        long current = 0;
+        for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+            T row = it.next();
+            long id = basketId.applyAsLong(row);
+            if (size > 0 && id != current) {
+                builder.add(Arrays.copyOf(basket, size), weight);
+                size = 0;
+            }
+            current = id;
+            if (size == basket.length) {
+                basket = Arrays.copyOf(basket, size * 2);
+            }
+            basket[size++] = productId.applyAsLong(row);
+        }
+        if (size > 0) {
+            builder.add(Arrays.copyOf(basket, size), weight);
+        }
+    }
+}
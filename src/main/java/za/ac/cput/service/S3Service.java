@@ -1,17 +1,40 @@
 package za.ac.cput.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import za.ac.cput.domain.PresignRequest;
+import za.ac.cput.domain.Presigned;
+import za.ac.cput.util.S3Keys;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * S3Service.java
  *
+ * Signs upload URLs for the product images. Signing is done locally, without a call to S3, but the editor
+ * uploads a cover and four images for many products at once, so URLs can be signed in batches, in parallel.
+ * A signature is reused for the same key and content type during the first half of its lifetime, so a
+ * reused URL is always valid for at least another five minutes.
+ *
+ * When the bucket is private (aws.s3.private-bucket) product images are served through signed read URLs.
+ * Those are cached by object key, so a product shown on every page is signed about once every 40 minutes
+ * rather than on every request. A cached URL is handed out while it stays valid for another read URL window
+ * and a margin, so a response revalidated within the window it was made in never carries an expired URL.
+ *
  * @author Rethabile Ntsekhe
  * Student Num: 220455430
  * @date 13-Aug-24
@@ -19,34 +42,170 @@ import java.time.Duration;
 @Service
 public class S3Service {
 
-    private final S3Presigner presigner;
+    static final Duration SIGNATURE_DURATION = Duration.ofMinutes(10);
+    static final Duration REUSE_WINDOW = SIGNATURE_DURATION.dividedBy(2);
+    static final Duration READ_SIGNATURE_DURATION = Duration.ofHours(1);
+    // A cached read URL is handed out until this long before it expires, enough for the page to load the image
+    static final Duration READ_URL_MARGIN = Duration.ofMinutes(5);
+    // Responses carrying read URLs are tagged with the window they were made in, see readUrlWindow
+    static final Duration READ_URL_WINDOW = Duration.ofMinutes(15);
 
-    // Inject the S3 bucket name from the application.properties
-    @Value("${aws.s3.bucket}")
-    private String bucketName;
+    private final S3Presigner presigner;
+    private final String bucketName;
+    private final String endpoint;
+    private final int maxBatchSize;
+    private final boolean privateBucket;
+    private final Cache<SignatureKey, Signature> signatures;
+    private final Cache<String, String> readUrls;
 
-    // Constructor with S3Presigner injected from S3Config
+    // Constructor with S3Presigner injected from S3Config and the bucket name from the application.properties
     @Autowired
-    public S3Service(S3Presigner presigner) {
+    public S3Service(S3Presigner presigner,
+                     @Value("${aws.s3.bucket}") String bucketName,
+                     @Value("${aws.s3.presign.cache-size:10000}") long cacheSize,
+                     @Value("${aws.s3.presign.max-batch-size:500}") int maxBatchSize,
+                     @Value("${aws.s3.private-bucket:false}") boolean privateBucket,
+                     @Value("${aws.s3.endpoint:}") String endpoint) {
         this.presigner = presigner;
+        this.bucketName = bucketName;
+        this.endpoint = endpoint;
+        this.maxBatchSize = maxBatchSize;
+        this.privateBucket = privateBucket;
+        this.signatures = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(REUSE_WINDOW)
+                .build();
+        this.readUrls = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(READ_SIGNATURE_DURATION.minus(READ_URL_WINDOW).minus(READ_URL_MARGIN))
+                .build();
+    }
+
+    /**
+     * @return true if objects can only be read through signed URLs
+     */
+    public boolean isPrivateBucket() {
+        return privateBucket;
+    }
+
+    /**
+     * Numbers the read URL windows. Read URLs handed out during a window stay valid until the window ends
+     * and a margin after, so a copy of a response that is revalidated during the window it was made in may be
+     * used as it is, and one made in an earlier window must be fetched again.
+     *
+     * @return the number of the current window, counted from the epoch
+     */
+    public long readUrlWindow() {
+        return Instant.now().getEpochSecond() / READ_URL_WINDOW.toSeconds();
+    }
+
+    /**
+     * Resolves the key of an image stored on a product.
+     *
+     * @param image the key or URL of the object
+     * @return the key, or null if there is no image
+     */
+    public String keyOf(String image) {
+        return S3Keys.keyOf(image, bucketName, endpoint);
+    }
+
+    /**
+     * Reads a signed URL to download an object, from the cache if one is still valid long enough.
+     *
+     * @param objectKey the key of the object
+     * @return the signed URL
+     */
+    public String readUrl(String objectKey) {
+        return readUrls.get(objectKey, this::signRead);
+    }
+
+    /**
+     * Reads signed download URLs for many objects at once, the ones not cached are signed in parallel.
+     *
+     * @param objectKeys the keys of the objects
+     * @return the signed URL of every key
+     */
+    public Map<String, String> readUrls(Collection<String> objectKeys) {
+        return readUrls.getAll(objectKeys, missing -> missing.parallelStream()
+                .collect(Collectors.toMap(Function.identity(), this::signRead)));
     }
 
     // Method to generate a presigned URL for uploading an object to S3
     public String generatePresignedUrl(String objectKey, String contentType) {
+        return presign(objectKey, contentType).getUrl();
+    }
+
+    /**
+     * Signs an upload URL for one object, reusing a recent signature of the same key and content type.
+     *
+     * @param objectKey   the key of the object to upload
+     * @param contentType the content type the upload will send
+     * @return the URL with the key, content type and time the signature expires
+     * @throws IllegalArgumentException if the key or content type is blank
+     */
+    public Presigned presign(String objectKey, String contentType) {
+        if (objectKey == null || objectKey.isBlank() || contentType == null || contentType.isBlank()) {
+            throw new IllegalArgumentException("The object key and content type are required");
+        }
+        Signature signature = signatures.get(new SignatureKey(objectKey, contentType), this::sign);
+        return Presigned.builder()
+                .url(signature.url())
+                .key(objectKey)
+                .contentType(contentType)
+                .expiresAt(signature.expiresAt())
+                .build();
+    }
+
+    /**
+     * Signs upload URLs for many objects in parallel.
+     *
+     * @param requests the keys and content types to sign
+     * @return the signed URLs, in the order of the requests
+     * @throws IllegalArgumentException if there are more requests than the batch limit or any is incomplete
+     */
+    public List<Presigned> presignAll(List<PresignRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " URLs can be signed at once");
+        }
+        if (requests.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("The batch contains an empty request");
+        }
+        return requests.parallelStream()
+                .map(request -> presign(request.getKey(), request.getContentType()))
+                .toList();
+    }
+
+    private Signature sign(SignatureKey key) {
         // Create a request to put an object in the S3 bucket
         PutObjectRequest objectRequest = PutObjectRequest.builder()
                 .bucket(bucketName)
-                .key(objectKey)
-                .contentType(contentType)
+                .key(key.objectKey())
+                .contentType(key.contentType())
                 .build();
 
         // Generate a presigned request for the PUT operation with a 10-minute expiration
         PresignedPutObjectRequest presignedRequest = presigner.presignPutObject(r ->
-                r.signatureDuration(Duration.ofMinutes(10))
+                r.signatureDuration(SIGNATURE_DURATION)
                         .putObjectRequest(objectRequest)
         );
 
-        // Return the presigned URL as a string
-        return presignedRequest.url().toString();
+        return new Signature(presignedRequest.url().toString(), presignedRequest.expiration());
+    }
+
+    private String signRead(String objectKey) {
+        GetObjectRequest objectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .build();
+        return presigner.presignGetObject(r -> r.signatureDuration(READ_SIGNATURE_DURATION)
+                        .getObjectRequest(objectRequest))
+                .url()
+                .toString();
+    }
+
+    private record SignatureKey(String objectKey, String contentType) {
+    }
+
+    private record Signature(String url, Instant expiresAt) {
     }
 }
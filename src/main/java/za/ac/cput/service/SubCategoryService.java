@@ -1,9 +1,13 @@
 package za.ac.cput.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import za.ac.cput.config.CacheConfig;
 import za.ac.cput.domain.SubCategory;
+import za.ac.cput.event.CatalogEvent;
 import za.ac.cput.repository.SubCategoryRepository;
 
 import java.util.List;
@@ -20,15 +24,19 @@ import java.util.List;
 public class SubCategoryService implements ISubCategory {
 
     private final SubCategoryRepository subCategoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public SubCategoryService(SubCategoryRepository subCategoryRepository) {
+    public SubCategoryService(SubCategoryRepository subCategoryRepository, ApplicationEventPublisher eventPublisher) {
         this.subCategoryRepository = subCategoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public SubCategory create(SubCategory subCategory) {
-        return subCategoryRepository.save(subCategory);
+        SubCategory createdSubCategory = subCategoryRepository.save(subCategory);
+        eventPublisher.publishEvent(CatalogEvent.created(SubCategory.class, createdSubCategory.getId(), createdSubCategory));
+        return createdSubCategory;
     }
 
     @Override
@@ -37,6 +45,7 @@ public class SubCategoryService implements ISubCategory {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCT_SKUS}, allEntries = true) // cached products embed their categories
     public SubCategory update(SubCategory subCategory) {
         SubCategory existingSubCategory = subCategoryRepository.findById(subCategory.getId()).orElse(null);
         if (existingSubCategory != null) {
@@ -49,17 +58,24 @@ public class SubCategoryService implements ISubCategory {
                     .setCreatedAt(existingSubCategory.getCreatedAt())
                     .setDeletedAt(existingSubCategory.getDeletedAt())
                     .build();
-            return subCategoryRepository.save(updatedSubCategory);
+            SubCategory savedSubCategory = subCategoryRepository.save(updatedSubCategory);
+            eventPublisher.publishEvent(CatalogEvent.updated(SubCategory.class, savedSubCategory.getId(), savedSubCategory,
+                    savedSubCategory.getDeletedAt()));
+            return savedSubCategory;
         } else {
             return null;
         }
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCT_SKUS}, allEntries = true)
     public boolean delete(Long id) {
         subCategoryRepository.deleteById(id);
 
         // Check if the entity still exists after deletion
         boolean exists = subCategoryRepository.existsById(id);
+        if (!exists) {
+            eventPublisher.publishEvent(CatalogEvent.deleted(SubCategory.class, id));
+        }
 
         // Return false if entity was deleted successfully, otherwise return true
         return !exists;
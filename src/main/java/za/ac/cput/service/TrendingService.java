@@ -0,0 +1,151 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import za.ac.cput.domain.TrendingSnapshot;
+import za.ac.cput.enums.TrendingWindow;
+import za.ac.cput.repository.TrendingSnapshotRepository;
+import za.ac.cput.util.SlidingWindowCounter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * TrendingService.java
+ *
+ * Counts product views and cart adds in memory over the last day, in five minute slices, and ranks the
+ * products trending over the last hour or day. Counting is lock-free and never touches the database,
+ * the ranking is written to the database only on a timer, as a snapshot of the top products.
+ *
+ * Counts live in this instance only, they start from zero after a restart and are not shared between instances.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class TrendingService {
+
+    // A cart add says more about interest than a view
+    static final long CART_ADD_WEIGHT = 5;
+    static final Duration SLICE = Duration.ofMinutes(5);
+
+    private final TrendingSnapshotRepository trendingSnapshotRepository;
+    private final SlidingWindowCounter views;
+    private final SlidingWindowCounter cartAdds;
+
+    @Value("${store.trending.snapshot-size:100}")
+    private int snapshotSize = 100;
+
+    @Autowired
+    public TrendingService(TrendingSnapshotRepository trendingSnapshotRepository) {
+        this(trendingSnapshotRepository, System::currentTimeMillis);
+    }
+
+    TrendingService(TrendingSnapshotRepository trendingSnapshotRepository, LongSupplier clock) {
+        this.trendingSnapshotRepository = trendingSnapshotRepository;
+        int slices = (int) (TrendingWindow.DAY.duration().toMillis() / SLICE.toMillis());
+        this.views = new SlidingWindowCounter(SLICE, slices, clock);
+        this.cartAdds = new SlidingWindowCounter(SLICE, slices, clock);
+    }
+
+    /**
+     * Counts a view of a product.
+     *
+     * @param productId the ID of the product
+     */
+    public void recordView(Long productId) {
+        if (productId != null) {
+            views.add(productId, 1);
+        }
+    }
+
+    /**
+     * Counts a product being added to a cart.
+     *
+     * @param productId the ID of the product
+     */
+    public void recordCartAdd(Long productId) {
+        if (productId != null) {
+            cartAdds.add(productId, 1);
+        }
+    }
+
+    /**
+     * Ranks the products by their views and cart adds within a window.
+     *
+     * @param window how far back to count
+     * @param limit  the maximum number of products to return
+     * @return the products with any activity in the window, highest score first, ties by lower product id
+     */
+    public List<Trend> top(TrendingWindow window, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Map<Long, Long> viewCounts = views.totals(window.duration());
+        Map<Long, Long> cartAddCounts = cartAdds.totals(window.duration());
+        Set<Long> productIds = new HashSet<>(viewCounts.keySet());
+        productIds.addAll(cartAddCounts.keySet());
+
+        // Keep the best in a heap of the limit, its head is the weakest kept
+        Comparator<Trend> ranking = Comparator.comparingLong(Trend::score).reversed()
+                .thenComparingLong(Trend::productId);
+        PriorityQueue<Trend> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (Long productId : productIds) {
+            long viewCount = viewCounts.getOrDefault(productId, 0L);
+            long cartAddCount = cartAddCounts.getOrDefault(productId, 0L);
+            best.add(new Trend(productId, viewCount, cartAddCount, viewCount + CART_ADD_WEIGHT * cartAddCount));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Trend> top = new ArrayList<>(best);
+        top.sort(ranking);
+        return top;
+    }
+
+    /**
+     * Writes the top products of the last day to the database.
+     */
+    @Scheduled(fixedDelayString = "${store.trending.snapshot-interval:900000}",
+            initialDelayString = "${store.trending.snapshot-interval:900000}")
+    public void snapshot() {
+        List<Trend> top = top(TrendingWindow.DAY, snapshotSize);
+        if (top.isEmpty()) {
+            return;
+        }
+        LocalDateTime takenAt = LocalDateTime.now();
+        List<TrendingSnapshot> rows = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            Trend trend = top.get(i);
+            rows.add(new TrendingSnapshot.Builder()
+                    .setProductId(trend.productId())
+                    .setRank(i + 1)
+                    .setViews(trend.views())
+                    .setCartAdds(trend.cartAdds())
+                    .setScore(trend.score())
+                    .setTakenAt(takenAt)
+                    .build());
+        }
+        trendingSnapshotRepository.saveAll(rows);
+        log.info("Saved a snapshot of the {} trending products", rows.size());
+    }
+
+    /**
+     * The activity of a product within a window.
+     */
+    public record Trend(long productId, long views, long cartAdds, long score) {
+    }
+}
@@ -0,0 +1,286 @@
+package za.ac.cput.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.ac.cput.domain.*;
+import za.ac.cput.enums.CatalogAction;
+import za.ac.cput.enums.ProductAttributeType;
+import za.ac.cput.enums.SuggestionType;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.*;
+import za.ac.cput.util.CompletionTrie;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * TypeaheadService.java
+ *
+ * Completes what a shopper has typed so far to product, category, sub-category and brand names.
+ * Every name is indexed in a {@link CompletionTrie} under the whole name and under each later word,
+ * so "air" finds "Nike Air Max". Each trie node caches its best completions, a lookup only walks the prefix.
+ *
+ * Completions are ranked by popularity: units ordered for products, SKUs for brands and products filed
+ * under them for categories and sub-categories. Names follow committed catalog writes straight away,
+ * popularity is recounted when the trie is rebuilt on a timer. Writes that arrive while a rebuild reads the
+ * tables are recorded and replayed onto the loaded trie before it is swapped in.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+@Slf4j
+@Service
+public class TypeaheadService {
+
+    public static final int MAX_LIMIT = 10;
+    // Room above MAX_LIMIT, a suggestion reachable through several words of its name takes one slot per word
+    private static final int CACHE_SIZE = 16;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final SubCategoryRepository subCategoryRepository;
+    private final ProductAttributeRepository productAttributeRepository;
+    private final ProductSkuRepository productSkuRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private CompletionTrie<Suggestion> trie = new CompletionTrie<>(CACHE_SIZE);
+    private Map<SuggestionType, Map<Long, Entry>> entries = emptyEntries();
+    // Writes applied while a rebuild reads the tables, null when no rebuild runs; guarded by lock
+    private List<Change> replay;
+    // One rebuild at a time, they would share the replay list
+    private final Object rebuildLock = new Object();
+
+    @Autowired
+    public TypeaheadService(ProductRepository productRepository,
+                            CategoryRepository categoryRepository,
+                            SubCategoryRepository subCategoryRepository,
+                            ProductAttributeRepository productAttributeRepository,
+                            ProductSkuRepository productSkuRepository,
+                            OrderItemRepository orderItemRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.subCategoryRepository = subCategoryRepository;
+        this.productAttributeRepository = productAttributeRepository;
+        this.productSkuRepository = productSkuRepository;
+        this.orderItemRepository = orderItemRepository;
+    }
+
+    /**
+     * Loads every name and its popularity and swaps in a new trie.
+     * Runs once the application has started and then on a timer to refresh the popularity.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${store.typeahead.refresh-interval:3600000}",
+            initialDelayString = "${store.typeahead.refresh-interval:3600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                replay = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                load();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    replay = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private void load() {
+        Map<Long, Long> unitsByProduct = new HashMap<>();
+        orderItemRepository.sumUnitsByProduct().forEach(row -> unitsByProduct.put(row.getProductId(), row.getUnits()));
+        Map<Long, Long> skusByBrand = new HashMap<>();
+        productSkuRepository.countByBrand().forEach(row -> skusByBrand.put(row.getBrandAttributeId(), row.getSkuCount()));
+        Map<Long, Long> productsBySubCategory = new HashMap<>();
+        productRepository.countBySubCategory().forEach(row ->
+                productsBySubCategory.put(row.getSubCategoryId(), row.getProductCount()));
+
+        CompletionTrie<Suggestion> loaded = new CompletionTrie<>(CACHE_SIZE);
+        Map<SuggestionType, Map<Long, Entry>> loadedEntries = emptyEntries();
+
+        productRepository.findAllNames().forEach(row -> put(loaded, loadedEntries, SuggestionType.PRODUCT,
+                row.getId(), row.getName(), unitsByProduct.getOrDefault(row.getId(), 0L)));
+
+        Map<Long, Long> productsByCategory = new HashMap<>();
+        for (SubCategory subCategory : subCategoryRepository.findAll()) {
+            long products = productsBySubCategory.getOrDefault(subCategory.getId(), 0L);
+            if (subCategory.getCategory() != null) {
+                productsByCategory.merge(subCategory.getCategory().getId(), products, Long::sum);
+            }
+            put(loaded, loadedEntries, SuggestionType.SUB_CATEGORY, subCategory.getId(), subCategory.getName(), products);
+        }
+        categoryRepository.findAll().forEach(category -> put(loaded, loadedEntries, SuggestionType.CATEGORY,
+                category.getId(), category.getName(), productsByCategory.getOrDefault(category.getId(), 0L)));
+        productAttributeRepository.findByType(ProductAttributeType.BRAND).forEach(brand -> put(loaded, loadedEntries,
+                SuggestionType.BRAND, brand.getId(), brand.getValue(), skusByBrand.getOrDefault(brand.getId(), 0L)));
+
+        lock.writeLock().lock();
+        try {
+            replay.forEach(change -> change.applyTo(loaded, loadedEntries));
+            trie = loaded;
+            entries = loadedEntries;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Typeahead loaded {} keys", loaded.size());
+    }
+
+    /**
+     * Applies a committed product write.
+     *
+     * @param event the product event published by ProductService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProduct(CatalogEvent<Product> event) {
+        apply(SuggestionType.PRODUCT, event, Product::getName);
+    }
+
+    /**
+     * Applies a committed category write.
+     *
+     * @param event the category event published by CategoryService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategory(CatalogEvent<Category> event) {
+        apply(SuggestionType.CATEGORY, event, Category::getName);
+    }
+
+    /**
+     * Applies a committed sub-category write.
+     *
+     * @param event the sub-category event published by SubCategoryService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubCategory(CatalogEvent<SubCategory> event) {
+        apply(SuggestionType.SUB_CATEGORY, event, SubCategory::getName);
+    }
+
+    /**
+     * Applies a committed attribute write, only brands are suggested.
+     * An attribute whose type changed away from BRAND is removed.
+     *
+     * @param event the attribute event published by ProductAttributeService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttribute(CatalogEvent<ProductAttribute> event) {
+        apply(SuggestionType.BRAND, event, attribute ->
+                attribute.getType() == ProductAttributeType.BRAND ? attribute.getValue() : null);
+    }
+
+    /**
+     * Completes a partly typed name.
+     *
+     * @param query what has been typed so far, case and punctuation are ignored
+     * @param limit the maximum number of suggestions, at most {@link #MAX_LIMIT}
+     * @return the suggestions, most popular first
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        String prefix = String.join(" ", words(query));
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.complete(prefix, Math.min(limit, MAX_LIMIT));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> void apply(SuggestionType type, CatalogEvent<T> event, Function<T, String> name) {
+        String text = event.getAction() == CatalogAction.DELETED || event.getEntity() == null
+                ? null
+                : name.apply(event.getEntity());
+        Change change = new Change(type, event.getId(), text);
+        lock.writeLock().lock();
+        try {
+            change.applyTo(trie, entries);
+            if (replay != null) {
+                replay.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void put(CompletionTrie<Suggestion> trie, Map<SuggestionType, Map<Long, Entry>> entries,
+                            SuggestionType type, Long id, String text, long weight) {
+        if (id == null || text == null || text.isBlank()) {
+            return;
+        }
+        Suggestion suggestion = Suggestion.builder().type(type).id(id).text(text).build();
+        keys(text).forEach(key -> trie.put(key, suggestion, weight));
+        entries.get(type).put(id, new Entry(suggestion, weight));
+    }
+
+    /**
+     * The keys a name is indexed under: the whole name and every run of words that ends the name,
+     * "nike air max" gives "nike air max", "air max" and "max".
+     */
+    static Set<String> keys(String text) {
+        List<String> words = words(text);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            keys.add(String.join(" ", words.subList(i, words.size())));
+        }
+        return keys;
+    }
+
+    // Lowercase runs of letters and digits
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static Map<SuggestionType, Map<Long, Entry>> emptyEntries() {
+        Map<SuggestionType, Map<Long, Entry>> entries = new EnumMap<>(SuggestionType.class);
+        for (SuggestionType type : SuggestionType.values()) {
+            entries.put(type, new HashMap<>());
+        }
+        return entries;
+    }
+
+    private record Entry(Suggestion suggestion, long weight) {
+    }
+
+    // The name an entry has after a write, null once it is deleted or no longer suggested
+    private record Change(SuggestionType type, Long id, String text) {
+
+        void applyTo(CompletionTrie<Suggestion> trie, Map<SuggestionType, Map<Long, Entry>> entries) {
+            Entry previous = entries.get(type).get(id);
+            if (previous != null && previous.suggestion().getText().equals(text)) {
+                return;
+            }
+            if (previous != null) {
+                entries.get(type).remove(id);
+                keys(previous.suggestion().getText()).forEach(key -> trie.remove(key, previous.suggestion()));
+            }
+            // a renamed entry keeps its popularity until the next rebuild
+            put(trie, entries, type, id, text, previous == null ? 0 : previous.weight());
+        }
+    }
+}
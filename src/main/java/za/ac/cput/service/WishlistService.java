@@ -9,7 +9,6 @@ import za.ac.cput.domain.Wishlist;
 import za.ac.cput.repository.WishlistRepository;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * WishlistService.java
@@ -116,9 +115,7 @@ public class WishlistService implements iWishlist {
     @Override
     @Transactional(readOnly = true)
     public List<Wishlist> findAll() {
-        // this method will now ignore rows where deleted at is not null
-        return wishlistRepository.findAll().stream()
-                .filter(wishlist -> wishlist.getDeletedAt() == null)
-                .collect(Collectors.toList());
+        // soft-deleted wishlists are filtered by the database, see the active filter on Wishlist
+        return wishlistRepository.findAll();
     }
 }
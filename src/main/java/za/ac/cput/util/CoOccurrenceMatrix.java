@@ -0,0 +1,264 @@
+package za.ac.cput.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * CoOccurrenceMatrix.java
+ *
+ * Immutable "bought together" table: for every item, the items that appeared in the most baskets with it.
+ * Only the best few neighbours of each item are kept, in compressed sparse rows of primitive arrays:
+ * the item ids sorted for binary search, an offset per item, and the neighbour indexes and scores.
+ *
+ * The matrix is built by a Builder from baskets of item ids. Every basket adds its weight to each pair of
+ * distinct items in it. The rows are computed in parallel, one item at a time on each core.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class CoOccurrenceMatrix {
+
+    private static final CoOccurrenceMatrix EMPTY = new CoOccurrenceMatrix(new long[0], new int[1], new int[0], new float[0]);
+
+    private final long[] ids;
+    // Row i is neighbours[offsets[i]] to neighbours[offsets[i + 1] - 1], best first
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final float[] scores;
+
+    private CoOccurrenceMatrix(long[] ids, int[] offsets, int[] neighbours, float[] scores) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.scores = scores;
+    }
+
+    /**
+     * @return a matrix without items
+     */
+    public static CoOccurrenceMatrix empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Reads the items seen most often together with an item.
+     *
+     * @param id    the item
+     * @param limit the maximum number of items to return
+     * @return the item ids, highest score first, empty if the item was never in a basket with another
+     */
+    public long[] related(long id, int limit) {
+        int row = Arrays.binarySearch(ids, id);
+        if (row < 0 || limit <= 0) {
+            return new long[0];
+        }
+        int from = offsets[row];
+        int to = Math.min(offsets[row + 1], from + limit);
+        long[] related = new long[to - from];
+        for (int i = from; i < to; i++) {
+            related[i - from] = ids[neighbours[i]];
+        }
+        return related;
+    }
+
+    /**
+     * Reads the score of a pair of items, the summed weight of the baskets they shared,
+     * as long as the second item is one of the kept neighbours of the first.
+     *
+     * @param id      the item
+     * @param otherId the other item
+     * @return the score, 0 if the pair was not kept
+     */
+    public float score(long id, long otherId) {
+        int row = Arrays.binarySearch(ids, id);
+        int other = Arrays.binarySearch(ids, otherId);
+        if (row < 0 || other < 0) {
+            return 0;
+        }
+        for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+            if (neighbours[i] == other) {
+                return scores[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the number of items that have at least one neighbour
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (offsets[i + 1] > offsets[i]) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Collects baskets and builds the matrix. Not thread-safe.
+     */
+    public static class Builder {
+
+        private final int maxNeighbours;
+        private final int maxBasketSize;
+        private final List<long[]> baskets = new ArrayList<>();
+        private float[] weights = new float[64];
+
+        /**
+         * @param maxNeighbours the number of neighbours kept per item
+         * @param maxBasketSize baskets with more distinct items are ignored, they say little about any pair
+         *                      and cost the square of their size
+         */
+        public Builder(int maxNeighbours, int maxBasketSize) {
+            if (maxNeighbours <= 0 || maxBasketSize < 2) {
+                throw new IllegalArgumentException("At least one neighbour and baskets of two items are needed");
+            }
+            this.maxNeighbours = maxNeighbours;
+            this.maxBasketSize = maxBasketSize;
+        }
+
+        /**
+         * Adds a basket. Repeated items count once, baskets with a single distinct item are ignored.
+         *
+         * @param itemIds the items in the basket
+         * @param weight  what each pair in the basket adds to its score
+         */
+        public void add(long[] itemIds, float weight) {
+            long[] distinct = Arrays.stream(itemIds).sorted().distinct().toArray();
+            if (distinct.length < 2 || distinct.length > maxBasketSize || weight <= 0) {
+                return;
+            }
+            if (baskets.size() == weights.length) {
+                weights = Arrays.copyOf(weights, weights.length * 2);
+            }
+            weights[baskets.size()] = weight;
+            baskets.add(distinct);
+        }
+
+        /**
+         * @return the number of baskets added so far
+         */
+        public int basketCount() {
+            return baskets.size();
+        }
+
+        /**
+         * Builds the matrix from the baskets added so far.
+         *
+         * @return the matrix
+         */
+        public CoOccurrenceMatrix build() {
+            long[] ids = baskets.stream().flatMapToLong(Arrays::stream).sorted().distinct().toArray();
+            if (ids.length == 0) {
+                return EMPTY;
+            }
+
+            // Baskets as item indexes, and for every item the baskets it is in
+            int[][] items = new int[baskets.size()][];
+            int[] basketCounts = new int[ids.length + 1];
+            for (int b = 0; b < items.length; b++) {
+                long[] basket = baskets.get(b);
+                items[b] = new int[basket.length];
+                for (int k = 0; k < basket.length; k++) {
+                    items[b][k] = Arrays.binarySearch(ids, basket[k]);
+                    basketCounts[items[b][k] + 1]++;
+                }
+            }
+            int[] basketOffsets = new int[ids.length + 1];
+            for (int i = 0; i < ids.length; i++) {
+                basketOffsets[i + 1] = basketOffsets[i] + basketCounts[i + 1];
+            }
+            int[] basketsOfItem = new int[basketOffsets[ids.length]];
+            int[] next = Arrays.copyOf(basketOffsets, ids.length);
+            for (int b = 0; b < items.length; b++) {
+                for (int item : items[b]) {
+                    basketsOfItem[next[item]++] = b;
+                }
+            }
+
+            int[][] rowNeighbours = new int[ids.length][];
+            float[][] rowScores = new float[ids.length][];
+            ThreadLocal<Row> rows = ThreadLocal.withInitial(() -> new Row(ids.length, maxNeighbours));
+            IntStream.range(0, ids.length).parallel().forEach(item -> {
+                Row row = rows.get();
+                for (int k = basketOffsets[item]; k < basketOffsets[item + 1]; k++) {
+                    int b = basketsOfItem[k];
+                    for (int other : items[b]) {
+                        if (other != item) {
+                            row.add(other, weights[b]);
+                        }
+                    }
+                }
+                row.top(item, rowNeighbours, rowScores);
+            });
+
+            int[] offsets = new int[ids.length + 1];
+            for (int i = 0; i < ids.length; i++) {
+                offsets[i + 1] = offsets[i] + rowNeighbours[i].length;
+            }
+            int[] neighbours = new int[offsets[ids.length]];
+            float[] scores = new float[offsets[ids.length]];
+            for (int i = 0; i < ids.length; i++) {
+                System.arraycopy(rowNeighbours[i], 0, neighbours, offsets[i], rowNeighbours[i].length);
+                System.arraycopy(rowScores[i], 0, scores, offsets[i], rowScores[i].length);
+            }
+            return new CoOccurrenceMatrix(ids, offsets, neighbours, scores);
+        }
+    }
+
+    // Scratch space of one build thread: the scores of the current row and the items it touched
+    private static final class Row {
+
+        private final float[] scores;
+        private final int[] touched;
+        private int touchedCount;
+        private final int[] best;
+        private final float[] bestScores;
+
+        private Row(int items, int maxNeighbours) {
+            this.scores = new float[items];
+            this.touched = new int[items];
+            this.best = new int[maxNeighbours];
+            this.bestScores = new float[maxNeighbours];
+        }
+
+        private void add(int item, float weight) {
+            if (scores[item] == 0) {
+                touched[touchedCount++] = item;
+            }
+            scores[item] += weight;
+        }
+
+        // Keeps the highest scores, ties go to the lower index, then resets the scratch space
+        private void top(int row, int[][] rowNeighbours, float[][] rowScores) {
+            int count = 0;
+            for (int t = 0; t < touchedCount; t++) {
+                int item = touched[t];
+                float score = scores[item];
+                scores[item] = 0;
+                int position = count;
+                while (position > 0 && (bestScores[position - 1] < score
+                        || (bestScores[position - 1] == score && best[position - 1] > item))) {
+                    position--;
+                }
+                if (position >= best.length) {
+                    continue;
+                }
+                int end = Math.min(count, best.length - 1);
+                System.arraycopy(best, position, best, position + 1, end - position);
+                System.arraycopy(bestScores, position, bestScores, position + 1, end - position);
+                best[position] = item;
+                bestScores[position] = score;
+                count = Math.min(count + 1, best.length);
+            }
+            touchedCount = 0;
+            rowNeighbours[row] = Arrays.copyOf(best, count);
+            rowScores[row] = Arrays.copyOf(bestScores, count);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package za.ac.cput.util;
+
+import java.util.*;
+
+/**
+ * CompletionTrie.java
+ *
+ * Compressed prefix trie (radix tree) that maps keys to weighted values and answers "top k completions of a prefix".
+ * Every node caches the best completions found anywhere below it, so a lookup walks the prefix and returns
+ * that list without visiting the subtree. Writes re-rank only the nodes on the path to the changed key.
+ * A value may be stored under several keys, it is returned once per lookup.
+ *
+ * Not thread-safe, callers guard it.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class CompletionTrie<V> {
+
+    // Highest weight first, then the shortest key, so an exact word beats a longer phrase with the same weight
+    private final Comparator<Completion<V>> order = Comparator
+            .comparingLong((Completion<V> completion) -> completion.weight()).reversed()
+            .thenComparingInt(completion -> completion.key().length())
+            .thenComparing(Completion::key);
+
+    private final int cacheSize;
+    private Node<V> root = new Node<>("");
+    private int size;
+
+    /**
+     * @param cacheSize the number of completions cached per node, the most a lookup can return
+     */
+    public CompletionTrie(int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Stores a value under a key, replacing the weight it had under that key.
+     *
+     * @param key    the key
+     * @param value  the value
+     * @param weight the rank of the value, higher first
+     */
+    public void put(String key, V value, long weight) {
+        Deque<Node<V>> path = new ArrayDeque<>();
+        Node<V> node = root;
+        path.push(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node<V> child = node.children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node<>(key.substring(i));
+                node.children.put(key.charAt(i), child);
+                node = child;
+                path.push(node);
+                break;
+            }
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // split the edge, the new node takes over the shared part of the label
+                Node<V> split = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            i += common;
+            node = child;
+            path.push(node);
+        }
+
+        if (!node.values.removeIf(completion -> completion.value().equals(value))) {
+            size++;
+        }
+        node.values.add(new Completion<>(value, weight, key));
+        path.forEach(this::rank);
+    }
+
+    /**
+     * Removes a value from a key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true if the value was stored under the key
+     */
+    public boolean remove(String key, V value) {
+        List<Node<V>> path = new ArrayList<>();
+        Node<V> node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node<V> child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return false;
+            }
+            i += child.label.length();
+            node = child;
+            path.add(node);
+        }
+        if (!node.values.removeIf(completion -> completion.value().equals(value))) {
+            return false;
+        }
+        size--;
+
+        // keep the trie compressed: drop empty leaves and merge nodes left with a single child
+        for (int depth = path.size() - 1; depth > 0; depth--) {
+            Node<V> current = path.get(depth);
+            Node<V> parent = path.get(depth - 1);
+            if (!current.values.isEmpty()) {
+                break;
+            }
+            if (current.children.isEmpty()) {
+                parent.children.remove(current.label.charAt(0));
+            } else if (current.children.size() == 1) {
+                Node<V> child = current.children.values().iterator().next();
+                child.label = current.label + child.label;
+                parent.children.put(child.label.charAt(0), child);
+                path.set(depth, child);
+                break;
+            } else {
+                break;
+            }
+        }
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            rank(path.get(depth));
+        }
+        return true;
+    }
+
+    /**
+     * Looks up the best values stored under keys that start with the prefix.
+     *
+     * @param prefix the prefix, the empty string matches every key
+     * @param limit  the maximum number of values, at most the cache size is returned
+     * @return the values, best first
+     */
+    public List<V> complete(String prefix, int limit) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node<V> child = node.children.get(prefix.charAt(i));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefixLength(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                // the prefix ends on or inside this edge, everything below it matches
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+            i += common;
+            node = child;
+        }
+        List<Completion<V>> top = node.top;
+        List<V> values = new ArrayList<>(Math.min(limit, top.size()));
+        for (int k = 0; k < top.size() && k < limit; k++) {
+            values.add(top.get(k).value());
+        }
+        return values;
+    }
+
+    /**
+     * @return the number of (key, value) pairs stored
+     */
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root = new Node<>("");
+        size = 0;
+    }
+
+    private void rank(Node<V> node) {
+        List<Completion<V>> candidates = new ArrayList<>(node.values);
+        node.children.values().forEach(child -> candidates.addAll(child.top));
+        candidates.sort(order);
+
+        List<Completion<V>> top = new ArrayList<>(Math.min(cacheSize, candidates.size()));
+        Set<V> seen = new HashSet<>();
+        for (Completion<V> candidate : candidates) {
+            if (top.size() == cacheSize) {
+                break;
+            }
+            if (seen.add(candidate.value())) {
+                top.add(candidate);
+            }
+        }
+        node.top = top;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private record Completion<V>(V value, long weight, String key) {
+    }
+
+    private static final class Node<V> {
+        private String label;
+        private final Map<Character, Node<V>> children = new HashMap<>(4);
+        private final List<Completion<V>> values = new ArrayList<>(1);
+        private List<Completion<V>> top = List.of();
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package za.ac.cput.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor.java
+ *
+ * Encodes and decodes the opaque cursor tokens used by keyset-paginated listings.
+ * A cursor carries the id of the last row on the previous page, clients must treat it as opaque.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class Cursor {
+
+    private static final String PREFIX = "v1:";
+
+    public static String encode(Long lastId) {
+        if (lastId == null) {
+            return null;
+        }
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Decodes a cursor back to the id it was created from.
+     *
+     * @param cursor the cursor token, may be null or empty for the first page
+     * @return the id to continue after, 0 for the first page
+     * @throws IllegalArgumentException if the cursor is not a valid token
+     */
+    public static long decode(String cursor) {
+        if (Helper.isNullOrEmpty(cursor)) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 decoding errors are both IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package za.ac.cput.util;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+/**
+ * ImageResizer.java
+ *
+ * Scales images down with the JDK's ImageIO and Java 2D, keeping the aspect ratio. Large reductions are done
+ * in halving steps, a single bilinear step from a photo to a thumbnail skips most of the source pixels and
+ * looks jagged. Images with transparency are written as PNG, everything else as JPEG.
+ *
+ * The size of an image is read from its header before it is decoded, a few kilobytes of PNG can declare
+ * enough pixels to fill the heap.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public final class ImageResizer {
+
+    private ImageResizer() {
+    }
+
+    /**
+     * Decodes an image, unless its header declares more pixels than allowed.
+     *
+     * @param in        the encoded image, not closed
+     * @param maxPixels the most pixels, width times height, the image may have
+     * @return the image, or null if the bytes are not an image ImageIO can read
+     * @throws ImageTooLargeException if the image has more pixels than allowed
+     */
+    public static BufferedImage read(InputStream in, long maxPixels) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new ImageTooLargeException(reader.getWidth(0) + "x" + reader.getHeight(0)
+                            + " is more than " + maxPixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IIOException e) {
+            // Readers wrap failures of the stream too, only a corrupt header or body means it is not an image
+            if (e.getCause() instanceof IOException cause && !(cause instanceof IIOException)) {
+                throw new UncheckedIOException(cause);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Scales an image so its longest side is at most a given size. Smaller images are returned as they are.
+     *
+     * @param image   the image
+     * @param maxSize the longest side of the result in pixels
+     * @return the scaled image
+     */
+    public static BufferedImage resize(BufferedImage image, int maxSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (width <= maxSize && height <= maxSize) {
+            return image;
+        }
+        double scale = (double) maxSize / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * @param image the image
+     * @return png if the image has transparency, jpg otherwise
+     */
+    public static String formatOf(BufferedImage image) {
+        return image.getColorModel().hasAlpha() ? "png" : "jpg";
+    }
+
+    /**
+     * Encodes an image in the format chosen by {@link #formatOf(BufferedImage)}.
+     *
+     * @param image the image
+     * @return the encoded bytes
+     */
+    public static byte[] encode(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if (!ImageIO.write(image, formatOf(image), out)) {
+                throw new IllegalStateException("No ImageIO writer for " + formatOf(image));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * Thrown when an image is too large to be decoded.
+     */
+    public static class ImageTooLargeException extends RuntimeException {
+        public ImageTooLargeException(String message) {
+            super(message);
+        }
+    }
+}
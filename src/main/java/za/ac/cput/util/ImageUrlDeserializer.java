@@ -0,0 +1,30 @@
+package za.ac.cput.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * ImageUrlDeserializer.java
+ *
+ * Reads a product image field. A client that saves a product it read from a private bucket sends the signed
+ * read URLs back, the signature is dropped so the product keeps pointing at the object and not at a URL that
+ * stops working within the hour.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class ImageUrlDeserializer extends StdDeserializer<String> {
+
+    public ImageUrlDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        return S3Keys.withoutSignature(parser.getValueAsString());
+    }
+}
@@ -0,0 +1,46 @@
+package za.ac.cput.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import za.ac.cput.service.S3Service;
+
+import java.io.IOException;
+
+/**
+ * ImageUrlSerializer.java
+ *
+ * Writes a product image field. With a private bucket the stored key or URL is replaced by a signed read URL,
+ * taken from the S3Service cache, which the response advice fills for the whole response before it is written.
+ * Otherwise, or in an ObjectMapper not created by Spring, the value is written as it is.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class ImageUrlSerializer extends StdSerializer<String> {
+
+    private final S3Service s3Service;
+
+    public ImageUrlSerializer() {
+        this(null);
+    }
+
+    // Spring's handler instantiator creates the serializer as a bean
+    @Autowired
+    public ImageUrlSerializer(S3Service s3Service) {
+        super(String.class);
+        this.s3Service = s3Service;
+    }
+
+    @Override
+    public void serialize(String value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (s3Service == null || !s3Service.isPrivateBucket()) {
+            generator.writeString(value);
+            return;
+        }
+        String key = s3Service.keyOf(value);
+        generator.writeString(key == null ? value : s3Service.readUrl(key));
+    }
+}
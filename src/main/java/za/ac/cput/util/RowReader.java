@@ -0,0 +1,186 @@
+package za.ac.cput.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import za.ac.cput.enums.ImportFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RowReader.java
+ *
+ * Reads a CSV or NDJSON body one line at a time and turns every line into a map of field name to value,
+ * so an import never holds more than the current line in memory.
+ * CSV files must start with a header line, fields may be quoted with double quotes and a quoted field may
+ * span lines, the row then takes the number of the line it starts on.
+ * NDJSON lines are flat JSON objects, array values are joined with ';'.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class RowReader implements AutoCloseable {
+
+    // A quote that is never closed would otherwise read the rest of the file into one row
+    static final int MAX_ROW_LENGTH = 1 << 20;
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long lineNumber;
+
+    public RowReader(InputStream in, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the next non-blank row.
+     *
+     * @return the next row, or null at the end of the input
+     * @throws UncheckedIOException if the body cannot be read
+     */
+    public Row next() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                long firstLine = lineNumber;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    if (format == ImportFormat.CSV) {
+                        line = completeCsvRow(line);
+                        if (header == null) {
+                            header = parseCsvLine(line).stream().map(String::trim).toList();
+                            continue;
+                        }
+                    }
+                    return new Row(firstLine, format == ImportFormat.CSV ? csvRow(line) : jsonRow(line), null);
+                } catch (IllegalArgumentException | IOException e) {
+                    return new Row(firstLine, Map.of(), "Malformed line: " + e.getMessage());
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Joins the following lines while a quoted field is still open, an odd number of quotes means it is
+    private String completeCsvRow(String line) throws IOException {
+        if (quotes(line) % 2 == 0) {
+            return line;
+        }
+        StringBuilder row = new StringBuilder(line);
+        long count = quotes(line);
+        String next;
+        while (count % 2 != 0 && (next = reader.readLine()) != null) {
+            lineNumber++;
+            row.append('\n').append(next);
+            count += quotes(next);
+            if (row.length() > MAX_ROW_LENGTH) {
+                throw new IllegalArgumentException("quoted field longer than " + MAX_ROW_LENGTH + " characters");
+            }
+        }
+        // still open at the end of the input, parseCsvLine reports it
+        return row.toString();
+    }
+
+    private static long quotes(String line) {
+        return line.chars().filter(c -> c == '"').count();
+    }
+
+    private Map<String, String> csvRow(String line) {
+        List<String> values = parseCsvLine(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " fields but found " + values.size());
+        }
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            row.put(header.get(i), values.get(i).trim());
+        }
+        return row;
+    }
+
+    private Map<String, String> jsonRow(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("expected a JSON object");
+        }
+        Map<String, String> row = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (value.isArray()) {
+                List<String> items = new ArrayList<>();
+                value.forEach(item -> items.add(item.asText()));
+                row.put(field.getKey(), String.join(";", items));
+            } else if (!value.isNull()) {
+                row.put(field.getKey(), value.asText());
+            }
+        }
+        return row;
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * One line of the import, either its fields or the reason it could not be parsed.
+     */
+    public record Row(long line, Map<String, String> fields, String error) {
+
+        public String get(String name) {
+            String value = fields.get(name);
+            return Helper.isNullOrEmpty(value) ? null : value;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package za.ac.cput.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import za.ac.cput.enums.ImportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * RowWriter.java
+ *
+ * Writes rows as CSV or NDJSON, the counterpart of RowReader, so an export never holds more than
+ * the current row besides the output buffer.
+ * CSV output starts with a header line, fields containing a comma, a quote or a line break are quoted.
+ * NDJSON lines are flat JSON objects, numbers stay numbers and collections are written as arrays.
+ * In CSV, collections are joined with ';', the form the import accepts.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class RowWriter {
+
+    private final Writer writer;
+    private final ImportFormat format;
+    private final List<String> columns;
+    private final JsonGenerator generator;
+
+    public RowWriter(OutputStream out, ImportFormat format, List<String> columns, ObjectMapper objectMapper) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        this.columns = List.copyOf(columns);
+        try {
+            if (format == ImportFormat.CSV) {
+                this.generator = null;
+                writeCsvLine(this.columns);
+            } else {
+                this.generator = objectMapper.getFactory().createGenerator(writer);
+                // the writer is flushed by this class, the generator must not close it
+                this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                this.generator.setRootValueSeparator(null);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes one row.
+     *
+     * @param values the values in the order of the columns, null values are written as empty fields
+     *               in CSV and left out in NDJSON
+     * @throws UncheckedIOException if the output cannot be written, e.g. the client went away
+     */
+    public void write(Object... values) {
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("expected " + columns.size() + " values but got " + values.length);
+        }
+        try {
+            if (format == ImportFormat.CSV) {
+                writeCsvLine(Arrays.stream(values).map(RowWriter::csvValue).toList());
+            } else {
+                writeJsonLine(values);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes out what is buffered, the underlying stream is left open.
+     */
+    public void flush() {
+        try {
+            if (generator != null) {
+                generator.flush();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsvLine(List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(quote(fields.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    private void writeJsonLine(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            generator.writeFieldName(columns.get(i));
+            if (value instanceof Collection<?> collection) {
+                generator.writeStartArray();
+                for (Object item : collection) {
+                    writeJsonValue(item);
+                }
+                generator.writeEndArray();
+            } else {
+                writeJsonValue(value);
+            }
+        }
+        generator.writeEndObject();
+        generator.flush();
+        writer.write('\n');
+    }
+
+    private void writeJsonValue(Object value) throws IOException {
+        if (value instanceof Long || value instanceof Integer) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Number number) {
+            generator.writeNumber(number.doubleValue());
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.stream().map(String::valueOf).collect(Collectors.joining(";"));
+        }
+        return value.toString();
+    }
+
+    static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
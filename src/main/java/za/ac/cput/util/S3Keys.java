@@ -0,0 +1,88 @@
+package za.ac.cput.util;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * S3Keys.java
+ *
+ * Resolves the S3 key of an image stored on a product. Products may hold the key itself or a URL of the
+ * object, virtual-hosted (bucket.s3.region.amazonaws.com/key) or path style (host/bucket/key), and a URL
+ * may still carry the query string of a signature. URLs are only read as keys when they point at the bucket on
+ * AWS or on the configured endpoint, a URL of any other site is not an object of the bucket.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public final class S3Keys {
+
+    private S3Keys() {
+    }
+
+    /**
+     * @param image    the key or URL of an object
+     * @param bucket   the bucket the object is in
+     * @param endpoint the configured S3 endpoint, blank or null for AWS
+     * @return the key, or null if there is no image, it cannot be parsed or it is a URL of another host or bucket
+     */
+    public static String keyOf(String image, String bucket, String endpoint) {
+        if (image == null || image.isBlank()) {
+            return null;
+        }
+        String key = image.trim();
+        String lower = key.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("http://") || lower.startsWith("https://")) {
+            URI uri;
+            try {
+                uri = URI.create(key);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+            key = uri.getPath() == null ? "" : uri.getPath().replaceFirst("^/+", "");
+            String endpointHost = hostOf(endpoint);
+            if (host.startsWith(bucket + ".") && isS3Host(host.substring(bucket.length() + 1), endpointHost)) {
+                return key.isEmpty() ? null : key;
+            }
+            if (!isS3Host(host, endpointHost) || !key.startsWith(bucket + "/")) {
+                return null;
+            }
+            key = key.substring(bucket.length() + 1);
+        }
+        return key.isEmpty() ? null : key;
+    }
+
+    // An AWS S3 host such as s3.amazonaws.com or s3.us-east-1.amazonaws.com, or the host of the configured endpoint
+    private static boolean isS3Host(String host, String endpointHost) {
+        if (host.equals(endpointHost)) {
+            return true;
+        }
+        return (host.startsWith("s3.") || host.startsWith("s3-"))
+                && (host.endsWith(".amazonaws.com") || host.endsWith(".amazonaws.com.cn"));
+    }
+
+    private static String hostOf(String endpoint) {
+        if (endpoint == null || endpoint.isBlank()) {
+            return null;
+        }
+        try {
+            String host = URI.create(endpoint.trim()).getHost();
+            return host == null ? null : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param url a URL, or a key
+     * @return the URL without its query string if it is a presigned URL, otherwise the value as it is
+     */
+    public static String withoutSignature(String url) {
+        if (url == null || !url.contains("X-Amz-Signature=")) {
+            return url;
+        }
+        int query = url.indexOf('?');
+        return query < 0 ? url : url.substring(0, query);
+    }
+}
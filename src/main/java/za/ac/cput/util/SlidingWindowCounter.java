@@ -0,0 +1,111 @@
+package za.ac.cput.util;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * SlidingWindowCounter.java
+ *
+ * Counts events per key over a sliding window of time without locks. Time is cut into fixed slices kept in a
+ * ring, each slice counting its keys in LongAdders, so concurrent increments of the same key spread over cells
+ * instead of contending on one value. A slice whose time has passed round the ring is replaced by a fresh one
+ * with a compare-and-set, the counts of the old slice are dropped with it.
+ *
+ * Sums are read while increments go on, so they may miss an increment made during the read.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class SlidingWindowCounter {
+
+    private final long sliceMillis;
+    private final AtomicReferenceArray<Slice> ring;
+    private final LongSupplier clock;
+
+    /**
+     * @param slice  the length of a slice, the precision of the window
+     * @param slices the number of slices kept, the longest window is this many slices
+     * @param clock  the current time in milliseconds
+     */
+    public SlidingWindowCounter(Duration slice, int slices, LongSupplier clock) {
+        if (slice.toMillis() <= 0 || slices <= 0) {
+            throw new IllegalArgumentException("The slice length and the number of slices must be positive");
+        }
+        this.sliceMillis = slice.toMillis();
+        // One extra slot so the oldest slice of a full window is not overwritten by the current one
+        this.ring = new AtomicReferenceArray<>(slices + 1);
+        this.clock = clock;
+    }
+
+    /**
+     * Counts an event for a key in the current slice.
+     *
+     * @param key    the key, e.g. a product id
+     * @param amount the number of events
+     */
+    public void add(long key, long amount) {
+        long epoch = Math.floorDiv(clock.getAsLong(), sliceMillis);
+        Slice slice = current(epoch);
+        if (slice != null) {
+            slice.counts.computeIfAbsent(key, k -> new LongAdder()).add(amount);
+        }
+    }
+
+    /**
+     * Sums the events of every key over the most recent slices, the current one included.
+     *
+     * @param window how far back to count, rounded up to whole slices and capped at the number kept
+     * @return the totals per key, keys without events in the window are left out
+     */
+    public Map<Long, Long> totals(Duration window) {
+        long epoch = Math.floorDiv(clock.getAsLong(), sliceMillis);
+        long slices = Math.min(ring.length() - 1, Math.max(1, (window.toMillis() + sliceMillis - 1) / sliceMillis));
+        Map<Long, Long> totals = new HashMap<>();
+        for (int i = 0; i < ring.length(); i++) {
+            Slice slice = ring.get(i);
+            if (slice != null && slice.epoch <= epoch && slice.epoch > epoch - slices) {
+                slice.counts.forEach((key, count) -> {
+                    long sum = count.sum();
+                    if (sum != 0) {
+                        totals.merge(key, sum, Long::sum);
+                    }
+                });
+            }
+        }
+        return totals;
+    }
+
+    // The slice of an epoch, replacing whatever older slice is in its slot, null if the clock went back a full ring
+    private Slice current(long epoch) {
+        int index = (int) Math.floorMod(epoch, (long) ring.length());
+        while (true) {
+            Slice slice = ring.get(index);
+            if (slice != null && slice.epoch == epoch) {
+                return slice;
+            }
+            if (slice != null && slice.epoch > epoch) {
+                return null;
+            }
+            Slice fresh = new Slice(epoch);
+            if (ring.compareAndSet(index, slice, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static final class Slice {
+
+        private final long epoch;
+        private final ConcurrentHashMap<Long, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private Slice(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package za.ac.cput.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * TextAnalyzer.java
+ *
+ * Turns free text into the terms used by the in-memory search indexes:
+ * splits on anything that is not a letter or digit, lowercases, drops stop words
+ * and reduces English plurals and verb endings with a light suffix stemmer.
+ *
+ * @author Rethabile Ntsekhe
+ * Student Num: 220455430
+ * @date 18-Oct-26
+ */
+public class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "this", "to", "with");
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (Helper.isNullOrEmpty(text)) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Strips common English suffixes so "running", "runs" and "run" share a term.
+     * Short words and words with digits are left alone, they are usually sizes or model numbers.
+     *
+     * @param word a lowercase token
+     * @return the stem of the token
+     */
+    public static String stem(String word) {
+        if (word.length() <= 3 || !word.chars().allMatch(Character::isLetter)) {
+            return word;
+        }
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("ing") && word.length() > 5) {
+            return undouble(word.substring(0, word.length() - 3));
+        }
+        if (word.endsWith("ed") && word.length() > 4) {
+            return undouble(word.substring(0, word.length() - 2));
+        }
+        if (word.endsWith("es") && (word.endsWith("shes") || word.endsWith("ches") || word.endsWith("xes"))) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    // "runn" -> "run", "stopp" -> "stop"
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n > 2 && stem.charAt(n - 1) == stem.charAt(n - 2) && "lsz".indexOf(stem.charAt(n - 1)) < 0) {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+}
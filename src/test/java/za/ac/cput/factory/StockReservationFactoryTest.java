@@ -0,0 +1,35 @@
+package za.ac.cput.factory;
+
+import org.junit.jupiter.api.Test;
+import za.ac.cput.domain.StockReservation;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockReservationFactoryTest {
+
+    @Test
+    void testCreateStockReservation() {
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = StockReservationFactory.createStockReservation(
+                1L, 10L, 2, now.plusMinutes(15), now);
+
+        assertNotNull(reservation);
+        assertEquals(10L, reservation.getProductSkuId());
+        assertEquals(2, reservation.getQuantity());
+        System.out.println("Created StockReservation: " + reservation);
+    }
+
+    @Test
+    void testCreateStockReservation_WithNullSku_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StockReservationFactory.createStockReservation(
+                1L, null, 2, LocalDateTime.now(), LocalDateTime.now()));
+    }
+
+    @Test
+    void testCreateStockReservation_WithZeroQuantity_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> StockReservationFactory.createStockReservation(
+                1L, 10L, 0, LocalDateTime.now(), LocalDateTime.now()));
+    }
+}
@@ -169,4 +169,31 @@ class CartItemServiceTest {
         assertFalse(items.isEmpty());
         assertEquals(cartItem.getQuantity(), items.get(0).getQuantity());
     }
+
+    @Test
+    @Order(10)
+    void keepsTheCartTotal() {
+        Cart emptyCart = cartService.create(new Cart.Builder().copy(cart).setId(null).build());
+        assertEquals(0.0, emptyCart.getTotal());
+        assertEquals(0, emptyCart.getItemCount());
+        double price = productSkuService.read(productSku.getId()).getPrice();
+
+        CartItem createdItem = cartItemService.create(new CartItem.Builder().copy(cartItem).setCart(emptyCart).build());
+        assertEquals(price, createdItem.getUnitPrice());
+        assertEquals(2 * price, cartService.read(emptyCart.getId()).getTotal(), 0.001);
+
+        cartItemService.update(new CartItem.Builder().copy(createdItem).setQuantity(5).build());
+        Cart updatedCart = cartService.read(emptyCart.getId());
+        assertEquals(5 * price, updatedCart.getTotal(), 0.001);
+        assertEquals(5, updatedCart.getItemCount());
+
+        // A total sent by the client is ignored
+        cartService.update(new Cart.Builder().copy(updatedCart).setTotal(1.0).build());
+        assertEquals(5 * price, cartService.read(emptyCart.getId()).getTotal(), 0.001);
+
+        cartItemService.delete(createdItem.getId());
+        Cart emptiedCart = cartService.read(emptyCart.getId());
+        assertEquals(0.0, emptiedCart.getTotal(), 0.001);
+        assertEquals(0, emptiedCart.getItemCount());
+    }
 }
@@ -53,7 +53,9 @@ class CartServiceTest {
     void create() {
         Cart createdCart = cartService.create(cart);
         assertNotNull(createdCart);
-        assertEquals(cart.getTotal(), createdCart.getTotal());
+        // The total is kept by the cart items, not taken from the request
+        assertEquals(cartService.read(createdCart.getId()).getTotal(), createdCart.getTotal());
+        assertNotNull(createdCart.getTotal());
         assertNotNull(createdCart.getUser().getId());  // Ensure the lazy-loaded user is initialized
     }
 
@@ -70,13 +72,14 @@ class CartServiceTest {
     @Order(3)
     void update() {
         Cart createdCart = cartService.create(cart);
+        Double total = createdCart.getTotal();
         createdCart = new Cart.Builder()
                 .copy(createdCart)
-                .setTotal(200.0)  // Update the total amount
+                .setTotal(200.0)  // A total sent by the client is ignored
                 .build();
         Cart updatedCart = cartService.update(createdCart);
         assertNotNull(updatedCart);
-        assertEquals(200.0, updatedCart.getTotal());
+        assertEquals(total, updatedCart.getTotal());
     }
 
     @Test
@@ -0,0 +1,91 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import za.ac.cput.domain.*;
+import za.ac.cput.factory.*;
+import za.ac.cput.repository.CartRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(CatalogFixtures.class)
+class CartTotalsBackfillTest {
+
+    @Autowired
+    private CartTotalsBackfill cartTotalsBackfill;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private CartItemService cartItemService;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CatalogFixtures catalogFixtures;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Product product;
+    private ProductSku productSku;
+
+    @BeforeEach
+    void setUp() {
+        CatalogFixtures.Catalog catalog = catalogFixtures.create("Carts");
+        user = userService.create(UserFactory.createUser(null, null, "Cart", "Owner",
+                "cart-" + catalog.run() + "@example.com", null, Set.of("USER"), null, "secret"));
+        product = catalog.product();
+        productSku = catalogFixtures.sku(catalog, "CART-" + catalog.run(), 100.0, 50);
+    }
+
+    @Test
+    void pricesOldItemsAndSetsTheTotalsOfOldCartsFromThem() {
+        Cart oldCart = cartWithItem(2);
+        Cart currentCart = cartWithItem(1);
+        // As saved before the totals were kept: items without a price, carts with the client's total
+        jdbcTemplate.update("UPDATE cart_item SET unit_price = NULL WHERE cart_id = ?", oldCart.getId());
+        jdbcTemplate.update("UPDATE cart SET total = 999, item_count = NULL WHERE id = ?", oldCart.getId());
+        jdbcTemplate.update("UPDATE cart SET total = 5 WHERE id = ?", currentCart.getId());
+
+        cartTotalsBackfill.backfill();
+        cartTotalsBackfill.backfill();
+
+        assertEquals(100.0, cartItemService.findByCartId(oldCart.getId()).get(0).getUnitPrice());
+        Cart backfilled = cartService.read(oldCart.getId());
+        assertEquals(200.0, backfilled.getTotal());
+        assertEquals(2, backfilled.getItemCount());
+        assertEquals(5.0, cartService.read(currentCart.getId()).getTotal());
+    }
+
+    @Test
+    void savingACartReadBeforeAnItemWriteKeepsTheTotals() {
+        Cart cart = cartService.create(CartFactory.createCart(null, user, 0.0, LocalDateTime.now(), null));
+        Cart stale = cartService.read(cart.getId());
+        cartItemService.create(CartItemFactory.createCartItem(null, cart, product, productSku, 3));
+
+        cartRepository.save(new Cart.Builder().copy(stale).setUpdatedAt(LocalDateTime.now()).build());
+        cartService.update(stale);
+
+        Cart saved = cartService.read(cart.getId());
+        assertEquals(300.0, saved.getTotal());
+        assertEquals(3, saved.getItemCount());
+    }
+
+    private Cart cartWithItem(int quantity) {
+        Cart cart = cartService.create(CartFactory.createCart(null, user, 0.0, LocalDateTime.now(), null));
+        cartItemService.create(CartItemFactory.createCartItem(null, cart, product, productSku, quantity));
+        return cart;
+    }
+}
@@ -0,0 +1,71 @@
+package za.ac.cput.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import za.ac.cput.domain.*;
+import za.ac.cput.enums.ProductAttributeType;
+import za.ac.cput.factory.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Creates the catalog rows the database tests build on: a category, a sub-category under it, a product
+ * filed under the sub-category and a size, colour and brand attribute. Every catalog gets its own run
+ * suffix, so tests sharing a database do not clash on names. Tests pull it in with @Import.
+ */
+@TestComponent
+class CatalogFixtures {
+
+    private final CategoryService categoryService;
+    private final SubCategoryService subCategoryService;
+    private final ProductService productService;
+    private final ProductAttributeService productAttributeService;
+    private final ProductSkuService productSkuService;
+
+    @Autowired
+    CatalogFixtures(CategoryService categoryService, SubCategoryService subCategoryService,
+                    ProductService productService, ProductAttributeService productAttributeService,
+                    ProductSkuService productSkuService) {
+        this.categoryService = categoryService;
+        this.subCategoryService = subCategoryService;
+        this.productService = productService;
+        this.productAttributeService = productAttributeService;
+        this.productSkuService = productSkuService;
+    }
+
+    /**
+     * @param name what the category and product are called, before the run suffix
+     * @return a new catalog
+     */
+    Catalog create(String name) {
+        String run = String.valueOf(System.nanoTime());
+        Category category = categoryService.create(CategoryFactory.createCategory(null, name + " " + run,
+                name + " products", LocalDateTime.now(), null));
+        SubCategory subCategory = subCategoryService.create(SubCategoryFactory.createSubCategory(null, category,
+                "Runners " + run, "Running shoes", LocalDateTime.now(), null));
+        Product product = productService.create(ProductFactory.createProduct(null, name + " shoe " + run, "Shoe",
+                "Runner", "p/" + run + ".jpg", null, List.of(subCategory), LocalDateTime.now(), null));
+        return new Catalog(run, category, subCategory, product,
+                attribute(ProductAttributeType.SIZE, "9-" + run),
+                attribute(ProductAttributeType.COLOR, "Red-" + run),
+                attribute(ProductAttributeType.BRAND, "Nike-" + run));
+    }
+
+    /**
+     * Creates a SKU of the catalog's product in its size, colour and brand.
+     */
+    ProductSku sku(Catalog catalog, String code, double price, int quantity) {
+        return productSkuService.create(ProductSkuFactory.createProductSku(null, catalog.product(), catalog.size(),
+                catalog.color(), catalog.brand(), code, price, quantity, LocalDateTime.now(), null));
+    }
+
+    private ProductAttribute attribute(ProductAttributeType type, String value) {
+        return productAttributeService.create(ProductAttributeFactory.createProductAttribute(null, type, value,
+                LocalDateTime.now(), null));
+    }
+
+    record Catalog(String run, Category category, SubCategory subCategory, Product product,
+                   ProductAttribute size, ProductAttribute color, ProductAttribute brand) {
+    }
+}
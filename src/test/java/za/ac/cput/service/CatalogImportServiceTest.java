@@ -0,0 +1,183 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.ac.cput.domain.*;
+import za.ac.cput.enums.ImportFormat;
+import za.ac.cput.event.CatalogEvent;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "store.import.batch-size=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(CatalogFixtures.class)
+class CatalogImportServiceTest {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+    @Autowired
+    private ProductSkuService productSkuService;
+    @Autowired
+    private CatalogFixtures catalogFixtures;
+    @Autowired
+    private ImportedProducts importedProducts;
+
+    private String run;
+    private SubCategory subCategory;
+    private ProductAttribute size;
+    private ProductAttribute color;
+    private ProductAttribute brand;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        CatalogFixtures.Catalog catalog = catalogFixtures.create("Import");
+        run = catalog.run();
+        subCategory = catalog.subCategory();
+        size = catalog.size();
+        color = catalog.color();
+        brand = catalog.brand();
+        product = catalog.product();
+    }
+
+    @Test
+    void importsProductsAndReportsRejectedRowsByLine() {
+        String id = String.valueOf(subCategory.getId());
+        String csv = "name,description,summary,cover,subCategoryIds\n" +
+                "\"Air Max, " + run + "\",\"Light\nand fast\",Runner,p/air.jpg," + id + "\n" +
+                "Unknown " + run + ",Shoe,Runner,p/unknown.jpg,999999999\n" +
+                ",Shoe,Runner,p/nameless.jpg," + id + "\n" +
+                "Bad id " + run + ",Shoe,Runner,p/bad.jpg,abc\n" +
+                "Short row\n";
+
+        ImportReport report = catalogImportService.importProducts(bytes(csv), ImportFormat.CSV);
+
+        assertEquals(1, report.getImported());
+        assertEquals(Map.of(
+                        4L, "Unknown sub-category: 999999999",
+                        5L, "The following fields cannot be null: name",
+                        6L, "subCategoryIds is not a number: abc",
+                        7L, "Malformed line: expected 5 fields but found 1"),
+                errors(report));
+
+        // The listener read the sub-category name of the imported product after the commit
+        assertEquals(List.of("Runners " + run), importedProducts.subCategoryNames.get("Air Max, " + run));
+    }
+
+    @Test
+    void reportsEveryRowOfAFailedBatchAndKeepsTheOthers() {
+        String fields = "\",\"description\":\"Shoe\",\"summary\":\"Runner\",\"cover\":\"p/c.jpg\","
+                + "\"subCategoryIds\":[" + subCategory.getId() + "]}\n";
+        String ndjson = "{\"name\":\"One " + run + fields +
+                "{\"name\":\"Two " + run + fields +
+                "{\"name\":\"Three " + run + fields +
+                "{\"name\":\"" + "x".repeat(300) + fields +
+                "{\"name\":\"Five " + run + fields;
+
+        ImportReport report = catalogImportService.importProducts(bytes(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(3, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(List.of(3L, 4L), List.copyOf(errors(report).keySet()));
+        assertTrue(errors(report).values().stream().allMatch(message -> message.startsWith("Batch failed: ")));
+    }
+
+    @Test
+    void importsSkusAndRejectsUnknownIdsDuplicateCodesAndBadNumbers() {
+        String existing = "EXISTING-" + run;
+        productSkuService.create(new ProductSku.Builder().setProduct(product).setSizeAttribute(size)
+                .setColorAttribute(color).setBrandAttribute(brand).setSku(existing).setPrice(10.0).setQuantity(1)
+                .setCreatedAt(LocalDateTime.now()).build());
+        String attributes = "," + size.getId() + "," + color.getId() + "," + brand.getId() + ",";
+
+        String csv = "productId,sizeAttributeId,colorAttributeId,brandAttributeId,sku,price,quantity\n" +
+                product.getId() + attributes + "NEW-" + run + ",99.5,4\n" +
+                product.getId() + attributes + "NEW-" + run + ",99.5,4\n" +
+                product.getId() + attributes + existing + ",10,1\n" +
+                "999999999" + attributes + "LOST-" + run + ",10,1\n" +
+                product.getId() + attributes + "PRICE-" + run + ",cheap,1\n" +
+                product.getId() + attributes + "QTY-" + run + ",10,1.5\n" +
+                product.getId() + "," + color.getId() + "," + color.getId() + "," + brand.getId() + ",ATTR-" + run + ",10,1\n" +
+                attributes + "ORPHAN-" + run + ",-1,1\n" +
+                product.getId() + "," + size.getId() + ",," + brand.getId() + ",NOCOLOR-" + run + ",-1,0\n" +
+                product.getId() + attributes + "FREE-" + run + ",-1,0\n";
+
+        ImportReport report = catalogImportService.importProductSkus(bytes(csv), ImportFormat.CSV);
+
+        assertEquals(1, report.getImported());
+        assertEquals(Map.of(
+                        3L, "Duplicate SKU: NEW-" + run,
+                        4L, "Duplicate SKU: " + existing,
+                        5L, "Unknown product: 999999999",
+                        6L, "price is not a number: cheap",
+                        7L, "quantity is not a whole number: 1.5",
+                        8L, "Unknown size attribute: " + color.getId(),
+                        9L, "The following fields cannot be null: productId",
+                        10L, "The following fields cannot be null: colorAttributeId",
+                        11L, "price must be greater than zero: -1"),
+                errors(report));
+        ProductSku imported = productSkuService.findBySku("NEW-" + run);
+        assertEquals(99.5, imported.getPrice());
+        assertEquals(4, imported.getQuantity());
+        // The listener read the attributes and the product's sub-categories of the imported SKU after the commit
+        assertEquals(List.of("9-" + run, "Runners " + run), importedProducts.skuDetails.get("NEW-" + run));
+    }
+
+    private static ByteArrayInputStream bytes(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<Long, String> errors(ImportReport report) {
+        return report.getErrors().stream().collect(Collectors.toMap(ImportReport.RowError::getLine,
+                ImportReport.RowError::getMessage, (a, b) -> a, java.util.TreeMap::new));
+    }
+
+    /**
+     * Reads more than the id of every imported product, as an index would.
+     */
+    @TestConfiguration
+    static class ImportedProductsConfig {
+        @Bean
+        ImportedProducts importedProducts() {
+            return new ImportedProducts();
+        }
+    }
+
+    static class ImportedProducts {
+        final Map<String, List<String>> subCategoryNames = new ConcurrentHashMap<>();
+        final Map<String, List<String>> skuDetails = new ConcurrentHashMap<>();
+
+        @TransactionalEventListener(fallbackExecution = true)
+        public void onSku(CatalogEvent<ProductSku> event) {
+            ProductSku productSku = event.getEntity();
+            if (productSku != null) {
+                skuDetails.put(productSku.getSku(), List.of(productSku.getSizeAttribute().getValue(),
+                        productSku.getProduct().getSubCategory().get(0).getName()));
+            }
+        }
+
+        @TransactionalEventListener(fallbackExecution = true)
+        public void on(CatalogEvent<Product> event) {
+            if (event.getEntity() != null && event.getEntity().getSubCategory() != null) {
+                subCategoryNames.put(event.getEntity().getName(), event.getEntity().getSubCategory().stream()
+                        .map(SubCategory::getName)
+                        .toList());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.ac.cput.domain.Category;
+import za.ac.cput.domain.ProductAttribute;
+import za.ac.cput.domain.SubCategory;
+import za.ac.cput.enums.ProductAttributeType;
+import za.ac.cput.event.CatalogEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogRegistryTest {
+
+    private CatalogRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new CatalogRegistry(null, null, null, null);
+        registry.onAttribute(CatalogEvent.created(ProductAttribute.class, 1L, attribute(1L, ProductAttributeType.COLOR, "Red")));
+        registry.onAttribute(CatalogEvent.created(ProductAttribute.class, 2L, attribute(2L, ProductAttributeType.COLOR, "Black")));
+        registry.onAttribute(CatalogEvent.created(ProductAttribute.class, 3L, attribute(3L, ProductAttributeType.BRAND, "Nike")));
+        registry.onCategory(CatalogEvent.created(Category.class, 10L, category(10L, "Men")));
+        registry.onSubCategory(CatalogEvent.created(SubCategory.class, 20L, new SubCategory.Builder()
+                .setId(20L).setName("Running").setCategory(category(10L, "Men")).build()));
+    }
+
+    @Test
+    void looksUpAttributesByIdAndByTypeAndValue() {
+        assertEquals("Red", registry.attribute(1L).getValue());
+        assertSame(registry.attribute(2L), registry.attribute(ProductAttributeType.COLOR, "Black"));
+        assertNull(registry.attribute(ProductAttributeType.BRAND, "Red"));
+        assertNull(registry.attribute(99L));
+        assertEquals(List.of("Black", "Red"),
+                registry.attributes(ProductAttributeType.COLOR).stream().map(ProductAttribute::getValue).toList());
+        assertEquals(List.of(), registry.attributes(ProductAttributeType.SIZE));
+    }
+
+    @Test
+    void sharesOneInstancePerRow() {
+        SubCategory running = registry.subCategory(20L);
+        assertSame(registry.category(10L), running.getCategory());
+        // the registry keeps its own copy, not the instance it was given
+        ProductAttribute red = attribute(1L, ProductAttributeType.COLOR, "Red");
+        registry.onAttribute(CatalogEvent.updated(ProductAttribute.class, 1L, red));
+        assertNotSame(red, registry.attribute(1L));
+    }
+
+    @Test
+    void appliesWrites() {
+        registry.onCategory(CatalogEvent.updated(Category.class, 10L, category(10L, "Mens")));
+        assertEquals("Mens", registry.subCategory(20L).getCategory().getName());
+
+        registry.onAttribute(CatalogEvent.updated(ProductAttribute.class, 1L, attribute(1L, ProductAttributeType.COLOR, "Crimson")));
+        assertNull(registry.attribute(ProductAttributeType.COLOR, "Red"));
+        assertEquals(1L, registry.attribute(ProductAttributeType.COLOR, "Crimson").getId());
+
+        registry.onAttribute(CatalogEvent.deleted(ProductAttribute.class, 3L));
+        registry.onSubCategory(CatalogEvent.deleted(SubCategory.class, 20L));
+        assertNull(registry.attribute(3L));
+        assertNull(registry.subCategory(20L));
+    }
+
+    private static ProductAttribute attribute(Long id, ProductAttributeType type, String value) {
+        return new ProductAttribute.Builder().setId(id).setType(type).setValue(value).build();
+    }
+
+    private static Category category(Long id, String name) {
+        return new Category.Builder().setId(id).setName(name).build();
+    }
+}
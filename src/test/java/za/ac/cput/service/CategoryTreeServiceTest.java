@@ -0,0 +1,83 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.ac.cput.domain.Category;
+import za.ac.cput.domain.CategoryTreeNode;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.SubCategory;
+import za.ac.cput.event.CatalogEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryTreeServiceTest {
+
+    private static final Category MEN = category(1L, "Men");
+    private static final Category WOMEN = category(2L, "Women");
+    private static final SubCategory RUNNING = subCategory(10L, "Running", MEN);
+    private static final SubCategory BOOTS = subCategory(11L, "Boots", MEN);
+
+    private CategoryTreeService tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new CategoryTreeService(null, null, null);
+        tree.onCategory(CatalogEvent.created(Category.class, MEN.getId(), MEN));
+        tree.onCategory(CatalogEvent.created(Category.class, WOMEN.getId(), WOMEN));
+        tree.onSubCategory(CatalogEvent.created(SubCategory.class, RUNNING.getId(), RUNNING));
+        tree.onSubCategory(CatalogEvent.created(SubCategory.class, BOOTS.getId(), BOOTS));
+        tree.onProduct(CatalogEvent.created(Product.class, 100L, product(100L, RUNNING)));
+        tree.onProduct(CatalogEvent.created(Product.class, 101L, product(101L, RUNNING, BOOTS)));
+    }
+
+    @Test
+    void countsEachProductOncePerCategory() {
+        CategoryTreeNode men = node(tree.snapshot().nodes(), "Men");
+        assertEquals(2, men.getProductCount());
+        assertEquals(List.of("Boots", "Running"), men.getSubCategories().stream().map(CategoryTreeNode::getName).toList());
+        assertEquals(2, node(men.getSubCategories(), "Running").getProductCount());
+        assertEquals(1, node(men.getSubCategories(), "Boots").getProductCount());
+        assertEquals(0, node(tree.snapshot().nodes(), "Women").getProductCount());
+    }
+
+    @Test
+    void productWritesAdjustCounts() {
+        tree.onProduct(CatalogEvent.updated(Product.class, 101L, product(101L, BOOTS)));
+        CategoryTreeNode men = node(tree.snapshot().nodes(), "Men");
+        assertEquals(1, node(men.getSubCategories(), "Running").getProductCount());
+
+        tree.onProduct(CatalogEvent.deleted(Product.class, 100L));
+        men = node(tree.snapshot().nodes(), "Men");
+        assertEquals(1, men.getProductCount());
+        assertEquals(0, node(men.getSubCategories(), "Running").getProductCount());
+    }
+
+    @Test
+    void movingASubCategoryMovesItsProducts() {
+        String etag = tree.snapshot().etag();
+        tree.onSubCategory(CatalogEvent.updated(SubCategory.class, BOOTS.getId(), subCategory(11L, "Boots", WOMEN)));
+
+        assertNotEquals(etag, tree.snapshot().etag());
+        assertEquals(2, node(tree.snapshot().nodes(), "Men").getProductCount());
+        assertEquals(1, node(tree.snapshot().nodes(), "Women").getProductCount());
+    }
+
+    private static CategoryTreeNode node(List<CategoryTreeNode> nodes, String name) {
+        return nodes.stream().filter(node -> node.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static Product product(Long id, SubCategory... subCategories) {
+        return new Product.Builder().setId(id).setSubCategory(new ArrayList<>(List.of(subCategories))).build();
+    }
+
+    private static SubCategory subCategory(Long id, String name, Category category) {
+        return new SubCategory.Builder().setId(id).setName(name).setCategory(category).build();
+    }
+
+    private static Category category(Long id, String name) {
+        return new Category.Builder().setId(id).setName(name).build();
+    }
+}
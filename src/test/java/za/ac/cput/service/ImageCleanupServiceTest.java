@@ -0,0 +1,161 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.Test;
+import za.ac.cput.domain.ProductImageVariant;
+import za.ac.cput.enums.ImageVariant;
+import za.ac.cput.repository.ProductImageVariantRepository;
+import za.ac.cput.repository.ProductRepository;
+import za.ac.cput.repository.UserRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageCleanupServiceTest {
+
+    private static final String BUCKET = "shoes";
+
+    private final InMemoryS3Client s3Client = new InMemoryS3Client();
+    // The images products and users point at, and the variant rows
+    private final List<String> productImages = new ArrayList<>();
+    private final List<String> avatars = new ArrayList<>();
+    private final List<ProductImageVariant> variants = new ArrayList<>();
+    private final ImageCleanupService service = new ImageCleanupService(s3Client, productRepository(),
+            variantRepository(), userRepository(), BUCKET, InMemoryS3Client.ENDPOINT, true,
+            List.of("products/", "variants/"), Duration.ofDays(1), 3);
+
+    @Test
+    void deletesOldOrphansInBatchesOfAtMostOneThousand() {
+        Instant old = Instant.now().minus(Duration.ofDays(3));
+        for (int i = 0; i < 2500; i++) {
+            s3Client.put(BUCKET, "products/orphan-" + i + ".jpg", new byte[1], "image/jpeg", old);
+        }
+        s3Client.put(BUCKET, "products/7/cover.jpg", new byte[1], "image/jpeg", old);
+        s3Client.put(BUCKET, "variants/thumbnail/products/7/cover.jpg.jpg", new byte[1], "image/jpeg", old);
+        s3Client.put(BUCKET, "products/8/just-uploaded.jpg", new byte[1], "image/jpeg", Instant.now());
+        s3Client.put("other", "products/orphan-0.jpg", new byte[1], "image/jpeg", old);
+        s3Client.put(BUCKET, "avatars/5.jpg", new byte[1], "image/jpeg", old);
+
+        ImageCleanupService.Result result = service.deleteOrphans(
+                Set.of("products/7/cover.jpg", "variants/thumbnail/products/7/cover.jpg.jpg"),
+                Instant.now().minus(Duration.ofDays(1)));
+
+        assertEquals(2503, result.scanned());
+        assertEquals(2500, result.deleted());
+        assertEquals(0, result.failed());
+        assertEquals(List.of(500, 1000, 1000),
+                s3Client.deleteBatches.stream().sorted().toList());
+        assertNotNull(s3Client.get(BUCKET, "products/7/cover.jpg"));
+        assertNotNull(s3Client.get(BUCKET, "variants/thumbnail/products/7/cover.jpg.jpg"));
+        assertNotNull(s3Client.get(BUCKET, "products/8/just-uploaded.jpg"));
+        assertNotNull(s3Client.get("other", "products/orphan-0.jpg"));
+        assertNotNull(s3Client.get(BUCKET, "avatars/5.jpg"));
+        assertEquals(5, s3Client.objects.size());
+    }
+
+    @Test
+    void onlyScansUnderThePrefix() {
+        ImageCleanupService scoped = new ImageCleanupService(s3Client, null, null, null, BUCKET,
+                InMemoryS3Client.ENDPOINT, true, List.of("variants/"), Duration.ofDays(1), 1);
+        Instant old = Instant.now().minus(Duration.ofDays(3));
+        s3Client.put(BUCKET, "products/9/cover.jpg", new byte[1], "image/jpeg", old);
+        s3Client.put(BUCKET, "variants/medium/products/9/cover.jpg.jpg", new byte[1], "image/jpeg", old);
+
+        ImageCleanupService.Result result = scoped.deleteOrphans(Set.of(), Instant.now());
+
+        assertEquals(1, result.scanned());
+        assertEquals(1, result.deleted());
+        assertNotNull(s3Client.get(BUCKET, "products/9/cover.jpg"));
+        assertNull(s3Client.get(BUCKET, "variants/medium/products/9/cover.jpg.jpg"));
+    }
+
+    @Test
+    void refusesToScanTheWholeBucket() {
+        assertThrows(IllegalArgumentException.class, () -> new ImageCleanupService(s3Client, null, null, null,
+                BUCKET, InMemoryS3Client.ENDPOINT, true, List.of(), Duration.ofDays(1), 1));
+        assertThrows(IllegalArgumentException.class, () -> new ImageCleanupService(s3Client, null, null, null,
+                BUCKET, InMemoryS3Client.ENDPOINT, true, List.of("products/", " "), Duration.ofDays(1), 1));
+    }
+
+    @Test
+    void keepsWhatProductsAndUsersPointAtAndTheVariantsOfKeptOriginals() {
+        Instant old = Instant.now().minus(Duration.ofDays(3));
+        LocalDateTime madeLongAgo = LocalDateTime.now().minusDays(3);
+        productImages.add("https://shoes.s3.us-east-1.amazonaws.com/products/1/cover.jpg");
+        productImages.add(InMemoryS3Client.ENDPOINT + "/shoes/products/1/my%20image.jpg?X-Amz-Signature=abc");
+        productImages.add("https://cdn.example.com/shoes/products/3/cover.jpg");
+        avatars.add("products/users/5.jpg");
+        variants.add(variant("products/1/cover.jpg", madeLongAgo));
+        variants.add(variant("products/2/gone.jpg", madeLongAgo));
+        variants.add(variant("products/4/new.jpg", LocalDateTime.now()));
+        for (String key : List.of("products/1/cover.jpg", "products/1/my image.jpg", "products/3/cover.jpg",
+                "products/users/5.jpg", "products/2/gone.jpg", "variants/thumbnail/products/1/cover.jpg.jpg",
+                "variants/thumbnail/products/2/gone.jpg.jpg")) {
+            s3Client.put(BUCKET, key, new byte[1], "image/jpeg", old);
+        }
+        s3Client.put(BUCKET, "variants/thumbnail/products/4/new.jpg.jpg", new byte[1], "image/jpeg", Instant.now());
+
+        ImageCleanupService.Result result = service.cleanUp();
+
+        assertEquals(8, result.scanned());
+        assertEquals(3, result.deleted());
+        assertEquals(Set.of("products/1/cover.jpg", "products/1/my image.jpg", "products/users/5.jpg",
+                "variants/thumbnail/products/1/cover.jpg.jpg", "variants/thumbnail/products/4/new.jpg.jpg"), Set.copyOf(keys()));
+        // The row of a variant past the grace period goes with its original, a new one waits for its product
+        assertEquals(List.of("products/1/cover.jpg", "products/4/new.jpg"),
+                variants.stream().map(ProductImageVariant::getSourceKey).toList());
+    }
+
+    private List<String> keys() {
+        return s3Client.objects.keySet().stream()
+                .map(key -> key.substring(key.indexOf('/') + 1))
+                .toList();
+    }
+
+    private static ProductImageVariant variant(String sourceKey, LocalDateTime createdAt) {
+        return new ProductImageVariant.Builder()
+                .setSourceKey(sourceKey)
+                .setVariant(ImageVariant.THUMBNAIL)
+                .setKey(ProductImageService.variantKey(sourceKey, ImageVariant.THUMBNAIL, "jpg"))
+                .setCreatedAt(createdAt)
+                .build();
+    }
+
+    private ProductRepository productRepository() {
+        return stub(ProductRepository.class, Map.of("findAllReferencedImages", args -> productImages));
+    }
+
+    private UserRepository userRepository() {
+        return stub(UserRepository.class, Map.of("findAllAvatars", args -> avatars));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductImageVariantRepository variantRepository() {
+        return stub(ProductImageVariantRepository.class, Map.of(
+                "findAll", args -> List.copyOf(variants),
+                "deleteAllInBatch", args -> {
+                    ((Iterable<ProductImageVariant>) args[0]).forEach(variants::remove);
+                    return null;
+                }));
+    }
+
+    // Implements the named methods of an interface, any other method throws
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> body = methods.get(method.getName());
+            if (body == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return body.apply(args);
+        });
+    }
+}
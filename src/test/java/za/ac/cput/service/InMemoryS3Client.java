@@ -0,0 +1,156 @@
+package za.ac.cput.service;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.S3Utilities;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.DeletedObject;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A local S3 stand-in for tests: objects are kept in memory, keyed by bucket and key,
+ * and URLs point at a path-style local endpoint.
+ */
+class InMemoryS3Client implements S3Client {
+
+    static final String ENDPOINT = "http://localhost:4566";
+
+    final ConcurrentSkipListMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+    // The number of keys of every DeleteObjects call
+    final List<Integer> deleteBatches = new CopyOnWriteArrayList<>();
+
+    record StoredObject(byte[] content, String contentType, String cacheControl, Instant lastModified) {
+    }
+
+    void put(String bucket, String key, byte[] content, String contentType, Instant lastModified) {
+        objects.put(bucket + "/" + key, new StoredObject(content, contentType, null, lastModified));
+    }
+
+    StoredObject get(String bucket, String key) {
+        return objects.get(bucket + "/" + key);
+    }
+
+    @Override
+    public <ReturnT> ReturnT getObject(GetObjectRequest request,
+                                       ResponseTransformer<GetObjectResponse, ReturnT> transformer) {
+        StoredObject object = get(request.bucket(), request.key());
+        if (object == null) {
+            throw NoSuchKeyException.builder().message("No such key: " + request.key()).build();
+        }
+        GetObjectResponse response = GetObjectResponse.builder()
+                .contentType(object.contentType())
+                .contentLength((long) object.content().length)
+                .build();
+        try {
+            return transformer.transform(response, AbortableInputStream.create(new ByteArrayInputStream(object.content())));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+        return getObject(request, ResponseTransformer.toInputStream());
+    }
+
+    @Override
+    public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+        try (InputStream in = body.contentStreamProvider().newStream()) {
+            objects.put(request.bucket() + "/" + request.key(),
+                    new StoredObject(in.readAllBytes(), request.contentType(), request.cacheControl(), Instant.now()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return PutObjectResponse.builder().build();
+    }
+
+    @Override
+    public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+        String prefix = request.bucket() + "/" + (request.prefix() == null ? "" : request.prefix());
+        String after = request.continuationToken() == null ? prefix : request.bucket() + "/" + request.continuationToken();
+        int maxKeys = request.maxKeys() == null ? 1000 : request.maxKeys();
+        List<S3Object> page = objects.tailMap(after, request.continuationToken() == null).entrySet().stream()
+                .takeWhile(entry -> entry.getKey().startsWith(prefix))
+                .limit(maxKeys + 1L)
+                .map(entry -> S3Object.builder()
+                        .key(entry.getKey().substring(request.bucket().length() + 1))
+                        .size((long) entry.getValue().content().length)
+                        .lastModified(entry.getValue().lastModified())
+                        .build())
+                .toList();
+        boolean truncated = page.size() > maxKeys;
+        List<S3Object> contents = truncated ? page.subList(0, maxKeys) : page;
+        return ListObjectsV2Response.builder()
+                .contents(contents)
+                .keyCount(contents.size())
+                .isTruncated(truncated)
+                .nextContinuationToken(truncated ? contents.get(contents.size() - 1).key() : null)
+                .build();
+    }
+
+    @Override
+    public ListObjectsV2Iterable listObjectsV2Paginator(ListObjectsV2Request request) {
+        return new ListObjectsV2Iterable(this, request);
+    }
+
+    @Override
+    public DeleteObjectsResponse deleteObjects(DeleteObjectsRequest request) {
+        List<ObjectIdentifier> keys = request.delete().objects();
+        if (keys.size() > 1000) {
+            throw new IllegalArgumentException("DeleteObjects takes at most 1000 keys");
+        }
+        deleteBatches.add(keys.size());
+        List<DeletedObject> deleted = new ArrayList<>();
+        for (ObjectIdentifier key : keys) {
+            objects.remove(request.bucket() + "/" + key.key());
+            deleted.add(DeletedObject.builder().key(key.key()).build());
+        }
+        return DeleteObjectsResponse.builder()
+                .deleted(Boolean.TRUE.equals(request.delete().quiet()) ? List.of() : deleted)
+                .build();
+    }
+
+    @Override
+    public S3Utilities utilities() {
+        return S3Utilities.builder()
+                .region(Region.US_EAST_1)
+                .endpoint(URI.create(ENDPOINT))
+                .s3Configuration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+    }
+
+    @Override
+    public String serviceName() {
+        return "s3";
+    }
+
+    @Override
+    public void close() {
+    }
+}
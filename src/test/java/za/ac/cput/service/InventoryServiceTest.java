@@ -0,0 +1,204 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.ac.cput.domain.*;
+import za.ac.cput.repository.ProductSkuRepository;
+import za.ac.cput.repository.StockReservationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "store.inventory.lease-size=5",
+        "store.inventory.lease-flush-interval=3600000",
+        "store.inventory.sweep-interval=3600000"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(CatalogFixtures.class)
+class InventoryServiceTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private ProductSkuService productSkuService;
+    @Autowired
+    private ProductSkuRepository productSkuRepository;
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+    @Autowired
+    private CatalogFixtures catalogFixtures;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogFixtures.Catalog catalog;
+    private int skus;
+
+    @BeforeEach
+    void setUp() {
+        catalog = catalogFixtures.create("Stock");
+    }
+
+    @Test
+    void reservesFromTheRowWhenThereIsTooLittleStockToLease() {
+        Long id = sku(3).getId();
+
+        StockReservation reservation = inventoryService.reserve(id, 2);
+
+        assertNotNull(reservation);
+        assertEquals(1, quantity(id));
+        assertNull(inventoryService.reserve(id, 2));
+        assertTrue(inventoryService.release(reservation.getId()));
+        assertFalse(inventoryService.release(reservation.getId()));
+        assertEquals(3, quantity(id));
+
+        StockReservation paid = inventoryService.reserve(id, 1);
+        assertTrue(inventoryService.commit(paid.getId()));
+        assertFalse(inventoryService.commit(paid.getId()));
+        assertEquals(2, quantity(id));
+        assertFalse(inventoryService.adjust(id, -3));
+        assertEquals(2, quantity(id));
+    }
+
+    @Test
+    void releasesExpiredReservations() {
+        Long id = sku(3).getId();
+        StockReservation reservation = inventoryService.reserve(id, 2);
+        stockReservationRepository.save(new StockReservation.Builder().copy(reservation)
+                .setExpiresAt(LocalDateTime.now().minusMinutes(1))
+                .build());
+
+        inventoryService.releaseExpired();
+
+        assertEquals(3, quantity(id));
+        assertTrue(stockReservationRepository.findById(reservation.getId()).isEmpty());
+    }
+
+    @Test
+    void servesReservationsFromALeaseAndReturnsItOnFlush() {
+        Long id = sku(20).getId();
+
+        assertNotNull(inventoryService.reserve(id, 2));
+        assertEquals(13, quantity(id));
+        assertEquals(18, inventoryService.available(id));
+
+        assertNotNull(inventoryService.reserve(id, 3));
+        assertEquals(13, quantity(id));
+        assertEquals(15, inventoryService.available(id));
+
+        inventoryService.flushLeases();
+        assertEquals(15, quantity(id));
+        assertEquals(15, inventoryService.available(id));
+    }
+
+    @Test
+    void returnsLeasedUnitsOfARolledBackReservation() {
+        Long id = sku(20).getId();
+        assertNotNull(inventoryService.reserve(id, 2));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertNotNull(inventoryService.reserve(id, 3));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(18, inventoryService.available(id));
+        inventoryService.flushLeases();
+        assertEquals(18, quantity(id));
+    }
+
+    @Test
+    void leasesOfEveryInstanceComeBackOnTopOfANewQuantity() {
+        ProductSku productSku = sku(20);
+        Long id = productSku.getId();
+        InventoryService otherInstance = otherInstance();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertNotNull(inventoryService.reserve(id, 2));
+        assertNotNull(transactionTemplate.execute(status -> otherInstance.reserve(id, 1)));
+        assertEquals(7, quantity(id));
+
+        // Stock is counted and set to 10 while both instances hold a lease of 5 units
+        productSkuService.update(new ProductSku.Builder().copy(productSku).setQuantity(10).build());
+        assertEquals(10, quantity(id));
+
+        inventoryService.flushLeases();
+        otherInstance.flushLeases();
+        assertEquals(20, quantity(id));
+    }
+
+    @Test
+    void bulkPriceUpdatesKeepTheStockReservedMeanwhile() throws Exception {
+        ProductSku productSku = sku(200);
+        Long id = productSku.getId();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> reserved = executor.submit(() -> {
+                int units = 0;
+                for (int i = 0; i < 100; i++) {
+                    if (inventoryService.reserve(id, 1) != null) {
+                        units++;
+                    }
+                }
+                return units;
+            });
+            for (int i = 0; !reserved.isDone(); i++) {
+                SkuUpdateResult result = productSkuService.bulkUpdate(List.of(SkuUpdate.builder()
+                        .sku(productSku.getSku()).price(101.0 + i % 2).build()));
+                assertEquals(List.of(), result.getConflicts());
+            }
+
+            inventoryService.flushLeases();
+            assertEquals(200 - reserved.get(), quantity(id));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void bulkStockUpdatesApplyTheChangeFromTheQuantityRead() {
+        ProductSku productSku = sku(20);
+        Long id = productSku.getId();
+        assertNotNull(inventoryService.reserve(id, 2));
+
+        SkuUpdateResult result = productSkuService.bulkUpdate(List.of(
+                SkuUpdate.builder().sku(productSku.getSku()).quantity(30).price(90.0).build()));
+
+        assertEquals(1, result.getApplied());
+        assertEquals(30, quantity(id));
+        assertEquals(90.0, productSkuRepository.findById(id).orElseThrow().getPrice());
+        inventoryService.flushLeases();
+        assertEquals(35, quantity(id));
+    }
+
+    private ProductSku sku(int quantity) {
+        return catalogFixtures.sku(catalog, "STOCK-" + catalog.run() + "-" + skus++, 100.0, quantity);
+    }
+
+    private int quantity(Long id) {
+        return productSkuRepository.findQuantityById(id);
+    }
+
+    private InventoryService otherInstance() {
+        InventoryService other = new InventoryService(productSkuRepository, stockReservationRepository,
+                cacheManager, transactionManager);
+        ReflectionTestUtils.setField(other, "leaseSize", 5);
+        ReflectionTestUtils.setField(other, "reservationTtl", Duration.ofMinutes(15));
+        return other;
+    }
+}
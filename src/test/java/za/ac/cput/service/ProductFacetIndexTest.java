@@ -0,0 +1,151 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.ac.cput.domain.FacetResult;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductAttribute;
+import za.ac.cput.domain.ProductSku;
+import za.ac.cput.enums.ProductAttributeType;
+import za.ac.cput.repository.ProductSkuRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFacetIndexTest {
+
+    private static final ProductAttribute SIZE_9 = attribute(1L, ProductAttributeType.SIZE);
+    private static final ProductAttribute SIZE_10 = attribute(2L, ProductAttributeType.SIZE);
+    private static final ProductAttribute BLACK = attribute(3L, ProductAttributeType.COLOR);
+    private static final ProductAttribute WHITE = attribute(4L, ProductAttributeType.COLOR);
+    private static final ProductAttribute NIKE = attribute(5L, ProductAttributeType.BRAND);
+    private static final ProductAttribute ADIDAS = attribute(6L, ProductAttributeType.BRAND);
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(null);
+        index.index(sku(1L, 100L, SIZE_9, BLACK, NIKE));
+        index.index(sku(2L, 100L, SIZE_10, WHITE, NIKE));
+        index.index(sku(3L, 200L, SIZE_9, WHITE, ADIDAS));
+        index.index(sku(4L, 300L, SIZE_10, BLACK, ADIDAS));
+    }
+
+    @Test
+    void filterWithoutFacetsMatchesEverything() {
+        FacetResult result = index.filter(null, null, null);
+        assertEquals(List.of(100L, 200L, 300L), result.getProductIds());
+        assertEquals(4, result.getSkuCount());
+        assertEquals(2, result.getCounts().get(ProductAttributeType.SIZE).get(SIZE_9.getId()));
+    }
+
+    @Test
+    void filterIntersectsFacetsOnTheSameSku() {
+        // product 100 has a size 9 and a white SKU, but not a size 9 white SKU
+        FacetResult result = index.filter(List.of(SIZE_9.getId()), List.of(WHITE.getId()), null);
+        assertEquals(List.of(200L), result.getProductIds());
+        assertEquals(1, result.getSkuCount());
+    }
+
+    @Test
+    void filterUnionsValuesOfTheSameType() {
+        FacetResult result = index.filter(List.of(SIZE_9.getId(), SIZE_10.getId()), List.of(BLACK.getId()), null);
+        assertEquals(List.of(100L, 300L), result.getProductIds());
+    }
+
+    @Test
+    void countsIgnoreTheirOwnFacet() {
+        FacetResult result = index.filter(null, List.of(BLACK.getId()), null);
+        // colour counts are computed without the colour filter
+        assertEquals(2, result.getCounts().get(ProductAttributeType.COLOR).get(WHITE.getId()));
+        // brand counts are computed with it
+        assertEquals(1, result.getCounts().get(ProductAttributeType.BRAND).get(NIKE.getId()));
+        assertEquals(1, result.getCounts().get(ProductAttributeType.BRAND).get(ADIDAS.getId()));
+    }
+
+    @Test
+    void updateAndRemoveAreIncremental() {
+        index.index(sku(3L, 200L, SIZE_9, BLACK, ADIDAS));
+        assertEquals(List.of(100L, 200L), index.filter(List.of(SIZE_9.getId()), List.of(BLACK.getId()), null).getProductIds());
+
+        index.remove(3L);
+        index.remove(4L);
+        FacetResult result = index.filter(null, null, List.of(ADIDAS.getId()));
+        assertTrue(result.getProductIds().isEmpty());
+        assertNull(result.getCounts().get(ProductAttributeType.BRAND).get(ADIDAS.getId()));
+
+        // freed ordinals are reused
+        index.index(sku(5L, 400L, SIZE_9, BLACK, ADIDAS));
+        assertEquals(List.of(400L), index.filter(null, null, List.of(ADIDAS.getId())).getProductIds());
+    }
+
+    @Test
+    void keepsWritesThatArriveWhileARebuildReads() {
+        ProductSkuRepository.SkuAttributeIds row = new ProductSkuRepository.SkuAttributeIds() {
+            public Long getId() {
+                return 1L;
+            }
+
+            public Long getProductId() {
+                return 100L;
+            }
+
+            public Long getSizeAttributeId() {
+                return SIZE_9.getId();
+            }
+
+            public Long getColorAttributeId() {
+                return BLACK.getId();
+            }
+
+            public Long getBrandAttributeId() {
+                return NIKE.getId();
+            }
+        };
+        // The table is read before these writes commit, their events arrive before the rows are loaded
+        index = new ProductFacetIndex(repository(() -> {
+            index.index(sku(1L, 100L, SIZE_9, WHITE, NIKE));
+            index.index(sku(5L, 500L, SIZE_10, BLACK, ADIDAS));
+            index.index(sku(6L, 600L, SIZE_10, BLACK, ADIDAS));
+            index.remove(6L);
+            return List.of(row);
+        }));
+
+        index.rebuild();
+
+        assertEquals(List.of(100L), index.filter(null, List.of(WHITE.getId()), null).getProductIds());
+        assertEquals(List.of(500L), index.filter(null, null, List.of(ADIDAS.getId())).getProductIds());
+        assertEquals(2, index.filter(null, null, null).getSkuCount());
+    }
+
+    private static ProductSkuRepository repository(Supplier<List<ProductSkuRepository.SkuAttributeIds>> findAllAttributeIds) {
+        return (ProductSkuRepository) Proxy.newProxyInstance(ProductSkuRepository.class.getClassLoader(),
+                new Class<?>[]{ProductSkuRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllAttributeIds")) {
+                        return findAllAttributeIds.get();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static ProductSku sku(Long id, Long productId, ProductAttribute size, ProductAttribute color, ProductAttribute brand) {
+        return new ProductSku.Builder()
+                .setId(id)
+                .setProduct(new Product.Builder().setId(productId).build())
+                .setSizeAttribute(size)
+                .setColorAttribute(color)
+                .setBrandAttribute(brand)
+                .setSku("SKU-" + id)
+                .setPrice(100.0)
+                .setQuantity(1)
+                .build();
+    }
+
+    private static ProductAttribute attribute(Long id, ProductAttributeType type) {
+        return new ProductAttribute.Builder().setId(id).setType(type).setValue(type + "-" + id).build();
+    }
+}
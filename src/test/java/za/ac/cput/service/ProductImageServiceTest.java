@@ -0,0 +1,288 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import za.ac.cput.config.CacheConfig;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductImageFailure;
+import za.ac.cput.domain.ProductImageVariant;
+import za.ac.cput.enums.ImageVariant;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.ProductImageFailureRepository;
+import za.ac.cput.repository.ProductImageVariantRepository;
+import za.ac.cput.repository.ProductRepository;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductImageServiceTest {
+
+    private static final String BUCKET = "shoes";
+    private static final String THUMBNAIL_URL = InMemoryS3Client.ENDPOINT + "/shoes/variants/thumbnail/products/7/cover.jpg.jpg";
+
+    private final InMemoryS3Client s3Client = new InMemoryS3Client();
+    // The database, the image executor's queue and the published events
+    private final List<ProductImageVariant> variants = new ArrayList<>();
+    private final Map<String, ProductImageFailure> failures = new HashMap<>();
+    private final Map<Long, String> covers = new HashMap<>();
+    private final Map<Long, String> thumbnails = new HashMap<>();
+    private final List<Runnable> queue = new ArrayList<>();
+    private final List<Object> events = new ArrayList<>();
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRODUCTS, CacheConfig.PRODUCT_SKUS);
+    private final ProductImageService service = new ProductImageService(s3Client, variantRepository(),
+            failureRepository(), productRepository(), cacheManager, queue::add, transactionManager(), events::add,
+            BUCKET, InMemoryS3Client.ENDPOINT, 2_000_000);
+
+    @Test
+    void writesEveryVariantNextToTheOriginal() throws Exception {
+        s3Client.put(BUCKET, "products/7/cover.jpg", jpeg(1600, 1200), "image/jpeg", Instant.now());
+
+        List<ProductImageVariant> variants = service.generate(7L, "products/7/cover.jpg");
+
+        assertEquals(2, variants.size());
+        ProductImageVariant thumbnail = variants.get(0);
+        assertEquals(ImageVariant.THUMBNAIL, thumbnail.getVariant());
+        assertEquals(7L, thumbnail.getProductId());
+        assertEquals("products/7/cover.jpg", thumbnail.getSourceKey());
+        assertEquals("variants/thumbnail/products/7/cover.jpg.jpg", thumbnail.getKey());
+        assertEquals(InMemoryS3Client.ENDPOINT + "/shoes/variants/thumbnail/products/7/cover.jpg.jpg", thumbnail.getUrl());
+        assertEquals(200, thumbnail.getWidth());
+        assertEquals(150, thumbnail.getHeight());
+
+        InMemoryS3Client.StoredObject stored = s3Client.get(BUCKET, thumbnail.getKey());
+        assertEquals("image/jpeg", stored.contentType());
+        BufferedImage written = ImageIO.read(new ByteArrayInputStream(stored.content()));
+        assertEquals(200, written.getWidth());
+        assertEquals(150, written.getHeight());
+
+        ProductImageVariant medium = variants.get(1);
+        assertEquals(ImageVariant.MEDIUM, medium.getVariant());
+        assertEquals(800, medium.getWidth());
+        assertEquals(600, medium.getHeight());
+    }
+
+    @Test
+    void leavesSmallImagesAtTheirSizeAndSkipsWhatIsNotAnImage() throws Exception {
+        s3Client.put(BUCKET, "products/8/small.jpg", jpeg(120, 90), "image/jpeg", Instant.now());
+        List<ProductImageVariant> variants = service.generate(8L, "products/8/small.jpg");
+        assertEquals(120, variants.get(0).getWidth());
+        assertEquals(120, variants.get(1).getWidth());
+
+        s3Client.put(BUCKET, "products/8/notes.jpg", "not an image".getBytes(), "image/jpeg", Instant.now());
+        assertThrows(ProductImageService.UnusableImageException.class, () -> service.generate(8L, "products/8/notes.jpg"));
+        assertThrows(ProductImageService.UnusableImageException.class, () -> service.generate(8L, "products/8/missing.jpg"));
+    }
+
+    @Test
+    void setsTheCoverThumbnailOnlyWhileTheImageIsTheCover() throws Exception {
+        s3Client.put(BUCKET, "products/7/cover.jpg", jpeg(400, 300), "image/jpeg", Instant.now());
+        // The cover was replaced while the image was queued
+        covers.put(7L, "products/7/new.jpg");
+        cacheManager.getCache(CacheConfig.PRODUCTS).put(7L, product(7L));
+        cacheManager.getCache(CacheConfig.PRODUCT_SKUS).put(70L, "sku");
+
+        service.process(7L, "products/7/cover.jpg", "products/7/cover.jpg");
+
+        assertEquals(2, variants.size());
+        assertNull(thumbnails.get(7L));
+        assertEquals(List.of(), events);
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(7L));
+
+        covers.put(7L, "products/7/cover.jpg");
+        service.process(7L, "products/7/cover.jpg", "products/7/cover.jpg");
+
+        assertEquals(2, variants.size());
+        assertEquals(THUMBNAIL_URL, thumbnails.get(7L));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(7L));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCT_SKUS).get(70L));
+        assertEquals(1, events.size());
+        CatalogEvent<?> event = (CatalogEvent<?>) events.get(0);
+        assertEquals(7L, event.getId());
+        assertEquals(THUMBNAIL_URL, ((Product) event.getEntity()).getCoverThumbnail());
+
+        // The update the event leads to finds the thumbnail set and publishes nothing
+        service.process(7L, "products/7/cover.jpg", "products/7/cover.jpg");
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void queuesAnImageOnceUntilItIsProcessed() throws Exception {
+        s3Client.put(BUCKET, "products/7/cover.jpg", jpeg(400, 300), "image/jpeg", Instant.now());
+        covers.put(7L, "products/7/cover.jpg");
+
+        service.onProduct(CatalogEvent.updated(Product.class, 7L, product(7L)));
+        service.onProduct(CatalogEvent.updated(Product.class, 7L, product(7L)));
+        service.sweep();
+        assertEquals(1, queue.size());
+
+        run();
+        assertEquals(THUMBNAIL_URL, thumbnails.get(7L));
+        service.sweep();
+        assertEquals(0, queue.size());
+
+        service.onProduct(CatalogEvent.updated(Product.class, 7L, product(7L)));
+        assertEquals(1, queue.size());
+        run();
+        assertEquals(2, variants.size());
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void recordsOriginalsThatCannotBeResizedSoTheSweepSkipsThem() throws Exception {
+        s3Client.put(BUCKET, "products/10/huge.jpg", jpeg(1500, 1500), "image/jpeg", Instant.now());
+        covers.put(10L, "products/10/huge.jpg");
+        covers.put(11L, "products/11/missing.jpg");
+
+        service.sweep();
+        run();
+
+        assertEquals(Set.of("products/10/huge.jpg", "products/11/missing.jpg"), failures.keySet());
+        assertEquals("1500x1500 is more than 2000000 pixels", failures.get("products/10/huge.jpg").getReason());
+        assertEquals("not in the bucket", failures.get("products/11/missing.jpg").getReason());
+        assertEquals(List.of(), variants);
+        service.sweep();
+        assertEquals(0, queue.size());
+
+        // Saving the product tries its images again
+        s3Client.put(BUCKET, "products/11/missing.jpg", jpeg(400, 300), "image/jpeg", Instant.now());
+        service.onProduct(CatalogEvent.updated(Product.class, 11L, product(11L)));
+        run();
+        assertEquals(Set.of("products/10/huge.jpg"), failures.keySet());
+        assertEquals(2, variants.size());
+    }
+
+    @Test
+    void keepsTheOriginalExtensionInVariantKeys() {
+        assertEquals("variants/thumbnail/p/shoe.png.jpg",
+                ProductImageService.variantKey("p/shoe.png", ImageVariant.THUMBNAIL, "jpg"));
+        assertEquals("variants/thumbnail/p/shoe.jpg.jpg",
+                ProductImageService.variantKey("p/shoe.jpg", ImageVariant.THUMBNAIL, "jpg"));
+        assertEquals("variants/medium/p.v2/shoe.png",
+                ProductImageService.variantKey("p.v2/shoe", ImageVariant.MEDIUM, "png"));
+    }
+
+    @Test
+    void resolvesKeysFromStoredImageValues() {
+        assertEquals("products/1/cover.jpg", service.keyOf("products/1/cover.jpg"));
+        assertEquals("products/1/cover.jpg", service.keyOf("https://shoes.s3.us-east-1.amazonaws.com/products/1/cover.jpg"));
+        assertEquals("products/1/cover.jpg", service.keyOf("http://localhost:4566/shoes/products/1/cover.jpg?X-Amz-Expires=600"));
+        assertEquals("products/1/my cover.jpg", service.keyOf("https://shoes.s3.amazonaws.com/products/1/my%20cover.jpg"));
+        assertNull(service.keyOf("variants/thumbnail/products/1/cover.jpg"));
+        assertNull(service.keyOf("https://cdn.example.com/shoes/products/1/cover.jpg"));
+        assertNull(service.keyOf("https://shoes.example.com/products/1/cover.jpg"));
+        assertNull(service.keyOf("https://boots.s3.amazonaws.com/products/1/cover.jpg"));
+        assertNull(service.keyOf("http://localhost:4566/boots/products/1/cover.jpg"));
+        assertNull(service.keyOf(" "));
+        assertNull(service.keyOf(null));
+    }
+
+    private void run() {
+        List<Runnable> tasks = List.copyOf(queue);
+        queue.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private Product product(Long id) {
+        return new Product.Builder().setId(id).setCover(covers.get(id)).setCoverThumbnail(thumbnails.get(id)).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductImageVariantRepository variantRepository() {
+        return stub(ProductImageVariantRepository.class, Map.of(
+                "findBySourceKeyIn", args -> variants.stream()
+                        .filter(variant -> ((Collection<String>) args[0]).contains(variant.getSourceKey()))
+                        .toList(),
+                "saveAll", args -> {
+                    ((Iterable<ProductImageVariant>) args[0]).forEach(variants::add);
+                    return args[0];
+                },
+                "findSourceKeys", args -> variants.stream().map(ProductImageVariant::getSourceKey).distinct().toList()));
+    }
+
+    private ProductImageFailureRepository failureRepository() {
+        return stub(ProductImageFailureRepository.class, Map.of(
+                "findBySourceKey", args -> Optional.ofNullable(failures.get((String) args[0])),
+                "findSourceKeys", args -> List.copyOf(failures.keySet()),
+                "save", args -> {
+                    ProductImageFailure failure = (ProductImageFailure) args[0];
+                    failures.put(failure.getSourceKey(), failure);
+                    return failure;
+                },
+                "deleteBySourceKey", args -> failures.remove((String) args[0]) == null ? 0 : 1));
+    }
+
+    private ProductRepository productRepository() {
+        return stub(ProductRepository.class, Map.of(
+                "updateCoverThumbnail", args -> {
+                    if (!args[1].equals(covers.get((Long) args[0])) || args[2].equals(thumbnails.get((Long) args[0]))) {
+                        return 0;
+                    }
+                    thumbnails.put((Long) args[0], (String) args[2]);
+                    return 1;
+                },
+                "findById", args -> Optional.of(product((Long) args[0])),
+                "findAllImageFields", args -> covers.keySet().stream()
+                        .map(id -> stub(ProductRepository.ImageFields.class, Map.of(
+                                "getId", fieldArgs -> id,
+                                "getCover", fieldArgs -> covers.get(id),
+                                "getImageUrl1", fieldArgs -> null,
+                                "getImageUrl2", fieldArgs -> null,
+                                "getImageUrl3", fieldArgs -> null,
+                                "getImageUrl4", fieldArgs -> null)))
+                        .toList()));
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    // Implements the named methods of an interface, any other method throws
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> body = methods.get(method.getName());
+            if (body == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return body.apply(args);
+        });
+    }
+
+    private static byte[] jpeg(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+}
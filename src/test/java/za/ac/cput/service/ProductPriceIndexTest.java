@@ -0,0 +1,128 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.ac.cput.domain.PriceSummary;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductSku;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.ProductSkuRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductPriceIndexTest {
+
+    private ProductPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductPriceIndex(null);
+        sku(1L, 100L, 1500.0, 3);
+        sku(2L, 100L, 900.0, 0);
+        sku(3L, 200L, 700.0, 5);
+        sku(4L, 300L, 1100.0, 2);
+        sku(5L, 300L, 450.0, 1);
+    }
+
+    @Test
+    void listsProductsInARangeByLowestMatchingPrice() {
+        assertEquals(List.of(new ProductPriceIndex.Match(200L, 700.0), new ProductPriceIndex.Match(100L, 900.0),
+                        new ProductPriceIndex.Match(300L, 1100.0)),
+                index.range(500.0, 1200.0, false, 10));
+        assertEquals(List.of(new ProductPriceIndex.Match(200L, 700.0), new ProductPriceIndex.Match(300L, 1100.0)),
+                index.range(500.0, 1200.0, true, 10));
+        assertEquals(List.of(300L, 200L), index.range(null, null, false, 2).stream().map(ProductPriceIndex.Match::productId).toList());
+        assertEquals(List.of(new ProductPriceIndex.Match(200L, 700.0)), index.range(700.0, 700.0, false, 10));
+        assertEquals(List.of(), index.range(1200.0, 500.0, false, 10));
+    }
+
+    @Test
+    void summarisesEachProduct() {
+        PriceSummary summary = index.summary(100L);
+        assertEquals(900.0, summary.getMinPrice());
+        assertEquals(1500.0, summary.getMaxPrice());
+        assertTrue(summary.isInStock());
+        assertEquals(2, summary.getSkuCount());
+        assertNull(index.summary(999L));
+    }
+
+    @Test
+    void followsSkuAndProductWrites() {
+        sku(1L, 100L, 1500.0, 0);
+        assertFalse(index.summary(100L).isInStock());
+
+        sku(3L, 200L, 1300.0, 5);
+        assertEquals(List.of(100L, 300L), index.range(500.0, 1200.0, false, 10).stream().map(ProductPriceIndex.Match::productId).toList());
+        assertEquals(1300.0, index.summary(200L).getMinPrice());
+
+        index.onSku(CatalogEvent.deleted(ProductSku.class, 5L));
+        assertEquals(1100.0, index.summary(300L).getMinPrice());
+
+        index.onProduct(CatalogEvent.deleted(Product.class, 100L));
+        assertNull(index.summary(100L));
+        assertEquals(List.of(300L), index.range(500.0, 1200.0, false, 10).stream().map(ProductPriceIndex.Match::productId).toList());
+    }
+
+    @Test
+    void keepsWritesThatArriveWhileARebuildReads() {
+        ProductSkuRepository.SkuPrice row = new ProductSkuRepository.SkuPrice() {
+            public Long getId() {
+                return 1L;
+            }
+
+            public Long getProductId() {
+                return 100L;
+            }
+
+            public Double getPrice() {
+                return 1500.0;
+            }
+
+            public Integer getQuantity() {
+                return 3;
+            }
+        };
+        // The table is read before these writes commit, their events arrive before the new state is swapped in
+        index = new ProductPriceIndex(repository(() -> {
+            sku(1L, 100L, 1200.0, 3);
+            sku(6L, 600L, 300.0, 1);
+            index.onSku(CatalogEvent.deleted(ProductSku.class, 6L));
+            sku(7L, 700L, 350.0, 1);
+            return List.of(row);
+        }));
+
+        index.rebuild();
+
+        assertEquals(List.of(new ProductPriceIndex.Match(700L, 350.0), new ProductPriceIndex.Match(100L, 1200.0)),
+                index.range(null, null, false, 10));
+        assertNull(index.summary(600L));
+
+        // Once the rebuild is done writes are no longer recorded
+        sku(8L, 800L, 100.0, 1);
+        assertEquals(3, index.range(null, null, false, 10).size());
+    }
+
+    private static ProductSkuRepository repository(Supplier<List<ProductSkuRepository.SkuPrice>> findAllPrices) {
+        return (ProductSkuRepository) Proxy.newProxyInstance(ProductSkuRepository.class.getClassLoader(),
+                new Class<?>[]{ProductSkuRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllPrices")) {
+                        return findAllPrices.get();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private void sku(Long id, Long productId, double price, int quantity) {
+        ProductSku sku = new ProductSku.Builder()
+                .setId(id)
+                .setProduct(new Product.Builder().setId(productId).build())
+                .setPrice(price)
+                .setQuantity(quantity)
+                .build();
+        index.onSku(CatalogEvent.updated(ProductSku.class, id, sku));
+    }
+}
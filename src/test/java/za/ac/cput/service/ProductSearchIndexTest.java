@@ -0,0 +1,66 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.ac.cput.domain.Product;
+import za.ac.cput.util.TextAnalyzer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(null);
+        index.index(product(1L, "AirForce 1", "Nike AirForce 1", "All white leather sneakers"));
+        index.index(product(2L, "Ultraboost Running Shoe", "Adidas runner", "Light shoes for running"));
+        index.index(product(3L, "Classic Leather", "Reebok classic", "A leather shoe for every day"));
+    }
+
+    @Test
+    void analyzeLowercasesStemsAndDropsStopWords() {
+        assertEquals(List.of("run", "shoe", "white"), TextAnalyzer.analyze("Running the Shoes, WHITE"));
+        assertEquals(List.of("sneaker", "90"), TextAnalyzer.analyze("sneakers 90"));
+    }
+
+    @Test
+    void searchRanksNameMatchesFirst() {
+        // "leather" is in the name of 3 but only in the description of 1
+        assertEquals(List.of(3L, 1L), index.search("leather", 10));
+    }
+
+    @Test
+    void searchMatchesStemmedForms() {
+        assertEquals(List.of(2L), index.search("runs", 10));
+        assertEquals(List.of(2L, 3L), index.search("shoe", 10));
+    }
+
+    @Test
+    void searchHonoursLimit() {
+        assertEquals(1, index.search("leather shoe", 1).size());
+        assertTrue(index.search("the", 10).isEmpty());
+    }
+
+    @Test
+    void updateAndRemoveAreIncremental() {
+        index.index(product(2L, "Ultraboost", "Adidas", "Cushioned trainer"));
+        assertTrue(index.search("running", 10).isEmpty());
+        assertEquals(List.of(2L), index.search("trainer", 10));
+
+        index.remove(3L);
+        assertEquals(List.of(1L), index.search("leather", 10));
+    }
+
+    private static Product product(Long id, String name, String summary, String description) {
+        return new Product.Builder()
+                .setId(id)
+                .setName(name)
+                .setSummary(summary)
+                .setDescription(description)
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.ac.cput.domain.ProductSku;
+import za.ac.cput.event.CatalogEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSkuCodeIndexTest {
+
+    private ProductSkuCodeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSkuCodeIndex(null);
+        index.index(sku(1L, "NK-AM90-9-BLK"));
+        index.index(sku(2L, "AD-SS-10-WHT"));
+    }
+
+    @Test
+    void looksUpIdsByCode() {
+        assertEquals(1L, index.idOf("NK-AM90-9-BLK"));
+        assertEquals(2L, index.idOf("AD-SS-10-WHT"));
+        assertNull(index.idOf("UNKNOWN"));
+        assertNull(index.idOf(null));
+    }
+
+    @Test
+    void renamingASkuDropsItsOldCode() {
+        index.on(CatalogEvent.updated(ProductSku.class, 1L, sku(1L, "NK-AM90-9-RED")));
+        assertNull(index.idOf("NK-AM90-9-BLK"));
+        assertEquals(1L, index.idOf("NK-AM90-9-RED"));
+    }
+
+    @Test
+    void deletingASkuRemovesItsCode() {
+        index.on(CatalogEvent.deleted(ProductSku.class, 2L));
+        assertNull(index.idOf("AD-SS-10-WHT"));
+    }
+
+    private static ProductSku sku(Long id, String code) {
+        return new ProductSku.Builder().setId(id).setSku(code).build();
+    }
+}
@@ -0,0 +1,113 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import za.ac.cput.domain.PresignRequest;
+import za.ac.cput.domain.Presigned;
+import za.ac.cput.util.S3Keys;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Signs against a local S3 stand-in endpoint. Signing never calls the endpoint, so nothing has to run there.
+ */
+class S3ServiceTest {
+
+    private S3Presigner presigner;
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setUp() {
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .endpointOverride(URI.create("http://localhost:4566"))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+        s3Service = new S3Service(presigner, "shoes", 100, 20, true, "http://localhost:4566");
+    }
+
+    @AfterEach
+    void tearDown() {
+        presigner.close();
+    }
+
+    @Test
+    void signsAgainstTheConfiguredEndpoint() {
+        Presigned presigned = s3Service.presign("products/1/cover.jpg", "image/jpeg");
+        assertTrue(presigned.getUrl().startsWith("http://localhost:4566/shoes/products/1/cover.jpg?"));
+        assertEquals("products/1/cover.jpg", presigned.getKey());
+        assertEquals("image/jpeg", presigned.getContentType());
+        Duration validFor = Duration.between(Instant.now(), presigned.getExpiresAt());
+        assertTrue(validFor.compareTo(Duration.ofMinutes(9)) > 0);
+    }
+
+    @Test
+    void reusesTheSignatureOfTheSameKeyAndContentType() {
+        Presigned first = s3Service.presign("products/1/cover.jpg", "image/jpeg");
+        Presigned second = s3Service.presign("products/1/cover.jpg", "image/jpeg");
+        assertEquals(first.getUrl(), second.getUrl());
+        assertEquals(first.getExpiresAt(), second.getExpiresAt());
+        assertEquals(first.getUrl(), s3Service.generatePresignedUrl("products/1/cover.jpg", "image/jpeg"));
+        assertNotEquals(first.getUrl(), s3Service.presign("products/1/cover.jpg", "image/png").getUrl());
+        assertNotEquals(first.getUrl(), s3Service.presign("products/2/cover.jpg", "image/jpeg").getUrl());
+    }
+
+    @Test
+    void signsABatchInRequestOrder() {
+        List<PresignRequest> requests = IntStream.range(0, 20)
+                .mapToObj(i -> new PresignRequest("products/" + i + "/image1.jpg", "image/jpeg"))
+                .toList();
+        List<Presigned> presigned = s3Service.presignAll(requests);
+        assertEquals(20, presigned.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("products/" + i + "/image1.jpg", presigned.get(i).getKey());
+            assertTrue(presigned.get(i).getUrl().contains("/products/" + i + "/image1.jpg?"));
+        }
+    }
+
+    @Test
+    void cachesReadUrlsByKeyAndSignsMissingOnesInBulk() {
+        String cover = s3Service.readUrl("products/1/cover.jpg");
+        assertTrue(cover.startsWith("http://localhost:4566/shoes/products/1/cover.jpg?"));
+        assertTrue(cover.contains("X-Amz-Expires=3600"));
+        assertEquals(cover, s3Service.readUrl("products/1/cover.jpg"));
+
+        Map<String, String> urls = s3Service.readUrls(List.of("products/1/cover.jpg", "products/1/image1.jpg"));
+        assertEquals(cover, urls.get("products/1/cover.jpg"));
+        assertEquals(urls.get("products/1/image1.jpg"), s3Service.readUrl("products/1/image1.jpg"));
+        assertTrue(s3Service.isPrivateBucket());
+    }
+
+    @Test
+    void resolvesKeysAndDropsSignaturesSentBack() {
+        String signed = s3Service.readUrl("products/1/cover.jpg");
+        assertEquals("products/1/cover.jpg", s3Service.keyOf(signed));
+        assertEquals("http://localhost:4566/shoes/products/1/cover.jpg", S3Keys.withoutSignature(signed));
+        assertEquals("products/1/cover.jpg", S3Keys.withoutSignature("products/1/cover.jpg"));
+        assertEquals("https://cdn.example.com/a.jpg?v=2", S3Keys.withoutSignature("https://cdn.example.com/a.jpg?v=2"));
+    }
+
+    @Test
+    void rejectsIncompleteAndOversizedBatches() {
+        assertThrows(IllegalArgumentException.class,
+                () -> s3Service.presignAll(List.of(new PresignRequest("products/1/cover.jpg", null))));
+        List<PresignRequest> tooMany = IntStream.range(0, 21)
+                .mapToObj(i -> new PresignRequest("k" + i, "image/jpeg"))
+                .toList();
+        assertThrows(IllegalArgumentException.class, () -> s3Service.presignAll(tooMany));
+    }
+}
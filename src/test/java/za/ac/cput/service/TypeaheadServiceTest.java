@@ -0,0 +1,116 @@
+package za.ac.cput.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.ac.cput.domain.Category;
+import za.ac.cput.domain.Product;
+import za.ac.cput.domain.ProductAttribute;
+import za.ac.cput.domain.Suggestion;
+import za.ac.cput.enums.ProductAttributeType;
+import za.ac.cput.enums.SuggestionType;
+import za.ac.cput.event.CatalogEvent;
+import za.ac.cput.repository.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeaheadServiceTest {
+
+    private TypeaheadService typeahead;
+
+    @BeforeEach
+    void setUp() {
+        typeahead = new TypeaheadService(null, null, null, null, null, null);
+        typeahead.onProduct(CatalogEvent.created(Product.class, 1L, product(1L, "Nike Air Max 90")));
+        typeahead.onCategory(CatalogEvent.created(Category.class, 2L, new Category.Builder().setId(2L).setName("Running").build()));
+        typeahead.onAttribute(CatalogEvent.created(ProductAttribute.class, 3L, attribute(3L, ProductAttributeType.BRAND, "Nike")));
+        typeahead.onAttribute(CatalogEvent.created(ProductAttribute.class, 4L, attribute(4L, ProductAttributeType.COLOR, "Navy")));
+    }
+
+    @Test
+    void completesAnyWordOfAName() {
+        assertEquals(List.of("Nike", "Nike Air Max 90"), texts(typeahead.suggest("NIK", 10)));
+        assertEquals(List.of("Nike Air Max 90"), texts(typeahead.suggest("air-m", 10)));
+        assertEquals(List.of("Running"), texts(typeahead.suggest(" run", 10)));
+        assertEquals(SuggestionType.BRAND, typeahead.suggest("nike", 1).get(0).getType());
+        assertEquals(List.of(), typeahead.suggest("na", 10));
+        assertEquals(List.of(), typeahead.suggest("  ", 10));
+    }
+
+    @Test
+    void followsRenamesAndDeletes() {
+        typeahead.onProduct(CatalogEvent.updated(Product.class, 1L, product(1L, "Pegasus 40")));
+        assertEquals(List.of("Nike"), texts(typeahead.suggest("nike", 10)));
+        assertEquals(List.of("Pegasus 40"), texts(typeahead.suggest("40", 10)));
+
+        typeahead.onAttribute(CatalogEvent.deleted(ProductAttribute.class, 3L));
+        typeahead.onCategory(CatalogEvent.deleted(Category.class, 2L));
+        assertEquals(List.of(), typeahead.suggest("nike", 10));
+        assertEquals(List.of(), typeahead.suggest("run", 10));
+    }
+
+    @Test
+    void keepsWritesThatArriveWhileARebuildReads() {
+        ProductRepository.ProductName row = new ProductRepository.ProductName() {
+            public Long getId() {
+                return 1L;
+            }
+
+            public String getName() {
+                return "Nike Air Max 90";
+            }
+        };
+        // The names are read before these writes commit, their events arrive before the new trie is swapped in
+        typeahead = new TypeaheadService(repository(ProductRepository.class, "findAllNames", () -> {
+            typeahead.onProduct(CatalogEvent.updated(Product.class, 1L, product(1L, "Pegasus 40")));
+            typeahead.onProduct(CatalogEvent.created(Product.class, 5L, product(5L, "Vomero 17")));
+            return List.of(row);
+        }), repository(CategoryRepository.class, null, null), repository(SubCategoryRepository.class, null, null),
+                repository(ProductAttributeRepository.class, null, null), repository(ProductSkuRepository.class, null, null),
+                repository(OrderItemRepository.class, null, null));
+
+        typeahead.rebuild();
+
+        assertEquals(List.of(), typeahead.suggest("nike", 10));
+        assertEquals(List.of("Pegasus 40"), texts(typeahead.suggest("peg", 10)));
+        assertEquals(List.of("Vomero 17"), texts(typeahead.suggest("vom", 10)));
+
+        // Once the rebuild is done writes are no longer recorded
+        typeahead.onProduct(CatalogEvent.deleted(Product.class, 5L));
+        assertEquals(List.of(), typeahead.suggest("vom", 10));
+    }
+
+    @Test
+    void indexesTheWordsOfAName() {
+        assertEquals(List.of("nike air max 90", "air max 90", "max 90", "90"),
+                List.copyOf(TypeaheadService.keys("Nike Air-Max 90")));
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getText).toList();
+    }
+
+    // One query returns what the supplier gives, every other list query returns no rows
+    private static <T> T repository(Class<T> type, String query, Supplier<List<?>> rows) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals(query)) {
+                return rows.get();
+            }
+            if (method.getReturnType() == List.class) {
+                return List.of();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }));
+    }
+
+    private static Product product(Long id, String name) {
+        return new Product.Builder().setId(id).setName(name).build();
+    }
+
+    private static ProductAttribute attribute(Long id, ProductAttributeType type, String value) {
+        return new ProductAttribute.Builder().setId(id).setType(type).setValue(value).build();
+    }
+}
@@ -0,0 +1,49 @@
+package za.ac.cput.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoOccurrenceMatrixTest {
+
+    @Test
+    void ranksNeighboursBySummedBasketWeight() {
+        CoOccurrenceMatrix.Builder builder = new CoOccurrenceMatrix.Builder(10, 10);
+        builder.add(new long[]{1, 2, 3}, 3);
+        builder.add(new long[]{1, 3}, 2);
+        builder.add(new long[]{1, 4, 4}, 1);
+        CoOccurrenceMatrix matrix = builder.build();
+
+        assertArrayEquals(new long[]{3, 2, 4}, matrix.related(1, 10));
+        assertArrayEquals(new long[]{3}, matrix.related(1, 1));
+        assertEquals(5, matrix.score(1, 3));
+        assertEquals(5, matrix.score(3, 1));
+        assertEquals(1, matrix.score(4, 1));
+        assertEquals(0, matrix.score(2, 4));
+        assertEquals(4, matrix.size());
+    }
+
+    @Test
+    void keepsOnlyTheBestNeighboursAndBreaksTiesByLowerId() {
+        CoOccurrenceMatrix.Builder builder = new CoOccurrenceMatrix.Builder(2, 10);
+        builder.add(new long[]{10, 40, 30, 20}, 1);
+        builder.add(new long[]{10, 40}, 1);
+        CoOccurrenceMatrix matrix = builder.build();
+
+        assertArrayEquals(new long[]{40, 20}, matrix.related(10, 5));
+        assertEquals(0, matrix.score(10, 30));
+    }
+
+    @Test
+    void ignoresSingleItemAndOversizedBaskets() {
+        CoOccurrenceMatrix.Builder builder = new CoOccurrenceMatrix.Builder(5, 3);
+        builder.add(new long[]{1, 1}, 1);
+        builder.add(new long[]{1, 2, 3, 4}, 1);
+        assertEquals(0, builder.basketCount());
+
+        CoOccurrenceMatrix matrix = builder.build();
+        assertEquals(0, matrix.size());
+        assertArrayEquals(new long[0], matrix.related(1, 5));
+        assertArrayEquals(new long[0], CoOccurrenceMatrix.empty().related(1, 5));
+    }
+}
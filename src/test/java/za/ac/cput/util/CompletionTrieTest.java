@@ -0,0 +1,52 @@
+package za.ac.cput.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionTrieTest {
+
+    private CompletionTrie<String> trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new CompletionTrie<>(3);
+        trie.put("nike air max", "air max", 50);
+        trie.put("nike air force", "air force", 80);
+        trie.put("nike", "nike", 10);
+        trie.put("new balance", "new balance", 30);
+    }
+
+    @Test
+    void ranksCompletionsByWeight() {
+        assertEquals(List.of("air force", "air max", "nike"), trie.complete("ni", 10));
+        assertEquals(List.of("air force", "air max", "new balance"), trie.complete("n", 10));
+        assertEquals(List.of("air max"), trie.complete("nike air m", 10));
+        assertEquals(List.of("air force"), trie.complete("n", 1));
+        assertEquals(List.of(), trie.complete("nikes", 10));
+        assertEquals(List.of(), trie.complete("x", 10));
+    }
+
+    @Test
+    void removingAKeyReranksItsPrefixes() {
+        assertTrue(trie.remove("nike air force", "air force"));
+        assertFalse(trie.remove("nike air force", "air force"));
+        assertFalse(trie.remove("nike air", "air max"));
+        assertEquals(List.of("air max", "nike"), trie.complete("nike", 10));
+        assertEquals(List.of("air max", "new balance", "nike"), trie.complete("n", 10));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    void returnsAValueStoredUnderSeveralKeysOnce() {
+        trie.put("max", "air max", 50);
+        trie.put("max 90", "air max", 50);
+        assertEquals(List.of("air max"), trie.complete("max", 10));
+
+        trie.put("nike", "nike", 100);
+        assertEquals(List.of("nike", "air force", "air max"), trie.complete("nike", 10));
+    }
+}
@@ -0,0 +1,107 @@
+package za.ac.cput.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import za.ac.cput.enums.ImportFormat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsQuotedCsvFieldsWithCommasAndEscapedQuotes() throws Exception {
+        List<RowReader.Row> rows = read(ImportFormat.CSV,
+                "name, price ,summary\n" +
+                "\"Air Max, \"\"90\"\"\", 1299.5 ,\"\"\n");
+
+        assertEquals(1, rows.size());
+        RowReader.Row row = rows.get(0);
+        assertNull(row.error());
+        assertEquals("Air Max, \"90\"", row.get("name"));
+        assertEquals("1299.5", row.get("price"));
+        assertNull(row.get("summary"));
+    }
+
+    @Test
+    void keepsNewlinesOfAQuotedFieldAndNumbersRowsByTheirFirstLine() throws Exception {
+        List<RowReader.Row> rows = read(ImportFormat.CSV,
+                "name,description\n" +
+                "\n" +
+                "Runner,\"Light\n" +
+                "and \"\"fast\"\"\"\n" +
+                "Trail,Grippy\n");
+
+        assertEquals(2, rows.size());
+        assertEquals(3, rows.get(0).line());
+        assertEquals("Light\nand \"fast\"", rows.get(0).get("description"));
+        assertEquals(5, rows.get(1).line());
+        assertEquals("Trail", rows.get(1).get("name"));
+    }
+
+    @Test
+    void reportsMalformedCsvRowsAndCarriesOn() throws Exception {
+        List<RowReader.Row> rows = read(ImportFormat.CSV,
+                "name,price\n" +
+                "Runner\n" +
+                "Trail,10,extra\n" +
+                "Court,20\n" +
+                "\"Never closed,30\n");
+
+        assertEquals(4, rows.size());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("Malformed line: expected 2 fields but found 1", rows.get(0).error());
+        assertEquals(3, rows.get(1).line());
+        assertEquals("Malformed line: expected 2 fields but found 3", rows.get(1).error());
+        assertNull(rows.get(2).error());
+        assertEquals("Court", rows.get(2).get("name"));
+        assertEquals(5, rows.get(3).line());
+        assertEquals("Malformed line: unterminated quoted field", rows.get(3).error());
+    }
+
+    @Test
+    void readsFlatNdjsonObjectsAndJoinsArrays() throws Exception {
+        List<RowReader.Row> rows = read(ImportFormat.NDJSON,
+                "{\"name\":\"Runner\",\"price\":10.5,\"subCategoryIds\":[3,4],\"summary\":null}\n" +
+                "\n" +
+                "[1,2]\n" +
+                "{\"name\":\n");
+
+        assertEquals(3, rows.size());
+        assertEquals(Map.of("name", "Runner", "price", "10.5", "subCategoryIds", "3;4"), rows.get(0).fields());
+        assertEquals(3, rows.get(1).line());
+        assertEquals("Malformed line: expected a JSON object", rows.get(1).error());
+        assertEquals(4, rows.get(2).line());
+        assertTrue(rows.get(2).error().startsWith("Malformed line: "));
+    }
+
+    @Test
+    void stopsJoiningLinesAtTheRowLimit() throws Exception {
+        String longLine = "x".repeat(RowReader.MAX_ROW_LENGTH / 2) + "\n";
+        List<RowReader.Row> rows = read(ImportFormat.CSV,
+                "name\n\"" + longLine + longLine + longLine + "Runner\n");
+
+        assertEquals(2, rows.get(0).line());
+        assertTrue(rows.get(0).error().contains("longer than"));
+        assertEquals("Runner", rows.get(rows.size() - 1).get("name"));
+    }
+
+    private List<RowReader.Row> read(ImportFormat format, String body) throws Exception {
+        List<RowReader.Row> rows = new ArrayList<>();
+        try (RowReader reader = new RowReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                format, objectMapper)) {
+            RowReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
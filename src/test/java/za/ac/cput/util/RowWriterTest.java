@@ -0,0 +1,58 @@
+package za.ac.cput.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import za.ac.cput.enums.ImportFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowWriterTest {
+
+    private static final List<String> COLUMNS = List.of("id", "name", "price", "subCategoryIds");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesCsvWithAHeaderAndQuotedFields() {
+        String csv = write(ImportFormat.CSV);
+        assertEquals("id,name,price,subCategoryIds\n" +
+                "1,\"Air Max, \"\"90\"\"\",1299.5,3;4\n" +
+                "2,Runner,,\n", csv);
+    }
+
+    @Test
+    void writesNdjsonWithTypedValues() {
+        String ndjson = write(ImportFormat.NDJSON);
+        assertEquals("{\"id\":1,\"name\":\"Air Max, \\\"90\\\"\",\"price\":1299.5,\"subCategoryIds\":[3,4]}\n" +
+                "{\"id\":2,\"name\":\"Runner\",\"subCategoryIds\":[]}\n", ndjson);
+    }
+
+    @Test
+    void outputReadsBackWithRowReader() throws Exception {
+        for (ImportFormat format : ImportFormat.values()) {
+            try (RowReader reader = new RowReader(new ByteArrayInputStream(write(format).getBytes(StandardCharsets.UTF_8)),
+                    format, objectMapper)) {
+                RowReader.Row first = reader.next();
+                assertEquals("Air Max, \"90\"", first.get("name"));
+                assertEquals("3;4", first.get("subCategoryIds"));
+                RowReader.Row second = reader.next();
+                assertNull(second.get("price"));
+                assertNull(reader.next());
+            }
+        }
+    }
+
+    private String write(ImportFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RowWriter writer = new RowWriter(out, format, COLUMNS, objectMapper);
+        writer.write(1L, "Air Max, \"90\"", 1299.5, List.of(3L, 4L));
+        writer.write(2L, "Runner", null, List.of());
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
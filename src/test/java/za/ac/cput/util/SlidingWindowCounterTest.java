@@ -0,0 +1,66 @@
+package za.ac.cput.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(MINUTE, 60, now::get);
+
+    @Test
+    void sumsTheSlicesWithinTheWindow() {
+        counter.add(1, 1);
+        now.set(MINUTE.toMillis() * 30);
+        counter.add(1, 2);
+        counter.add(2, 1);
+        now.set(MINUTE.toMillis() * 50);
+        counter.add(1, 4);
+
+        assertEquals(Map.of(1L, 4L), counter.totals(Duration.ofMinutes(10)));
+        assertEquals(Map.of(1L, 6L, 2L, 1L), counter.totals(Duration.ofMinutes(30)));
+        assertEquals(Map.of(1L, 7L, 2L, 1L), counter.totals(Duration.ofHours(1)));
+        assertEquals(Map.of(1L, 7L, 2L, 1L), counter.totals(Duration.ofDays(1)));
+    }
+
+    @Test
+    void dropsSlicesOnceTheyLeaveTheRing() {
+        counter.add(1, 1);
+        now.set(MINUTE.toMillis() * 60);
+        counter.add(2, 1);
+        assertEquals(Map.of(2L, 1L), counter.totals(Duration.ofHours(1)));
+
+        // The slot of minute 0 is reused for minute 61, the old count is gone
+        now.set(MINUTE.toMillis() * 61);
+        counter.add(3, 1);
+        assertEquals(Map.of(2L, 1L, 3L, 1L), counter.totals(Duration.ofHours(1)));
+        now.set(MINUTE.toMillis() * 200);
+        assertEquals(Map.of(), counter.totals(Duration.ofHours(1)));
+    }
+
+    @Test
+    void countsEveryConcurrentIncrement() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.add(i % 4, 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(Map.of(0L, 20_000L, 1L, 20_000L, 2L, 20_000L, 3L, 20_000L), counter.totals(MINUTE));
+    }
+}